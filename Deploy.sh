@@ -37,6 +37,8 @@ LOG_DIR="/var/log/$PROJECT_NAME"
 SYSTEMD_SERVICE_PATH="/etc/systemd/system/$SERVICE_NAME.service"
 UPLOAD_PATH="/home/testing/"
 EXPORT_PATH="/home/testing/"
+# Signs pagination cursors, a fresh key per deploy only invalidates cursors clients still hold
+CURSOR_SECRET="${CURSOR_SECRET:-$(head -c 32 /dev/urandom | base64)}"
 
 ########################################
 # Helpers
@@ -272,6 +274,7 @@ Environment=DB_PASS=${DB_PASS}
 Environment=SERVER_PORT=${SERVER_PORT}
 Environment=UPLOAD_PATH=${UPLOAD_PATH}
 Environment=EXPORT_PATH=${EXPORT_PATH}
+Environment=CURSOR_SECRET=${CURSOR_SECRET}
 Environment=MAX_FILE_SIZE=20MB
 Environment=MAX_REQUEST_SIZE=20MB
 ExecStart=/usr/bin/java -Xms256m -Xmx1g -jar ${ABS_JAR_PATH}
@@ -154,6 +154,24 @@ export const getProductBySku = async (sku) => {
   }
 };
 
+// Image urls in product responses are relative and need the auth header, so the bytes are fetched as a blob
+export const getProductImage = async (imageUrl) => {
+  try {
+    const response = await axios.get(`${API_BASE_URL}${imageUrl}`, {
+      headers: getHeaders(),
+      responseType: "blob",
+    });
+
+    return response.data;
+  } catch (error) {
+    if (error.response?.status === 401) {
+      console.error("Unauthorized access:", error);
+    }
+    console.error("Error fetching product image:", error);
+    throw error;
+  }
+};
+
 export const updateProductImages = async (productId, images) => {
   try {
     const response = await axios.put(
@@ -6,6 +6,7 @@ import { getAllMaterials } from "../../ApiService/MaterialService/MaterialApiSer
 import { getAllFurnitureFamilies } from "../../ApiService/FurnitureFamily/FurnitureFamilyApiServices";
 import { getAllSuppliers } from "../../ApiService/SupplierService/SupplierApiService";
 import { getSubFamilyByFamilyId } from "../../ApiService/SubFamily/SubFamilyApiService";
+import { getProductImage } from "../../ApiService/ProductCatalog/ProductCatalogApiServices";
 
 const AddProductModal = ({
   isOpen,
@@ -136,38 +137,35 @@ const AddProductModal = ({
 
       // Combine old images into one state
       if (productData.allImages && productData.allImages.length > 0) {
-        const existingImgs = productData.allImages.map((img, index) => ({
-          id: `existing-${index}`,
-          // Assuming these are base64 strings; adjust if they're URLs
-          src: `data:image/png;base64,${img}`,
-          isNew: false,
-        }));
-        setImages(existingImgs);
-      } else if (productData.images) {
-        // If images are provided as comma-separated strings
-        const existingImgs = productData.images
-          .split(",")
-          .map((img, index) => ({
-            id: `existing-${index}`,
-            src: img.trim(),
-            isNew: false,
-          }));
-        setImages(existingImgs);
+        loadExistingImages(productData.allImages);
+      } else {
+        setImages([]);
       }
     }
   }, [isEditing, productData]);
 
-  function convertBase64ToBlob(base64Data, contentType = "image/png") {
-    const byteCharacters = atob(base64Data);
-    const byteNumbers = new Array(byteCharacters.length);
-    for (let i = 0; i < byteCharacters.length; i++) {
-      byteNumbers[i] = byteCharacters.charCodeAt(i);
-    }
-    const byteArray = new Uint8Array(byteNumbers);
-    return new Blob([byteArray], { type: contentType });
+  // The image endpoint needs the auth header, so the originals are fetched as blobs. The blob is kept to
+  // send the image back on update, since an update replaces the product's whole image list
+  async function loadExistingImages(allImages) {
+    const existingImgs = await Promise.all(
+      allImages.map(async (img, index) => {
+        try {
+          const blob = await getProductImage(img.url);
+          return {
+            id: `existing-${img.hash || index}`,
+            file: blob,
+            src: URL.createObjectURL(blob),
+            isNew: false,
+          };
+        } catch (error) {
+          console.error("Error loading product image:", error);
+          return null;
+        }
+      })
+    );
+    setImages(existingImgs.filter(Boolean));
   }
 
-
   // When selecting new images, append them to the current images state
   const handleImageChange = (e) => {
     const selectedFiles = Array.from(e.target.files);
@@ -182,19 +180,9 @@ const AddProductModal = ({
     }
   };
 
-  async function prepareImagesForUpdate() {
-    const imagesForUpload = await Promise.all(
-      images.map((img) => {
-        if (img.isNew) {
-          return img.file;
-        } else {
-          // Extract the base64 part and convert to blob
-          const base64Data = img.src.split(",")[1];
-          return convertBase64ToBlob(base64Data, "image/png");
-        }
-      })
-    );
-    return imagesForUpload;
+  function prepareImagesForUpdate() {
+    // New images carry the selected file, existing ones the blob fetched from the server
+    return images.map((img) => img.file);
   }
 
   const removeImage = (imageId) => {
@@ -229,7 +217,7 @@ const AddProductModal = ({
       new Blob([JSON.stringify(product)], { type: "application/json" })
     );
 
-    const imagesToUpload = await prepareImagesForUpdate();
+    const imagesToUpload = prepareImagesForUpdate();
     // Append new image files
     imagesToUpload.forEach((file) => {
       formData.append("images", file);
@@ -12,6 +12,10 @@ import {
   Building2,
 } from "lucide-react";
 import main from "../../images/main.jpg";
+import {
+  getProductById,
+  getProductImage,
+} from "../../ApiService/ProductCatalog/ProductCatalogApiServices";
 import "bootstrap/dist/css/bootstrap.min.css"; 
 
 const ProductDetails = () => {
@@ -19,6 +23,7 @@ const ProductDetails = () => {
   const { id } = useParams();
   const location = useLocation();
   const [product, setProduct] = useState(location.state || null);
+  const [imageSrcs, setImageSrcs] = useState([]);
 
   useEffect(() => {
     if (!product) {
@@ -26,6 +31,34 @@ const ProductDetails = () => {
     }
   }, [id]);
 
+  // The image endpoint needs the auth header, so each image is loaded as a blob and shown through an object URL
+  useEffect(() => {
+    if (!product?.allImages?.length) {
+      setImageSrcs([]);
+      return;
+    }
+    let cancelled = false;
+    let objectUrls = [];
+    Promise.all(
+      product.allImages.map((img) =>
+        getProductImage(img.mediumUrl)
+          .then((blob) => URL.createObjectURL(blob))
+          .catch(() => null)
+      )
+    ).then((urls) => {
+      objectUrls = urls.filter(Boolean);
+      if (cancelled) {
+        objectUrls.forEach((url) => URL.revokeObjectURL(url));
+      } else {
+        setImageSrcs(urls);
+      }
+    });
+    return () => {
+      cancelled = true;
+      objectUrls.forEach((url) => URL.revokeObjectURL(url));
+    };
+  }, [product]);
+
   const fetchProductDetails = async () => {
     try {
       const productDetails = await getProductById(id);
@@ -59,9 +92,9 @@ const ProductDetails = () => {
                 controls={product.allImages.length > 1}
               >
                 {product.allImages.map((img, index) => (
-                  <Carousel.Item key={index}>
+                  <Carousel.Item key={img.hash || index}>
                     <img
-                      src={`data:image/png;base64,${img}`}
+                      src={imageSrcs[index] || main}
                       alt={`${product.name} ${index + 1}`}
                       className="d-block w-full h-[400px] object-cover rounded-lg"
                     />
@@ -0,0 +1,21 @@
+package com.qw.qwhomes.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@Getter
+@AllArgsConstructor
+public class CursorRequest {
+
+    // Empty for the first page, afterwards the nextCursor of the previous response
+    private final String cursor;
+    private final int size;
+    // Only read for the first page, later pages keep the sort stored in the cursor
+    private final Sort sort;
+
+    public CursorRequest(String cursor, Pageable pageable) {
+        this(cursor, pageable.getPageSize(), pageable.getSort());
+    }
+}
@@ -0,0 +1,20 @@
+package com.qw.qwhomes.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+
+    private List<T> data;
+    // Null on the last page
+    private String nextCursor;
+    private Integer size;
+    // Only filled for unfiltered lists, from the planner statistics on PostgreSQL
+    private Long estimatedTotal;
+}
@@ -0,0 +1,280 @@
+package com.qw.qwhomes.common.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.config.DatabasePlatform;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.reflect.AnnotatedElement;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Seek pagination over {@code (sort key, id)}. The position is handed to clients as an opaque
+ * HMAC-signed cursor, so no OFFSET and no COUNT(*) is ever issued.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginator {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Set<Class<?>> SORTABLE_TYPES = Set.of(String.class, Long.class, long.class, Integer.class, int.class,
+            Double.class, double.class, BigDecimal.class, LocalDateTime.class, LocalDate.class, Instant.class);
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MessageSource messageSource;
+    private final DatabasePlatform databasePlatform;
+
+    @Value("${pagination.cursor-secret}")
+    private String cursorSecret;
+
+    @PostConstruct
+    void checkCursorSecret() {
+        if (StringUtils.isBlank(cursorSecret)) {
+            throw new IllegalStateException("pagination.cursor-secret must be set, cursors cannot be signed without it");
+        }
+    }
+
+    // Position after the last row of a page, value is null when the list is sorted by id alone
+    record Cursor(String entity, String property, Sort.Direction direction, String value, Long id) {
+    }
+
+    public <T, R> CursorResponse<R> page(Class<T> entityClass, Specification<T> spec, CursorRequest request, Function<T, R> mapper) {
+        return page(entityClass, null, spec, request, mapper);
+    }
+
+    // A null spec means the list is unfiltered, which is the only case an estimated total is returned for
+    public <T, R> CursorResponse<R> page(Class<T> entityClass, String entityGraph, Specification<T> spec,
+                                         CursorRequest request, Function<T, R> mapper) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        String idAttribute = entityType.getId(entityType.getIdType().getJavaType()).getName();
+        boolean firstPage = StringUtils.isEmpty(request.getCursor());
+        Cursor cursor = firstPage ? firstCursor(entityType, idAttribute, request.getSort()) : decode(request.getCursor(), entityType);
+        int size = Math.max(request.getSize(), 1);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (!firstPage) {
+            predicates.add(after(cursor, idAttribute, entityType, root, cb));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(QueryUtils.toOrders(sortOf(cursor, idAttribute), root, cb));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query).setMaxResults(size + 1);
+        if (entityGraph != null) {
+            typedQuery.setHint(EntityGraph.EntityGraphType.FETCH.getKey(), entityManager.getEntityGraph(entityGraph));
+        }
+        List<T> rows = typedQuery.getResultList();
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = hasNext ? encode(next(cursor, idAttribute, content.get(content.size() - 1))) : null;
+        Long estimatedTotal = null;
+        if (spec == null && firstPage) {
+            estimatedTotal = hasNext ? estimateRows(entityClass) : Long.valueOf(content.size());
+        }
+        return new CursorResponse<>(content.stream().map(mapper).toList(), nextCursor, size, estimatedTotal);
+    }
+
+    private <T> Cursor firstCursor(EntityType<T> entityType, String idAttribute, Sort sort) {
+        Sort.Order order = sort == null ? null : sort.stream().findFirst().orElse(null);
+        if (order == null) {
+            return new Cursor(entityType.getName(), idAttribute, Sort.Direction.ASC, null, null);
+        }
+        if (!idAttribute.equals(order.getProperty())) {
+            sortAttribute(entityType, order.getProperty());
+        }
+        return new Cursor(entityType.getName(), order.getProperty(), order.getDirection(), null, null);
+    }
+
+    // Only required, comparable basic columns can be seeked on without tripping over NULL ordering
+    private <T> SingularAttribute<? super T, ?> sortAttribute(EntityType<T> entityType, String property) {
+        try {
+            SingularAttribute<? super T, ?> attribute = entityType.getSingularAttribute(property);
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                    && isRequired(attribute)
+                    && (SORTABLE_TYPES.contains(attribute.getJavaType()) || attribute.getJavaType().isEnum())) {
+                return attribute;
+            }
+        } catch (IllegalArgumentException e) {
+            // unknown attribute, reported below
+        }
+        throw new BusinessException(messageSource.getMessage("pagination.cursor.sort.unsupported", new Object[]{property}, Locale.getDefault()));
+    }
+
+    // The metamodel only reports @Basic(optional = false) and ids as required, the entities declare it on the column
+    private static boolean isRequired(SingularAttribute<?, ?> attribute) {
+        if (!attribute.isOptional() || attribute.isId()) {
+            return true;
+        }
+        if (!(attribute.getJavaMember() instanceof AnnotatedElement member)) {
+            return false;
+        }
+        Column column = member.getAnnotation(Column.class);
+        Basic basic = member.getAnnotation(Basic.class);
+        return (column != null && !column.nullable())
+                || (basic != null && !basic.optional())
+                || member.isAnnotationPresent(NotNull.class)
+                || member.isAnnotationPresent(NotBlank.class);
+    }
+
+    private Sort sortOf(Cursor cursor, String idAttribute) {
+        Sort idSort = Sort.by(cursor.direction(), idAttribute);
+        return idAttribute.equals(cursor.property()) ? idSort : Sort.by(cursor.direction(), cursor.property()).and(idSort);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> Predicate after(Cursor cursor, String idAttribute, EntityType<T> entityType, Root<T> root, CriteriaBuilder cb) {
+        boolean ascending = cursor.direction().isAscending();
+        Path<Long> id = root.get(idAttribute);
+        Predicate idAfter = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+        if (idAttribute.equals(cursor.property())) {
+            return idAfter;
+        }
+        Path<Comparable> key = root.get(cursor.property());
+        Comparable value = parseValue(cursor.value(), sortAttribute(entityType, cursor.property()).getJavaType());
+        Predicate keyAfter = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        return cb.or(keyAfter, cb.and(cb.equal(key, value), idAfter));
+    }
+
+    private Cursor next(Cursor cursor, String idAttribute, Object lastRow) {
+        BeanWrapperImpl row = new BeanWrapperImpl(lastRow);
+        Long id = ((Number) row.getPropertyValue(idAttribute)).longValue();
+        String value = idAttribute.equals(cursor.property()) ? null : formatValue(row.getPropertyValue(cursor.property()));
+        return new Cursor(cursor.entity(), cursor.property(), cursor.direction(), value, id);
+    }
+
+    private static String formatValue(Object value) {
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return String.valueOf(value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable parseValue(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == Double.class || type == double.class) {
+            return Double.valueOf(value);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        }
+        if (type == Instant.class) {
+            return Instant.parse(value);
+        }
+        return Enum.valueOf((Class<Enum>) type, value);
+    }
+
+    private String encode(Cursor cursor) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(cursor);
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(payload));
+        } catch (Exception e) {
+            throw new BusinessException(e.getMessage(), e);
+        }
+    }
+
+    private <T> Cursor decode(String token, EntityType<T> entityType) {
+        try {
+            int separator = token.indexOf('.');
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(token.substring(0, separator));
+            byte[] signature = decoder.decode(token.substring(separator + 1));
+            if (MessageDigest.isEqual(sign(payload), signature)) {
+                Cursor cursor = objectMapper.readValue(payload, Cursor.class);
+                if (entityType.getName().equals(cursor.entity())) {
+                    return cursor;
+                }
+            }
+        } catch (Exception e) {
+            // malformed cursor, reported below
+        }
+        throw new BusinessException(messageSource.getMessage("pagination.cursor.invalid", null, Locale.getDefault()));
+    }
+
+    private byte[] sign(byte[] payload) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(new SecretKeySpec(cursorSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        return mac.doFinal(payload);
+    }
+
+    // reltuples is maintained by ANALYZE/autovacuum, -1 means the table was never analyzed
+    private Long estimateRows(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table == null || databasePlatform != DatabasePlatform.POSTGRESQL) {
+            return null;
+        }
+        List<Long> estimates = jdbcTemplate.queryForList("SELECT reltuples::bigint FROM pg_class WHERE relname = ?", Long.class, table.name());
+        return estimates.isEmpty() || estimates.get(0) < 0 ? null : estimates.get(0);
+    }
+}
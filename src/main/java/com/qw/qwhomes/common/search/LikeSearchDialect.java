@@ -0,0 +1,36 @@
+package com.qw.qwhomes.common.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class LikeSearchDialect implements SearchDialect {
+
+    @Override
+    public <T> Specification<T> matches(SearchTarget target, String search) {
+        String pattern = "%" + search.toLowerCase() + "%";
+        return (root, query, cb) -> cb.or(target.getSearchAttributes().stream()
+                .map(attribute -> cb.like(cb.lower(root.get(attribute)), pattern))
+                .toArray(Predicate[]::new));
+    }
+
+    // LIKE cannot tell a better match from a worse one
+    @Override
+    public <T> List<Order> relevance(SearchTarget target, String search, Root<T> root, CriteriaBuilder cb) {
+        return List.of();
+    }
+
+    @Override
+    public String matchesSql(SearchTarget target, String alias, String search, MapSqlParameterSource parameters) {
+        parameters.addValue("searchPattern", "%" + search.toLowerCase() + "%");
+        return target.getSearchColumns().stream()
+                .map(column -> "LOWER(" + alias + "." + column + ") LIKE :searchPattern")
+                .collect(Collectors.joining(" OR ", "(", ")"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.qw.qwhomes.common.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.List;
+
+public class PostgresSearchDialect implements SearchDialect {
+
+    // %1$s table alias, %2$s search, %3$s LIKE pattern
+    static final String MATCH_CONDITION = "%1$s.search_vector @@ websearch_to_tsquery('simple', %2$s) OR %1$s.search_text LIKE %3$s";
+
+    // Matching stays a predicate of the query itself so filters, counts and pages see every match
+    @Override
+    public <T> Specification<T> matches(SearchTarget target, String search) {
+        String normalized = search.toLowerCase();
+        String pattern = "%" + normalized + "%";
+        return (root, query, cb) -> cb.isTrue(cb.function(SearchFunctionContributor.matchesFunction(target), Boolean.class,
+                root.get(target.getIdAttribute()), value(cb, normalized), value(cb, pattern)));
+    }
+
+    // Ties keep the id order so pages stay stable
+    @Override
+    public <T> List<Order> relevance(SearchTarget target, String search, Root<T> root, CriteriaBuilder cb) {
+        String normalized = search.toLowerCase();
+        Expression<Long> id = root.get(target.getIdAttribute());
+        Expression<Double> rank = cb.function(SearchFunctionContributor.rankFunction(target), Double.class,
+                id, value(cb, normalized), value(cb, normalized));
+        return List.of(cb.desc(rank), cb.asc(id));
+    }
+
+    @Override
+    public String matchesSql(SearchTarget target, String alias, String search, MapSqlParameterSource parameters) {
+        String normalized = search.toLowerCase();
+        parameters.addValue("search", normalized);
+        parameters.addValue("searchPattern", "%" + normalized + "%");
+        return "(" + String.format(MATCH_CONDITION, alias, ":search", ":searchPattern") + ")";
+    }
+
+    // Bound as a parameter rather than a literal, so user input stays out of the SQL text and statements are reused
+    private static Expression<String> value(CriteriaBuilder cb, String value) {
+        return ((HibernateCriteriaBuilder) cb).value(value);
+    }
+}
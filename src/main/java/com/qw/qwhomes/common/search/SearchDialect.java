@@ -0,0 +1,31 @@
+package com.qw.qwhomes.common.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.List;
+
+public interface SearchDialect {
+
+    // Compiles the free text search of a list endpoint into a predicate on the target table
+    <T> Specification<T> matches(SearchTarget target, String search);
+
+    // Orders the matches of a search most relevant first, empty when the dialect cannot score them
+    <T> List<Order> relevance(SearchTarget target, String search, Root<T> root, CriteriaBuilder cb);
+
+    // The same match as a native SQL condition on the target table under the given alias, for queries that count
+    // or aggregate what the list endpoint returns
+    String matchesSql(SearchTarget target, String alias, String search, MapSqlParameterSource parameters);
+
+    // Adds no predicate, only ranks the page query. Services add it when the client did not sort the page,
+    // Spring Data drops the ordering again from the count query
+    default <T> Specification<T> orderByRelevance(SearchTarget target, String search) {
+        return (root, query, cb) -> {
+            query.orderBy(relevance(target, search, root, cb));
+            return null;
+        };
+    }
+}
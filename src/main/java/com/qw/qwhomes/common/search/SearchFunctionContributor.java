@@ -0,0 +1,42 @@
+package com.qw.qwhomes.common.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.Locale;
+
+/**
+ * Registers the functions {@link PostgresSearchDialect} compiles a search into, one pair per {@link SearchTarget}.
+ * The search columns are generated by the database and not mapped on the entities, so both functions reach them
+ * through the target table by id. Only PostgreSQL has those columns, the functions are never called on H2.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    // ?1 id, ?2 search, ?3 LIKE pattern
+    private static final String MATCHES = "?1 in (select m.%1$s from %2$s m where "
+            + String.format(PostgresSearchDialect.MATCH_CONDITION, "m", "?2", "?3") + ")";
+    // ?1 id, ?2 and ?3 the search, passed twice so no argument is rendered twice
+    private static final String RANK = "(select ts_rank(r.search_vector, websearch_to_tsquery('simple', ?2)) "
+            + "+ similarity(r.search_text, ?3) from %2$s r where r.%1$s = ?1)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        for (SearchTarget target : SearchTarget.values()) {
+            functionContributions.getFunctionRegistry().registerPattern(matchesFunction(target),
+                    String.format(MATCHES, target.getIdColumn(), target.getTableName()), types.resolve(StandardBasicTypes.BOOLEAN));
+            functionContributions.getFunctionRegistry().registerPattern(rankFunction(target),
+                    String.format(RANK, target.getIdColumn(), target.getTableName()), types.resolve(StandardBasicTypes.DOUBLE));
+        }
+    }
+
+    static String matchesFunction(SearchTarget target) {
+        return "search_matches_" + target.name().toLowerCase(Locale.ROOT);
+    }
+
+    static String rankFunction(SearchTarget target) {
+        return "search_rank_" + target.name().toLowerCase(Locale.ROOT);
+    }
+}
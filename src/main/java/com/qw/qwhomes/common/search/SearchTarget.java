@@ -0,0 +1,30 @@
+package com.qw.qwhomes.common.search;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Locale;
+
+@Getter
+public enum SearchTarget {
+    PRODUCT("product", "product_id", "productId", List.of("name", "sku", "description")),
+    CLIENT("client", "client_id", "clientId", List.of("name", "email", "secondaryEmail", "phone", "secondaryPhone")),
+    SUPPLIER("supplier", "supplier_id", "id", List.of("name", "primaryContactName"));
+
+    private final String tableName;
+    private final String idColumn;
+    private final String idAttribute;
+    private final List<String> searchAttributes;
+    // Columns of the search attributes under the default snake case naming
+    private final List<String> searchColumns;
+
+    SearchTarget(String tableName, String idColumn, String idAttribute, List<String> searchAttributes) {
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+        this.idAttribute = idAttribute;
+        this.searchAttributes = searchAttributes;
+        this.searchColumns = searchAttributes.stream()
+                .map(attribute -> attribute.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT))
+                .toList();
+    }
+}
@@ -0,0 +1,45 @@
+package com.qw.qwhomes.common.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum ExportFormat {
+    EXCEL("excel", "xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", "csv", "text/csv"),
+    NDJSON("ndjson", "ndjson", "application/x-ndjson");
+
+    private final String value;
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String value, String extension, String mediaType) {
+        this.value = value;
+        this.extension = extension;
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // xlsx is a zip archive already, compressing it again only costs CPU
+    public boolean isCompressible() {
+        return this != EXCEL;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElse(null);
+    }
+}
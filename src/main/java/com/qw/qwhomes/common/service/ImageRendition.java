@@ -0,0 +1,46 @@
+package com.qw.qwhomes.common.service;
+
+import java.util.Arrays;
+
+public enum ImageRendition {
+    THUMB("thumb", 320),
+    MEDIUM("medium", 1280),
+    ORIGINAL("original", 0);
+
+    private final String value;
+    // Longest edge in pixels, renditions never upscale
+    private final int maxEdge;
+
+    ImageRendition(String value, int maxEdge) {
+        this.value = value;
+        this.maxEdge = maxEdge;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+
+    // Stored next to the original: products/abc_chair.jpg -> products/abc_chair@thumb.jpg
+    public String pathFor(String originalPath) {
+        if (this == ORIGINAL) {
+            return originalPath;
+        }
+        int dot = originalPath.lastIndexOf('.');
+        int slash = originalPath.lastIndexOf('/');
+        if (dot <= slash) {
+            return originalPath + "@" + value;
+        }
+        return originalPath.substring(0, dot) + "@" + value + originalPath.substring(dot);
+    }
+
+    public static ImageRendition fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(rendition -> rendition.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.qw.qwhomes.common.service;
+
+import java.util.List;
+
+public interface ImageRenditionService {
+    void generateRenditions(List<String> imagePaths);
+    void deleteRenditions(String imagePath);
+}
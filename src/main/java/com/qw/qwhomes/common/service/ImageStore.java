@@ -0,0 +1,13 @@
+package com.qw.qwhomes.common.service;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+public interface ImageStore {
+    StoredImage store(InputStream content, String mimeType);
+    String pathOf(String hash, String mimeType);
+    List<String> sweep(Instant cutoff, Function<Collection<String>, Collection<String>> referencedHashes);
+}
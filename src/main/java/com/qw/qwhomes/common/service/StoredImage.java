@@ -0,0 +1,8 @@
+package com.qw.qwhomes.common.service;
+
+/**
+ * An image blob in the content-addressed store. {@code path} is relative to the upload root and is the same for
+ * every upload of identical bytes.
+ */
+public record StoredImage(String hash, String path, long size, Integer width, Integer height, String mimeType) {
+}
@@ -0,0 +1,24 @@
+package com.qw.qwhomes.common.service;
+
+import java.util.stream.Stream;
+
+/**
+ * A table that can be exported row by row, shared by the download endpoints and the export jobs.
+ */
+public interface TableExport<T> {
+
+    // Base name of the downloaded file, e.g. "products"
+    String getName();
+
+    // Sheet name for Excel
+    String getTitle();
+
+    String[] getHeaders();
+
+    // Must be opened and consumed inside a transaction
+    Stream<T> stream();
+
+    long count();
+
+    Object[] toRow(T row);
+}
@@ -1,18 +1,71 @@
 package com.qw.qwhomes.common.service.impl;
 
+import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
+@RequiredArgsConstructor
 public class ExcelExportService {
 
+    // Rows kept in memory by SXSSF before they are flushed to its temp file
+    private static final int ROW_WINDOW = 100;
+    // Column widths are estimated from the first rows instead of autoSizeColumn, which measures every row
+    private static final int WIDTH_SAMPLE_ROWS = 500;
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    private final ExportRowReader exportRowReader;
+
+    /**
+     * Writes the rows straight to {@code out} with a bounded amount of memory. The stream is opened and
+     * consumed in a read-only transaction, so a repository {@code Stream} query can be passed in as is.
+     */
+    @Transactional(readOnly = true)
+    public <T> void writeExcel(
+            Supplier<Stream<T>> data,
+            String[] headers,
+            String sheetName,
+            Function<T, Object[]> rowMapper,
+            OutputStream out
+    ) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<T> rows = data.get()) {
+            Sheet sheet = workbook.createSheet(sheetName);
+            writeHeader(workbook, sheet, headers);
+            int[] widths = headerWidths(headers);
+
+            int[] rowIdx = {1};
+            exportRowReader.read(rows, entity -> {
+                Object[] values = rowMapper.apply(entity);
+                writeRow(sheet.createRow(rowIdx[0]), values);
+                if (rowIdx[0]++ <= WIDTH_SAMPLE_ROWS) {
+                    sampleWidths(widths, values);
+                }
+            });
+
+            for (int col = 0; col < headers.length; col++) {
+                sheet.setColumnWidth(col, (Math.min(widths[col], MAX_COLUMN_CHARS) + 2) * 256);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
     public <T> ByteArrayInputStream exportToExcel(
             List<T> data,
             String[] headers,
@@ -23,24 +76,11 @@ public class ExcelExportService {
              ByteArrayOutputStream out = new ByteArrayOutputStream()) {
 
             Sheet sheet = workbook.createSheet(sheetName);
-            Row headerRow = sheet.createRow(0);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-
-            for (int col = 0; col < headers.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(headers[col]);
-                cell.setCellStyle(headerStyle);
-            }
+            writeHeader(workbook, sheet, headers);
 
             int rowIdx = 1;
             for (T entity : data) {
-                Row row = sheet.createRow(rowIdx++);
-                Object[] values = rowMapper.apply(entity);
-
-                for (int col = 0; col < values.length; col++) {
-                    Cell cell = row.createCell(col);
-                    setCellValue(cell, values[col]);
-                }
+                writeRow(sheet.createRow(rowIdx++), rowMapper.apply(entity));
             }
 
             for (int col = 0; col < headers.length; col++) {
@@ -52,6 +92,40 @@ public class ExcelExportService {
         }
     }
 
+    private void writeHeader(Workbook workbook, Sheet sheet, String[] headers) {
+        Row headerRow = sheet.createRow(0);
+        CellStyle headerStyle = createHeaderStyle(workbook);
+
+        for (int col = 0; col < headers.length; col++) {
+            Cell cell = headerRow.createCell(col);
+            cell.setCellValue(headers[col]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    private void writeRow(Row row, Object[] values) {
+        for (int col = 0; col < values.length; col++) {
+            Cell cell = row.createCell(col);
+            setCellValue(cell, values[col]);
+        }
+    }
+
+    private int[] headerWidths(String[] headers) {
+        int[] widths = new int[headers.length];
+        for (int col = 0; col < headers.length; col++) {
+            widths[col] = headers[col].length();
+        }
+        return widths;
+    }
+
+    private void sampleWidths(int[] widths, Object[] values) {
+        for (int col = 0; col < Math.min(widths.length, values.length); col++) {
+            if (values[col] != null) {
+                widths[col] = Math.max(widths[col], values[col].toString().length());
+            }
+        }
+    }
+
     private void setCellValue(Cell cell, Object value) {
         if (value == null) {
             cell.setCellValue("");
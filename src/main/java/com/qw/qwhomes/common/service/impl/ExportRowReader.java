@@ -0,0 +1,46 @@
+package com.qw.qwhomes.common.service.impl;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Walks a streamed query for the exports in chunks. Each chunk is handed over as a whole, so lazy associations
+ * with a {@code @BatchSize} are loaded for the chunk in a few queries, and is then detached so the persistence
+ * context stays small however many rows the query returns. Must be called inside the transaction that owns the
+ * stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportRowReader {
+
+    private static final int CHUNK_SIZE = 200;
+
+    private final EntityManager entityManager;
+
+    public <T> void read(Stream<T> rows, Consumer<T> row) {
+        read(rows, row, () -> {
+        });
+    }
+
+    // afterChunk runs once a chunk is written, e.g. to flush it to the client
+    public <T> void read(Stream<T> rows, Consumer<T> row, Runnable afterChunk) {
+        Iterator<T> iterator = rows.iterator();
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                chunk.forEach(row);
+                chunk.clear();
+                entityManager.clear();
+                afterChunk.run();
+            }
+        }
+    }
+}
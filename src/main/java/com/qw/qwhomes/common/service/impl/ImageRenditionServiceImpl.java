@@ -0,0 +1,226 @@
+package com.qw.qwhomes.common.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qw.qwhomes.common.service.ImageRendition;
+import com.qw.qwhomes.common.service.ImageRenditionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the downscaled renditions of uploaded images on a small bounded pool so uploads return as soon as
+ * the originals are on disk. Until a rendition exists the original is served in its place. Images whose renditions
+ * could not be created are not queued again until the failure TTL expires, the original is served meanwhile.
+ */
+@Slf4j
+@Service
+public class ImageRenditionServiceImpl implements ImageRenditionService {
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    @Value("${application.upload.upload-path}")
+    private String uploadPath;
+
+    @Value("${application.images.rendition-threads:2}")
+    private int renditionThreads;
+
+    @Value("${application.images.rendition-queue-size:256}")
+    private int renditionQueueSize;
+
+    @Value("${application.images.rendition-failure-ttl:PT1H}")
+    private Duration renditionFailureTtl;
+
+    private ThreadPoolExecutor executor;
+    // Paths already queued, so a burst of requests for a missing rendition only renders it once
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Paths whose renditions failed, so every request for an undecodable image does not render it again
+    private Cache<String, Boolean> failed;
+
+    @PostConstruct
+    void start() {
+        failed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(renditionFailureTtl)
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(renditionThreads, renditionThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(renditionQueueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-rendition-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void generateRenditions(List<String> imagePaths) {
+        for (String imagePath : imagePaths) {
+            if (failed.getIfPresent(imagePath) != null || !inFlight.add(imagePath)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        render(imagePath);
+                    } finally {
+                        inFlight.remove(imagePath);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The original keeps being served and the rendition is retried on its next request
+                inFlight.remove(imagePath);
+                log.warn("Rendition queue full, skipping {}", imagePath);
+            }
+        }
+    }
+
+    @Override
+    public void deleteRenditions(String imagePath) {
+        failed.invalidate(imagePath);
+        for (ImageRendition rendition : ImageRendition.values()) {
+            if (rendition == ImageRendition.ORIGINAL) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(Paths.get(uploadPath, rendition.pathFor(imagePath)));
+            } catch (IOException e) {
+                log.warn("Could not delete {} rendition of {}", rendition.getValue(), imagePath, e);
+            }
+        }
+    }
+
+    private void render(String imagePath) {
+        Path original = Paths.get(uploadPath, imagePath);
+        String format = formatOf(imagePath);
+        for (ImageRendition rendition : ImageRendition.values()) {
+            if (rendition == ImageRendition.ORIGINAL) {
+                continue;
+            }
+            Path target = Paths.get(uploadPath, rendition.pathFor(imagePath));
+            if (Files.exists(target)) {
+                continue;
+            }
+            try {
+                BufferedImage source = read(original, rendition.getMaxEdge());
+                if (source == null) {
+                    log.warn("Unsupported image format, no renditions for {}", imagePath);
+                    failed.put(imagePath, Boolean.TRUE);
+                    return;
+                }
+                write(resize(source, rendition.getMaxEdge(), "png".equals(format)), format, target, tempDirectory());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not create {} rendition of {}", rendition.getValue(), imagePath, e);
+                failed.put(imagePath, Boolean.TRUE);
+            }
+        }
+    }
+
+    // Subsamples while decoding so an 8MB original never has to be fully decoded for a thumbnail
+    private static BufferedImage read(Path path, int maxEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the target resolution so the final scale still smooths
+                int step = Math.max(1, longestEdge / (maxEdge * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxEdge, boolean keepAlpha) {
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage target = new BufferedImage(width, height, keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // The image store's temp directory is on the same filesystem as the blobs and is swept for abandoned files
+    private Path tempDirectory() throws IOException {
+        return Files.createDirectories(Paths.get(uploadPath, ImageStoreImpl.BLOB_DIRECTORY, ImageStoreImpl.TEMP_DIRECTORY));
+    }
+
+    // Written to a temp file first so a concurrent request never streams a half written rendition
+    private static void write(BufferedImage image, String format, Path target, Path tempDirectory) throws IOException {
+        Path temp = Files.createTempFile(tempDirectory, "rendition", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String formatOf(String imagePath) {
+        return imagePath.toLowerCase().endsWith(".png") ? "png" : "jpeg";
+    }
+}
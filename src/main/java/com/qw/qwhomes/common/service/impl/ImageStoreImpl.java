@@ -0,0 +1,235 @@
+package com.qw.qwhomes.common.service.impl;
+
+import com.qw.qwhomes.common.exceptions.FileStorageException;
+import com.qw.qwhomes.common.service.ImageStore;
+import com.qw.qwhomes.common.service.StoredImage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Stores image blobs under the SHA-256 of their content, so identical uploads share one file. The digest is
+ * computed while the upload is copied to disk, the bytes are never held in memory.
+ * <p>
+ * Blobs are never deleted when a row stops referencing them, because a concurrent upload of the same bytes may be
+ * about to commit a row of its own. Instead every store touches the blob, and {@link #sweep} only removes blobs
+ * that are unreferenced and were not touched since the cutoff.
+ */
+@Slf4j
+@Service
+public class ImageStoreImpl implements ImageStore {
+
+    // Renditions are written through the same temp directory, so the sweep also removes those a crash left behind
+    static final String BLOB_DIRECTORY = "blobs";
+    static final String TEMP_DIRECTORY = "tmp";
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}\\.(png|jpg)");
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    // Striped per hash, a store and the sweep of the same blob never interleave
+    private final Lock[] locks = IntStream.range(0, 64).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
+
+    @Value("${application.upload.upload-path}")
+    private String uploadPath;
+
+    @Override
+    public StoredImage store(InputStream content, String mimeType) {
+        Path root = Paths.get(uploadPath);
+        Path temp = null;
+        try {
+            Path tempDirectory = root.resolve(BLOB_DIRECTORY).resolve(TEMP_DIRECTORY);
+            Files.createDirectories(tempDirectory);
+            temp = Files.createTempFile(tempDirectory, "upload", ".tmp");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(content, digest)) {
+                Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            long size = Files.size(temp);
+            int[] dimensions = readDimensions(temp);
+
+            String path = pathOf(hash, mimeType);
+            Path target = root.resolve(path);
+            Lock lock = lockFor(hash);
+            lock.lock();
+            try {
+                if (Files.exists(target)) {
+                    // Keeps the blob out of the sweep until the row referencing it had time to commit
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // Another upload of the same bytes got there first, its file is identical
+                        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return new StoredImage(hash, path, size,
+                    dimensions != null ? dimensions[0] : null, dimensions != null ? dimensions[1] : null, mimeType);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not store image", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Left for the next cleanup of the temp directory
+                }
+            }
+        }
+    }
+
+    // Fanned out on the first two bytes of the hash to keep directories small
+    @Override
+    public String pathOf(String hash, String mimeType) {
+        return BLOB_DIRECTORY + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extensionOf(mimeType);
+    }
+
+    /**
+     * Deletes blobs last stored before {@code cutoff} whose hash {@code referencedHashes} does not return, and
+     * temp files left by interrupted uploads. Returns the paths of the deleted blobs.
+     */
+    @Override
+    public List<String> sweep(Instant cutoff, Function<Collection<String>, Collection<String>> referencedHashes) {
+        Path blobs = Paths.get(uploadPath, BLOB_DIRECTORY);
+        if (!Files.isDirectory(blobs)) {
+            return List.of();
+        }
+        List<String> deleted = new ArrayList<>();
+        List<Path> candidates = new ArrayList<>(SWEEP_BATCH_SIZE);
+        try (Stream<Path> files = Files.walk(blobs)) {
+            Iterator<Path> iterator = files.filter(Files::isRegularFile).iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                if (!isBefore(file, cutoff)) {
+                    continue;
+                }
+                if (file.getParent().endsWith(TEMP_DIRECTORY)) {
+                    deleteQuietly(file);
+                } else if (BLOB_NAME.matcher(file.getFileName().toString()).matches()) {
+                    candidates.add(file);
+                    if (candidates.size() == SWEEP_BATCH_SIZE) {
+                        deleteUnreferenced(candidates, cutoff, referencedHashes, deleted);
+                        candidates.clear();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Could not sweep image blobs", e);
+        }
+        deleteUnreferenced(candidates, cutoff, referencedHashes, deleted);
+        return deleted;
+    }
+
+    private void deleteUnreferenced(List<Path> candidates, Instant cutoff,
+                                    Function<Collection<String>, Collection<String>> referencedHashes, List<String> deleted) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Set<String> referenced = new HashSet<>(referencedHashes.apply(candidates.stream().map(ImageStoreImpl::hashOf).toList()));
+        Path root = Paths.get(uploadPath);
+        for (Path candidate : candidates) {
+            String hash = hashOf(candidate);
+            if (referenced.contains(hash)) {
+                continue;
+            }
+            Lock lock = lockFor(hash);
+            lock.lock();
+            try {
+                // A store since the listing touched the blob, its row may not be committed yet
+                if (isBefore(candidate, cutoff) && Files.deleteIfExists(candidate)) {
+                    deleted.add(root.relativize(candidate).toString().replace('\\', '/'));
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete image blob {}", candidate, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Lock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private static boolean isBefore(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            // Gone in the meantime
+            return false;
+        }
+    }
+
+    private static String hashOf(Path blob) {
+        String name = blob.getFileName().toString();
+        return name.substring(0, name.indexOf('.'));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    // Only the header is parsed, pixel data is not decoded
+    private static int[] readDimensions(Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static String extensionOf(String mimeType) {
+        return "image/png".equals(mimeType) ? ".png" : ".jpg";
+    }
+}
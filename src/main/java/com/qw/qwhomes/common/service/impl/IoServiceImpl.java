@@ -1,88 +1,112 @@
 package com.qw.qwhomes.common.service.impl;
 
 import com.qw.qwhomes.common.exceptions.FileStorageException;
-import com.qw.qwhomes.common.exceptions.QWIOException;
+import com.qw.qwhomes.common.service.ImageRenditionService;
+import com.qw.qwhomes.common.service.ImageStore;
 import com.qw.qwhomes.common.service.IoService;
+import com.qw.qwhomes.common.service.StoredImage;
 import com.qw.qwhomes.common.validator.ImageValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @RequiredArgsConstructor
 @Service
 public class IoServiceImpl implements IoService {
 
     private final ImageValidator imageValidator;
+    private final ImageRenditionService imageRenditionService;
+    private final ImageStore imageStore;
 
     @Value("${application.upload.upload-path}")
     private String uploadPath;
 
+    // Writes all files concurrently, one virtual thread each; blobs of a failed batch are left to the orphan sweep
     @Override
-    public String saveImage(MultipartFile image) {
-        try {
-            String fileName = UUID.randomUUID() + "_" + image.getOriginalFilename();
-            Path uploadDir = Paths.get(uploadPath);
-            if (!Files.exists(uploadDir)) {
-                Files.createDirectories(uploadDir);
-            }
-            Path filePath = uploadDir.resolve(fileName);
-            Files.copy(image.getInputStream(), filePath);
-            return fileName;
-        } catch (IOException e) {
-            throw new QWIOException("Failed to save image: " + e.getMessage());
-        }
-    }
-
-    @Override
-    public List<String> saveImages(List<MultipartFile> files, String subDirectory) {
+    public List<StoredImage> storeImages(List<MultipartFile> files) {
         imageValidator.validateImages(files);
 
-        List<String> savedPaths = new ArrayList<>();
-
-        try {
-            Path imageUploadPath = Paths.get(uploadPath, subDirectory);
-            if (!Files.exists(imageUploadPath)) {
-                Files.createDirectories(imageUploadPath);
-            }
-
+        List<Future<StoredImage>> writes = new ArrayList<>(files.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
             for (MultipartFile file : files) {
-                String fileName = UUID.randomUUID() + "_" + StringUtils.cleanPath(Objects.requireNonNull(Objects.requireNonNull(file.getOriginalFilename()).replaceAll(" ", "")));
-                Path filePath = imageUploadPath.resolve(fileName);
+                writes.add(executor.submit(() -> storeImage(file)));
+            }
+        }
 
-                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-                savedPaths.add(subDirectory + "/" + fileName);
+        List<StoredImage> storedImages = new ArrayList<>(files.size());
+        RuntimeException failure = null;
+        for (Future<StoredImage> write : writes) {
+            if (write.state() == Future.State.SUCCESS) {
+                storedImages.add(write.resultNow());
+            } else if (failure == null) {
+                failure = write.exceptionNow() instanceof RuntimeException e
+                        ? e : new FileStorageException("Could not save image files", write.exceptionNow());
             }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return storedImages;
+    }
 
-            return savedPaths;
+    private StoredImage storeImage(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            byte[] header = content.readNBytes(ImageValidator.SIGNATURE_LENGTH);
+            imageValidator.validateSignature(header, file.getContentType());
+            return imageStore.store(new SequenceInputStream(new ByteArrayInputStream(header), content), file.getContentType());
         } catch (IOException ex) {
             throw new FileStorageException("Could not save image files", ex);
         }
     }
 
+    // Moves a file saved under its upload name into the content-addressed store. Old uploads were never
+    // signature-checked, so the type comes from the leading bytes rather than the file extension
     @Override
-    public void deleteImage(String imagePath) {
-        try {
-            Path fullPath = Paths.get(uploadPath, imagePath);
-            Files.deleteIfExists(fullPath);
+    public StoredImage importImage(String filePath) {
+        Path path = Paths.get(uploadPath, filePath);
+        try (InputStream content = Files.newInputStream(path)) {
+            byte[] header = content.readNBytes(ImageValidator.SIGNATURE_LENGTH);
+            String mimeType = imageValidator.detectContentType(header);
+            if (mimeType == null) {
+                throw new FileStorageException("Not a JPEG or PNG image: " + filePath);
+            }
+            StoredImage storedImage = imageStore.store(new SequenceInputStream(new ByteArrayInputStream(header), content), mimeType);
+            imageRenditionService.generateRenditions(List.of(storedImage.path()));
+            return storedImage;
         } catch (IOException ex) {
-            throw new FileStorageException("Could not delete image file: " + imagePath, ex);
+            throw new FileStorageException("Could not import image file: " + filePath, ex);
         }
     }
 
-    public byte[] loadFileAsByteArray(String filePath) throws IOException {
-        Path path = Paths.get(uploadPath, filePath);
-        return Files.readAllBytes(path);
+    @Override
+    public String storedImagePath(String hash, String mimeType) {
+        return imageStore.pathOf(hash, mimeType);
+    }
+
+    // Streams straight from disk, nothing is buffered on the heap
+    @Override
+    public Resource loadFileAsResource(String filePath) {
+        Path root = Paths.get(uploadPath).toAbsolutePath().normalize();
+        Path path = root.resolve(filePath).normalize();
+        if (!path.startsWith(root)) {
+            throw new FileStorageException("Invalid file path: " + filePath);
+        }
+        return new FileSystemResource(path);
     }
 }
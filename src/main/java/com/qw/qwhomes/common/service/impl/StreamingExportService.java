@@ -0,0 +1,126 @@
+package com.qw.qwhomes.common.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qw.qwhomes.common.service.ExportFormat;
+import com.qw.qwhomes.common.service.TableExport;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes table exports row by row while the query is still being read, so the first bytes leave as soon as the
+ * first chunk is mapped and memory does not grow with the table.
+ */
+@Service
+@RequiredArgsConstructor
+public class StreamingExportService {
+
+    private final ExportRowReader exportRowReader;
+    private final ExcelExportService excelExportService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public <T> void write(ExportFormat format, TableExport<T> export, OutputStream out) throws IOException {
+        write(format, export, out, rows -> {
+        });
+    }
+
+    // rowsWritten receives the running row count, e.g. to report the progress of an export job
+    @Transactional(readOnly = true)
+    public <T> void write(ExportFormat format, TableExport<T> export, OutputStream out, LongConsumer rowsWritten) throws IOException {
+        long[] count = {0};
+        Function<T, Object[]> rowMapper = row -> {
+            Object[] values = export.toRow(row);
+            rowsWritten.accept(++count[0]);
+            return values;
+        };
+        if (format == ExportFormat.EXCEL) {
+            excelExportService.writeExcel(export::stream, export.getHeaders(), export.getTitle(), rowMapper, out);
+            return;
+        }
+        try (Stream<T> rows = export.stream()) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(rows, export.getHeaders(), rowMapper, out);
+            } else {
+                writeNdjson(rows, export.getHeaders(), rowMapper, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // The printer and generator are flushed but not closed, closing the response stream is up to the caller
+    private <T> void writeCsv(Stream<T> rows, String[] headers, Function<T, Object[]> rowMapper, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(headers).build());
+        exportRowReader.read(rows, entity -> {
+            try {
+                printer.printRecord(rowMapper.apply(entity));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, () -> flush(printer));
+        printer.flush();
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, String[] headers, Function<T, Object[]> rowMapper, OutputStream out) throws IOException {
+        String[] fields = new String[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            fields[i] = fieldName(headers[i]);
+        }
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        exportRowReader.read(rows, entity -> {
+            Object[] values = rowMapper.apply(entity);
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < fields.length; i++) {
+                    generator.writeFieldName(fields[i]);
+                    generator.writeObject(i < values.length ? values[i] : null);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, () -> flush(generator));
+        generator.flush();
+    }
+
+    // "Sub Family" -> "subFamily", "ID" -> "id"
+    private static String fieldName(String header) {
+        StringBuilder field = new StringBuilder();
+        for (String word : header.trim().split("[^A-Za-z0-9]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String lower = word.toLowerCase();
+            field.append(field.isEmpty() ? lower : Character.toUpperCase(lower.charAt(0)) + lower.substring(1));
+        }
+        return field.toString();
+    }
+
+    private static void flush(Flushable flushable) {
+        try {
+            flushable.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -11,6 +11,9 @@ import java.util.List;
 public class ImageValidator {
     private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList("image/jpeg", "image/png");
     private static final long MAX_FILE_SIZE = 8 * 1024 * 1024; // 8MB in bytes
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    public static final int SIGNATURE_LENGTH = PNG_SIGNATURE.length;
 
     public void validateImage(MultipartFile file) {
         if (file.isEmpty()) {
@@ -26,6 +29,25 @@ public class ImageValidator {
         }
     }
 
+    // The declared content type comes from the client, the leading bytes tell what the file really is
+    public void validateSignature(byte[] header, String contentType) {
+        if (!startsWith(header, "image/png".equals(contentType) ? PNG_SIGNATURE : JPEG_SIGNATURE)) {
+            throw new ValidationException("Image content does not match its declared format");
+        }
+    }
+
+    // For files that arrive without a trustworthy content type, null when the bytes are neither JPEG nor PNG
+    public String detectContentType(byte[] header) {
+        if (startsWith(header, PNG_SIGNATURE)) {
+            return "image/png";
+        }
+        return startsWith(header, JPEG_SIGNATURE) ? "image/jpeg" : null;
+    }
+
+    private static boolean startsWith(byte[] header, byte[] signature) {
+        return header.length >= signature.length && Arrays.equals(header, 0, signature.length, signature, 0, signature.length);
+    }
+
     public void validateImages(List<MultipartFile> files) {
         if (files == null || files.isEmpty()) {
             throw new ValidationException("At least one image must be provided");
@@ -0,0 +1,59 @@
+package com.qw.qwhomes.common.web;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Builds file responses that carry cache validators. Spring MVC answers If-None-Match and If-Modified-Since from
+ * the ETag and Last-Modified set here with a 304 before the body is touched, and serves Range requests on
+ * {@link Resource} bodies as 206 partial content.
+ */
+@Component
+public class CachedResourceSupport {
+
+    // Everything here sits behind authentication, so shared caches must not keep it
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /**
+     * For content-addressed files. {@code hash} identifies the bytes, so it is a strong ETag as is; when the URL
+     * itself names that hash the response can never change and is marked immutable.
+     */
+    public ResponseEntity<Resource> contentAddressed(Resource resource, String hash, boolean immutable) {
+        return ResponseEntity.ok()
+                .eTag(hash)
+                .cacheControl(immutable ? IMMUTABLE : REVALIDATE)
+                .contentType(mediaTypeOf(resource))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(resource);
+    }
+
+    /**
+     * For generated files that may be rewritten in place, validated by modification time and size.
+     */
+    public ResponseEntity<Resource> download(Resource resource, MediaType contentType, String fileName) throws IOException {
+        long lastModified = resource.lastModified();
+        long length = resource.contentLength();
+        return ResponseEntity.ok()
+                .eTag(Long.toHexString(lastModified) + "-" + Long.toHexString(length))
+                .lastModified(lastModified)
+                .cacheControl(REVALIDATE)
+                .contentType(contentType)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(resource);
+    }
+
+    private static MediaType mediaTypeOf(Resource resource) {
+        return MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
@@ -0,0 +1,52 @@
+package com.qw.qwhomes.common.web;
+
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.common.service.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds download responses for streamed exports, gzip encoded when the client accepts it.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingExportSupport {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final MessageSource messageSource;
+
+    public ExportFormat formatOf(String value) {
+        ExportFormat format = ExportFormat.fromValue(value);
+        if (format == null) {
+            throw new BusinessException(messageSource.getMessage("export.invalidFormat", new Object[]{value}, LocaleContextHolder.getLocale()));
+        }
+        return format;
+    }
+
+    public ResponseEntity<StreamingResponseBody> attachment(ExportFormat format, String baseName, String acceptEncoding, StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + baseName + "." + format.getExtension())
+                .contentType(format.getMediaType());
+        if (!format.isCompressible()) {
+            return response.body(body);
+        }
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || !acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.body(body);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            // Sync flush lets each chunk the writer flushes reach the client instead of waiting in the deflater
+            GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true);
+            body.writeTo(gzip);
+            gzip.finish();
+        });
+    }
+}
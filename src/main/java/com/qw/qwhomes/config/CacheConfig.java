@@ -1,28 +1,92 @@
 package com.qw.qwhomes.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
 public class CacheConfig {
 
+    // Caches the code relies on, created with the defaults when they have no spec of their own
+    private static final List<String> KNOWN_CACHES = List.of(CacheNames.LOGOUT_TOKENS, CacheNames.PRODUCT_FACETS);
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("logoutTokens");
-        cacheManager.setCaffeine(caffeineCacheBuilder());
+    public CacheManager cacheManager(CacheSpecProperties properties, BeanFactory beanFactory) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // An empty name list keeps the manager static, an unknown cache name stays an error instead of a new unbounded cache
+        cacheManager.setCacheNames(List.of());
+
+        Set<String> names = new LinkedHashSet<>(KNOWN_CACHES);
+        names.addAll(properties.getSpecs().keySet());
+        for (String name : names) {
+            CacheSpecProperties.Spec spec = properties.getSpecs().getOrDefault(name, new CacheSpecProperties.Spec())
+                    .mergedOver(properties.getDefaults());
+            Caffeine<Object, Object> builder = caffeineCacheBuilder(name, spec);
+            if (spec.getRefreshAfterWrite() != null) {
+                if (!beanFactory.containsBean(name) || !(beanFactory.getBean(name) instanceof CacheLoader<?, ?> loader)) {
+                    throw new IllegalStateException("Cache " + name + " sets refresh-after-write but has no CacheLoader bean named " + name);
+                }
+                @SuppressWarnings("unchecked")
+                CacheLoader<Object, Object> objectLoader = (CacheLoader<Object, Object>) loader;
+                cacheManager.registerCustomCache(name, builder.build(objectLoader));
+            } else {
+                cacheManager.registerCustomCache(name, builder.build());
+            }
+        }
         return cacheManager;
     }
 
-    Caffeine<Object, Object> caffeineCacheBuilder() {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(1, TimeUnit.DAYS)
-                .maximumSize(100000);
+    Caffeine<Object, Object> caffeineCacheBuilder(String name, CacheSpecProperties.Spec spec) {
+        if (spec.getMaximumSize() != null && spec.getMaximumWeight() != null) {
+            throw new IllegalStateException("Cache " + name + " sets both maximum-size and maximum-weight");
+        }
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(elementCount());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (spec.getRefreshAfterWrite() != null) {
+            builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+        }
+        return builder;
+    }
+
+    private static Weigher<Object, Object> elementCount() {
+        return (key, value) -> {
+            if (value instanceof Collection<?> collection) {
+                return Math.max(1, collection.size());
+            }
+            if (value instanceof Map<?, ?> map) {
+                return Math.max(1, map.size());
+            }
+            if (value != null && value.getClass().isArray()) {
+                return Math.max(1, Array.getLength(value));
+            }
+            return 1;
+        };
     }
 }
@@ -0,0 +1,13 @@
+package com.qw.qwhomes.config;
+
+// Names of the caches the code relies on, each is created by CacheConfig even without a spec of its own
+public final class CacheNames {
+
+    public static final String LOGOUT_TOKENS = "logoutTokens";
+    // Facet counts carry the names of families, sub families, suppliers, colours and materials, writes to any of
+    // them evict it as well as product writes
+    public static final String PRODUCT_FACETS = "productFacets";
+
+    private CacheNames() {
+    }
+}
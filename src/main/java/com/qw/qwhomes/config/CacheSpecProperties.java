@@ -0,0 +1,47 @@
+package com.qw.qwhomes.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache Caffeine settings for the application caches, bound from {@code application.caches}. A cache
+ * listed under {@code specs} takes each setting it leaves unset from {@code defaults}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.caches")
+public class CacheSpecProperties {
+
+    private Spec defaults = new Spec();
+
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Spec {
+        private Long maximumSize;
+        // Bounds the total weight instead of the entry count, a cached collection weighs its element count
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        // Needs a CacheLoader bean named after the cache
+        private Duration refreshAfterWrite;
+
+        Spec mergedOver(Spec defaults) {
+            Spec merged = new Spec();
+            // Size and weight are alternatives, a cache setting either one drops the default bound
+            boolean bounded = maximumSize != null || maximumWeight != null;
+            merged.setMaximumSize(bounded ? maximumSize : defaults.getMaximumSize());
+            merged.setMaximumWeight(bounded ? maximumWeight : defaults.getMaximumWeight());
+            merged.setExpireAfterWrite(expireAfterWrite != null ? expireAfterWrite : defaults.getExpireAfterWrite());
+            merged.setExpireAfterAccess(expireAfterAccess != null ? expireAfterAccess : defaults.getExpireAfterAccess());
+            merged.setRefreshAfterWrite(refreshAfterWrite != null ? refreshAfterWrite : defaults.getRefreshAfterWrite());
+            return merged;
+        }
+    }
+}
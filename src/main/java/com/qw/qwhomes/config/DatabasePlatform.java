@@ -0,0 +1,16 @@
+package com.qw.qwhomes.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// The database behind the data source, for the few queries written against PostgreSQL features H2 (tests) lacks
+public enum DatabasePlatform {
+    POSTGRESQL, OTHER;
+
+    public static DatabasePlatform of(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()) ? POSTGRESQL : OTHER;
+        }
+    }
+}
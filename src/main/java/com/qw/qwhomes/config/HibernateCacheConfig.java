@@ -0,0 +1,54 @@
+package com.qw.qwhomes.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+/**
+ * Backs the Hibernate second-level cache with Caffeine through JCache. Every region is created here from
+ * {@link HibernateCacheProperties}, and Hibernate is set to fail on a region that is not configured, so an
+ * entity cannot silently end up in a cache with default settings.
+ */
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+public class HibernateCacheConfig {
+
+    // Shared by every context in the JVM, so it is left open when one closes
+    @Bean(destroyMethod = "")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        properties.getRegions().forEach((name, region) -> {
+            // The provider hands out one manager per class loader, so a second application context finds its regions already there
+            if (cacheManager.getCache(name) == null) {
+                cacheManager.createCache(name, configurationOf(region));
+            }
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configurationOf(HibernateCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores immutable disassembled entries, copying them on every read would only cost
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setManagementEnabled(true);
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,29 @@
+package com.qw.qwhomes.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sizing of the Hibernate second-level cache regions, bound from {@code application.hibernate-cache}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.hibernate-cache")
+public class HibernateCacheProperties {
+
+    // Region name as used in @Cache(region = ...), plus the query cache regions
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maximumSize = 1000;
+        // Null keeps entries until evicted by size or invalidated by a write
+        private Duration expireAfterWrite;
+    }
+}
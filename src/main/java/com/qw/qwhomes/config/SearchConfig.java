@@ -0,0 +1,28 @@
+package com.qw.qwhomes.config;
+
+import com.qw.qwhomes.common.search.LikeSearchDialect;
+import com.qw.qwhomes.common.search.PostgresSearchDialect;
+import com.qw.qwhomes.common.search.SearchDialect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    public DatabasePlatform databasePlatform(DataSource dataSource) throws SQLException {
+        return DatabasePlatform.of(dataSource);
+    }
+
+    @Bean
+    public SearchDialect searchDialect(DatabasePlatform databasePlatform) {
+        if (databasePlatform == DatabasePlatform.POSTGRESQL) {
+            return new PostgresSearchDialect();
+        }
+        // H2 (tests) has no tsvector or pg_trgm, keep the plain LIKE search there
+        return new LikeSearchDialect();
+    }
+}
@@ -16,9 +16,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "apartment_type")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "apartmentType")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,7 +30,7 @@ public class ApartmentType extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "apartment_type_id_seq")
-    @SequenceGenerator(name = "apartment_type_id_seq", sequenceName = "apartment_type_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "apartment_type_id_seq", sequenceName = "apartment_type_id_seq", allocationSize = 50)
     @Column(name = "apartment_type_id")
     private Long apartmentId;
 
@@ -1,6 +1,7 @@
 package com.qw.qwhomes.domains.apartmenttypesetup.controller;
 
 import com.qw.qwhomes.domains.apartmenttypesetup.service.ApartmentTypeRequirementService;
+import com.qw.qwhomes.domains.apartmenttypesetup.service.dto.ApartmentTypeCandidatesDTO;
 import com.qw.qwhomes.domains.apartmenttypesetup.service.dto.ApartmentTypeRequirementDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -82,4 +83,11 @@ public class ApartmentTypeRequirementController {
     public ResponseEntity<Map<Long, Object>> getApartmentTypeFamiliesAndSubFamilies(@PathVariable("apartment-id") Long id) {
         return ResponseEntity.ok(apartmentTypeRequirementService.getApartmentTypeFamiliesAndSubFamilies(id));
     }
+
+    @GetMapping("/{apartment-id}/candidate-products")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get the active products matching every requirement of an apartment type")
+    public ResponseEntity<ApartmentTypeCandidatesDTO> getCandidateProducts(@PathVariable("apartment-id") Long id) {
+        return ResponseEntity.ok(apartmentTypeRequirementService.getCandidateProducts(id));
+    }
 }
@@ -29,7 +29,7 @@ public class ApartmentTypeRequirement extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "apartment_type_requirement_id_seq")
-    @SequenceGenerator(name = "apartment_type_requirement_id_seq", sequenceName = "apartment_type_requirement_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "apartment_type_requirement_id_seq", sequenceName = "apartment_type_requirement_id_seq", allocationSize = 50)
     @Column(name = "requirement_id")
     private Long apartmentTypeRequirementId;
 
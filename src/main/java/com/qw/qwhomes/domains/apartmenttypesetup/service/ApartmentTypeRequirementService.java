@@ -1,5 +1,6 @@
 package com.qw.qwhomes.domains.apartmenttypesetup.service;
 
+import com.qw.qwhomes.domains.apartmenttypesetup.service.dto.ApartmentTypeCandidatesDTO;
 import com.qw.qwhomes.domains.apartmenttypesetup.service.dto.ApartmentTypeRequirementDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,4 +15,6 @@ public interface ApartmentTypeRequirementService {
     void deleteApartmentTypeRequirement(Long id);
 
     Map<Long, Object> getApartmentTypeFamiliesAndSubFamilies(Long id);
+
+    ApartmentTypeCandidatesDTO getCandidateProducts(Long apartmentTypeId);
 }
@@ -0,0 +1,17 @@
+package com.qw.qwhomes.domains.apartmenttypesetup.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApartmentTypeCandidatesDTO {
+    private Long apartmentTypeId;
+    // Catalog version the candidates were read at, changes whenever an active product is written
+    private Long catalogVersion;
+    private List<RequirementCandidatesDTO> requirements;
+}
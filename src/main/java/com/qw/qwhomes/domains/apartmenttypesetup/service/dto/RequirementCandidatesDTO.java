@@ -0,0 +1,19 @@
+package com.qw.qwhomes.domains.apartmenttypesetup.service.dto;
+
+import com.qw.qwhomes.domains.product.service.dto.CatalogProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequirementCandidatesDTO {
+    private Long familyId;
+    private String familyName;
+    private Long subFamilyId;
+    private String subFamilyName;
+    private List<CatalogProductDTO> products;
+}
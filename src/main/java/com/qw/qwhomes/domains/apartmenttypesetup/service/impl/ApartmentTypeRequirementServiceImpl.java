@@ -1,6 +1,7 @@
 package com.qw.qwhomes.domains.apartmenttypesetup.service.impl;
 
 import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
 import com.qw.qwhomes.config.QWContext;
 import com.qw.qwhomes.domains.apartmenttype.data.entity.ApartmentType;
 import com.qw.qwhomes.domains.apartmenttype.data.repository.ApartmentTypeRepository;
@@ -8,21 +9,28 @@ import com.qw.qwhomes.domains.apartmenttypesetup.data.entity.ApartmentTypeRequir
 import com.qw.qwhomes.domains.apartmenttypesetup.data.repository.ApartmentTypeFamiliesAndSubFamiliesProjection;
 import com.qw.qwhomes.domains.apartmenttypesetup.data.repository.ApartmentTypeRequirementRepository;
 import com.qw.qwhomes.domains.apartmenttypesetup.service.ApartmentTypeRequirementService;
+import com.qw.qwhomes.domains.apartmenttypesetup.service.dto.ApartmentTypeCandidatesDTO;
 import com.qw.qwhomes.domains.apartmenttypesetup.service.dto.ApartmentTypeRequirementDTO;
+import com.qw.qwhomes.domains.apartmenttypesetup.service.dto.RequirementCandidatesDTO;
 import com.qw.qwhomes.domains.apartmenttypesetup.service.mapper.ApartmentTypeRequirementMapper;
 import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
 import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
 import com.qw.qwhomes.domains.furniturefamily.data.repository.FurnitureFamilyRepository;
 import com.qw.qwhomes.domains.furniturefamily.data.repository.FurnitureSubFamilyRepository;
+import com.qw.qwhomes.domains.product.service.search.CatalogIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -36,6 +44,8 @@ public class ApartmentTypeRequirementServiceImpl implements ApartmentTypeRequire
     private final FurnitureFamilyRepository furnitureFamilyRepository;
     private final FurnitureSubFamilyRepository furnitureSubFamilyRepository;
     private final ApartmentTypeRequirementMapper apartmentTypeRequirementMapper;
+    private final CatalogIndex catalogIndex;
+    private final MessageSource messageSource;
 
     @Override
     @Transactional
@@ -144,4 +154,34 @@ public class ApartmentTypeRequirementServiceImpl implements ApartmentTypeRequire
                         )
                 ));
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ApartmentTypeCandidatesDTO getCandidateProducts(Long apartmentTypeId) {
+        if (!apartmentTypeRepository.existsById(apartmentTypeId)) {
+            throw new ResourceNotFoundException(messageSource.getMessage("apartmentType.notFound", new Object[]{apartmentTypeId}, Locale.getDefault()));
+        }
+        // The same family and sub family may be required more than once, e.g. for several rooms
+        Map<List<Long>, ApartmentTypeFamiliesAndSubFamiliesProjection> pairs = new LinkedHashMap<>();
+        for (ApartmentTypeFamiliesAndSubFamiliesProjection pair : apartmentTypeRequirementRepository.findFamiliesAndSubFamiliesByApartmentTypeId(apartmentTypeId)) {
+            pairs.putIfAbsent(List.of(pair.getFamilyId(), pair.getSubFamilyId()), pair);
+        }
+
+        List<ApartmentTypeFamiliesAndSubFamiliesProjection> requirements = new ArrayList<>(pairs.values());
+        long[] familyIds = new long[requirements.size()];
+        long[] subFamilyIds = new long[requirements.size()];
+        for (int i = 0; i < requirements.size(); i++) {
+            familyIds[i] = requirements.get(i).getFamilyId();
+            subFamilyIds[i] = requirements.get(i).getSubFamilyId();
+        }
+        CatalogIndex.Candidates candidates = catalogIndex.candidates(familyIds, subFamilyIds);
+
+        List<RequirementCandidatesDTO> result = new ArrayList<>(requirements.size());
+        for (int i = 0; i < requirements.size(); i++) {
+            ApartmentTypeFamiliesAndSubFamiliesProjection requirement = requirements.get(i);
+            result.add(new RequirementCandidatesDTO(requirement.getFamilyId(), requirement.getFamilyName(),
+                    requirement.getSubFamilyId(), requirement.getSubFamilyName(), candidates.products().get(i)));
+        }
+        return new ApartmentTypeCandidatesDTO(apartmentTypeId, candidates.version(), result);
+    }
 }
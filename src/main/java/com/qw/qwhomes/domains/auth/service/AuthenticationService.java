@@ -1,5 +1,6 @@
 package com.qw.qwhomes.domains.auth.service;
 
+import com.qw.qwhomes.config.CacheNames;
 import com.qw.qwhomes.domains.auth.dto.LoginRequest;
 import com.qw.qwhomes.domains.auth.dto.TokenResponse;
 import com.qw.qwhomes.domains.auth.util.JwtTokenUtil;
@@ -34,11 +35,11 @@ public class AuthenticationService {
     }
 
     public void logout(String token) {
-        Objects.requireNonNull(cacheManager.getCache("logoutTokens")).put(token, true);
+        Objects.requireNonNull(cacheManager.getCache(CacheNames.LOGOUT_TOKENS)).put(token, true);
         SecurityContextHolder.clearContext();
     }
 
     public boolean isTokenLoggedOut(String token) {
-        return cacheManager.getCache("logoutTokens").get(token) != null;
+        return cacheManager.getCache(CacheNames.LOGOUT_TOKENS).get(token) != null;
     }
 }
@@ -0,0 +1,55 @@
+package com.qw.qwhomes.domains.cache.controller;
+
+import com.qw.qwhomes.domains.cache.service.CacheAdminService;
+import com.qw.qwhomes.domains.cache.service.dto.CacheStatsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/caches")
+@RequiredArgsConstructor
+@Tag(name = "Cache Administration", description = "APIs for inspecting and evicting caches")
+public class CacheAdminController {
+
+    private final CacheAdminService cacheAdminService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "List caches with their size, hit ratio and evictions")
+    public ResponseEntity<List<CacheStatsDTO>> getCaches() {
+        return ResponseEntity.ok(cacheAdminService.getCaches());
+    }
+
+    @GetMapping("/{name}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get the statistics of a cache")
+    public ResponseEntity<CacheStatsDTO> getCache(@PathVariable String name) {
+        return ResponseEntity.ok(cacheAdminService.getCache(name));
+    }
+
+    @DeleteMapping("/{name}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Evict every entry of a cache")
+    public ResponseEntity<Void> clear(@PathVariable String name) {
+        cacheAdminService.clear(name);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{name}/keys/{key}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Evict one entry of a cache, entity regions take the entity id")
+    public ResponseEntity<Void> evict(@PathVariable String name, @PathVariable String key) {
+        cacheAdminService.evict(name, key);
+        return ResponseEntity.noContent().build();
+    }
+}
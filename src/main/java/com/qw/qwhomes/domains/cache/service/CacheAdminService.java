@@ -0,0 +1,12 @@
+package com.qw.qwhomes.domains.cache.service;
+
+import com.qw.qwhomes.domains.cache.service.dto.CacheStatsDTO;
+
+import java.util.List;
+
+public interface CacheAdminService {
+    List<CacheStatsDTO> getCaches();
+    CacheStatsDTO getCache(String name);
+    void evict(String name, String key);
+    void clear(String name);
+}
@@ -0,0 +1,22 @@
+package com.qw.qwhomes.domains.cache.service.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsDTO {
+    private String name;
+    // APPLICATION for Spring caches, ENTITY for Hibernate second-level cache regions
+    private CacheKind kind;
+    private long size;
+    // Entry count or total weight bound, null when unbounded
+    private Long maximum;
+    private long hitCount;
+    private long missCount;
+    private double hitRatio;
+    private long evictionCount;
+    private long evictionWeight;
+
+    public enum CacheKind {
+        APPLICATION, ENTITY
+    }
+}
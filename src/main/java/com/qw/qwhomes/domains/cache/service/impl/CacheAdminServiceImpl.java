@@ -0,0 +1,165 @@
+package com.qw.qwhomes.domains.cache.service.impl;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.config.HibernateCacheProperties;
+import com.qw.qwhomes.domains.cache.service.CacheAdminService;
+import com.qw.qwhomes.domains.cache.service.dto.CacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Inspects and evicts both the Spring application caches and the Hibernate second-level cache regions.
+ * Entity regions are cleared through Hibernate rather than on the JCache directly, so its soft locks stay
+ * consistent with the region contents.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheAdminServiceImpl implements CacheAdminService {
+
+    private final CacheManager cacheManager;
+    private final javax.cache.CacheManager hibernateCacheManager;
+    private final HibernateCacheProperties hibernateCacheProperties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MessageSource messageSource;
+
+    @Override
+    public List<CacheStatsDTO> getCaches() {
+        List<CacheStatsDTO> caches = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            caches.add(applicationStats(name, applicationCache(name)));
+        }
+        for (String name : hibernateCacheProperties.getRegions().keySet()) {
+            caches.add(entityStats(name, entityRegion(name)));
+        }
+        return caches;
+    }
+
+    @Override
+    public CacheStatsDTO getCache(String name) {
+        if (cacheManager.getCacheNames().contains(name)) {
+            return applicationStats(name, applicationCache(name));
+        }
+        return entityStats(name, entityRegion(name));
+    }
+
+    @Override
+    public void evict(String name, String key) {
+        if (cacheManager.getCacheNames().contains(name)) {
+            applicationCache(name).evict(key);
+            return;
+        }
+        entityRegion(name);
+        Class<?> entityClass = entityClassOf(name);
+        if (entityClass == null) {
+            throw new BusinessException(messageSource.getMessage("cache.keyEvictionUnsupported", new Object[]{name}, Locale.getDefault()));
+        }
+        long id;
+        try {
+            id = Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new BusinessException(messageSource.getMessage("cache.invalidKey", new Object[]{key, name}, Locale.getDefault()));
+        }
+        entityManagerFactory.getCache().evict(entityClass, id);
+    }
+
+    @Override
+    public void clear(String name) {
+        if (cacheManager.getCacheNames().contains(name)) {
+            applicationCache(name).clear();
+            return;
+        }
+        entityRegion(name);
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictRegion(name);
+    }
+
+    private CaffeineCache applicationCache(String name) {
+        if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+            throw notFound(name);
+        }
+        return cache;
+    }
+
+    private javax.cache.Cache<Object, Object> entityRegion(String name) {
+        javax.cache.Cache<Object, Object> region = hibernateCacheProperties.getRegions().containsKey(name) ? hibernateCacheManager.getCache(name) : null;
+        if (region == null) {
+            throw notFound(name);
+        }
+        return region;
+    }
+
+    private CacheStatsDTO applicationStats(String name, CaffeineCache cache) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+        CacheStats stats = nativeCache.stats();
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setName(name);
+        dto.setKind(CacheStatsDTO.CacheKind.APPLICATION);
+        dto.setSize(nativeCache.estimatedSize());
+        dto.setMaximum(nativeCache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(null));
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRatio(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setEvictionWeight(stats.evictionWeight());
+        return dto;
+    }
+
+    private CacheStatsDTO entityStats(String name, javax.cache.Cache<Object, Object> region) {
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = region.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setName(name);
+        dto.setKind(CacheStatsDTO.CacheKind.ENTITY);
+        dto.setSize(nativeCache.estimatedSize());
+        dto.setMaximum(nativeCache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(null));
+        // JCache keeps its own counters and only publishes them as management beans
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            Set<ObjectName> names = server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,Cache=" + name + ",*"), null);
+            if (!names.isEmpty()) {
+                ObjectName statistics = names.iterator().next();
+                long hits = (Long) server.getAttribute(statistics, "CacheHits");
+                long misses = (Long) server.getAttribute(statistics, "CacheMisses");
+                dto.setHitCount(hits);
+                dto.setMissCount(misses);
+                dto.setHitRatio(hits + misses == 0 ? 1.0 : (double) hits / (hits + misses));
+                dto.setEvictionCount((Long) server.getAttribute(statistics, "CacheEvictions"));
+            }
+        } catch (Exception e) {
+            log.debug("No statistics published for cache region {}", name, e);
+        }
+        return dto;
+    }
+
+    private Class<?> entityClassOf(String region) {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Cache cache = entity.getJavaType().getAnnotation(Cache.class);
+            if (cache != null && cache.region().equals(region)) {
+                return entity.getJavaType();
+            }
+        }
+        return null;
+    }
+
+    private ResourceNotFoundException notFound(String name) {
+        return new ResourceNotFoundException(messageSource.getMessage("cache.notFound", new Object[]{name}, Locale.getDefault()));
+    }
+}
@@ -14,9 +14,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,7 +28,7 @@ public class Category extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_id_seq")
-    @SequenceGenerator(name = "category_id_seq", sequenceName = "category_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "category_id_seq", sequenceName = "category_id_seq", allocationSize = 50)
     @Column(name = "category_id")
     private Long id;
 
@@ -1,15 +1,20 @@
 package com.qw.qwhomes.domains.category.data.repository;
 
 import com.qw.qwhomes.domains.category.data.entity.Category;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Page<Category> findAllByNameContainingIgnoreCase(String search, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Category> getCategoriesByType(Category.CategoryType type);
 }
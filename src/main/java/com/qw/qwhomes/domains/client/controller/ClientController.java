@@ -1,5 +1,7 @@
 package com.qw.qwhomes.domains.client.controller;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.dto.PageableResponse;
 import com.qw.qwhomes.common.service.impl.ExcelExportService;
 import com.qw.qwhomes.domains.client.data.entity.Client;
@@ -72,6 +74,17 @@ public class ClientController {
         return ResponseEntity.ok(new PageableResponse<>(clientService.getAllClients(pageable, search)));
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get clients by cursor with search",
+            description = "Pass an empty cursor for the first page, then the nextCursor of the previous page")
+    public ResponseEntity<CursorResponse<ClientDTO>> getAllClientsByCursor(
+            Pageable pageable,
+            @RequestParam(required = false) String search,
+            @RequestParam String cursor) {
+        return ResponseEntity.ok(clientService.getAllClients(new CursorRequest(cursor, pageable), search));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Update an existing client")
@@ -29,7 +29,7 @@ public class Client extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_seq")
-    @SequenceGenerator(name = "client_seq", sequenceName = "client_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "client_seq", sequenceName = "client_id_seq", allocationSize = 50)
     @Column(name = "client_id")
     private Long clientId;
 
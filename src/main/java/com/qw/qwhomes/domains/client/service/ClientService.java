@@ -1,5 +1,7 @@
 package com.qw.qwhomes.domains.client.service;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.domains.client.service.dto.ClientDTO;
 import com.qw.qwhomes.domains.client.service.dto.ClientDashboardDTO;
 import org.springframework.data.domain.Page;
@@ -12,6 +14,7 @@ public interface ClientService {
     ClientDTO createClient(ClientDTO clientDTO);
     ClientDTO getClientById(Long id);
     Page<ClientDTO> getAllClients(Pageable pageable, String search);
+    CursorResponse<ClientDTO> getAllClients(CursorRequest cursorRequest, String search);
     ClientDTO updateClient(Long id, ClientDTO clientDTO);
     void deleteClient(Long id);
     ClientDashboardDTO getClientsMetaData();
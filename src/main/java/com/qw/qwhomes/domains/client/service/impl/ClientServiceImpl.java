@@ -1,7 +1,12 @@
 package com.qw.qwhomes.domains.client.service.impl;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.exceptions.ResourceDuplicateException;
 import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.common.pagination.KeysetPaginator;
+import com.qw.qwhomes.common.search.SearchDialect;
+import com.qw.qwhomes.common.search.SearchTarget;
 import com.qw.qwhomes.config.QWContext;
 import com.qw.qwhomes.domains.client.data.entity.Client;
 import com.qw.qwhomes.domains.client.data.repository.ClientRepository;
@@ -27,6 +32,8 @@ public class ClientServiceImpl implements ClientService {
     private final ClientRepository clientRepository;
     private final ClientMapper clientMapper;
     private final MessageSource messageSource;
+    private final SearchDialect searchDialect;
+    private final KeysetPaginator keysetPaginator;
 
     @Override
     @Transactional
@@ -54,21 +61,23 @@ public class ClientServiceImpl implements ClientService {
     @Override
     @Transactional(readOnly = true)
     public Page<ClientDTO> getAllClients(Pageable pageable, String search) {
-        Specification<Client> spec = (root, query, cb) -> {
-            if (search == null || search.isEmpty()) {
-                return null;
-            }
-            return cb.or(
-                    cb.like(cb.lower(root.get("name")), "%" + search.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("email")), "%" + search.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("secondaryEmail")), "%" + search.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("phone")), "%" + search.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("secondaryPhone")), "%" + search.toLowerCase() + "%")
-            );
-        };
+        if (search == null || search.isEmpty()) {
+            return clientRepository.findAll(pageable).map(clientMapper::toDto);
+        }
+        Specification<Client> spec = searchDialect.matches(SearchTarget.CLIENT, search);
+        if (pageable.getSort().isUnsorted()) {
+            spec = spec.and(searchDialect.orderByRelevance(SearchTarget.CLIENT, search));
+        }
         return clientRepository.findAll(spec, pageable).map(clientMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<ClientDTO> getAllClients(CursorRequest cursorRequest, String search) {
+        Specification<Client> spec = search == null || search.isEmpty() ? null : searchDialect.matches(SearchTarget.CLIENT, search);
+        return keysetPaginator.page(Client.class, spec, cursorRequest, clientMapper::toDto);
+    }
+
     @Override
     @Transactional
     public ClientDTO updateClient(Long id, ClientDTO clientDTO) {
@@ -1,5 +1,7 @@
 package com.qw.qwhomes.domains.colour.controller;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.dto.PageableResponse;
 import com.qw.qwhomes.domains.colour.service.ColourService;
 import com.qw.qwhomes.domains.colour.service.dto.ColourDTO;
@@ -58,6 +60,17 @@ public class ColourController {
         return ResponseEntity.ok(new PageableResponse<>(colourService.getAllColours(pageable, search)));
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get colours by cursor with search",
+            description = "Pass an empty cursor for the first page, then the nextCursor of the previous page")
+    public ResponseEntity<CursorResponse<ColourDTO>> getAllColoursByCursor(
+            Pageable pageable,
+            @RequestParam(required = false) String search,
+            @RequestParam String cursor) {
+        return ResponseEntity.ok(colourService.getAllColours(new CursorRequest(cursor, pageable), search));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Update an existing colour")
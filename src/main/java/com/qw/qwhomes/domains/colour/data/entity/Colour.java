@@ -14,6 +14,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
@@ -22,6 +24,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
     @Index(name = "idx_colour_code", columnList = "code")
 })
 @EntityListeners(AuditingEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "colour")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,7 +33,7 @@ public class Colour extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "colour_seq")
-    @SequenceGenerator(name = "colour_seq", sequenceName = "colour_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "colour_seq", sequenceName = "colour_id_seq", allocationSize = 50)
     @Column(name = "colour_id")
     private Long colourId;
 
@@ -2,18 +2,27 @@ package com.qw.qwhomes.domains.colour.data.repository;
 
 import com.qw.qwhomes.domains.colour.data.entity.Colour;
 import com.qw.qwhomes.domains.colour.service.dto.ColourDashboardDTO;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface ColourRepository extends JpaRepository<Colour, Long>, JpaSpecificationExecutor<Colour> {
+    // Name and code lookups back the uniqueness checks and the import, and only change when colours do
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Colour> findByNameIgnoreCase(String name);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Colour> findByCodeIgnoreCase(String code);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByNameIgnoreCase(String name);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByCodeIgnoreCase(String code);
 
     @Query("SELECT new com.qw.qwhomes.domains.colour.service.dto.ColourDashboardDTO(COUNT(c)) FROM Colour c")
@@ -1,5 +1,7 @@
 package com.qw.qwhomes.domains.colour.service;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.domains.colour.service.dto.ColourDTO;
 import com.qw.qwhomes.domains.colour.service.dto.ColourDashboardDTO;
 import org.springframework.data.domain.Page;
@@ -9,6 +11,7 @@ public interface ColourService {
     ColourDTO createColour(ColourDTO colourDTO);
     ColourDTO getColourById(Long id);
     Page<ColourDTO> getAllColours(Pageable pageable, String search);
+    CursorResponse<ColourDTO> getAllColours(CursorRequest cursorRequest, String search);
     ColourDTO updateColour(Long id, ColourDTO colourDTO);
     void deleteColour(Long id);
 
@@ -1,7 +1,10 @@
 package com.qw.qwhomes.domains.colour.service.impl;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.exceptions.ResourceDuplicateException;
 import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.common.pagination.KeysetPaginator;
 import com.qw.qwhomes.config.QWContext;
 import com.qw.qwhomes.domains.colour.data.entity.Colour;
 import com.qw.qwhomes.domains.colour.data.repository.ColourRepository;
@@ -9,7 +12,9 @@ import com.qw.qwhomes.domains.colour.service.ColourService;
 import com.qw.qwhomes.domains.colour.service.dto.ColourDTO;
 import com.qw.qwhomes.domains.colour.service.dto.ColourDashboardDTO;
 import com.qw.qwhomes.domains.colour.service.mapper.ColourMapper;
+import com.qw.qwhomes.domains.product.service.event.FacetLabelsChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +31,8 @@ public class ColourServiceImpl implements ColourService {
     private final ColourRepository colourRepository;
     private final ColourMapper colourMapper;
     private final MessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaginator keysetPaginator;
 
     @Override
     @Transactional
@@ -54,7 +61,18 @@ public class ColourServiceImpl implements ColourService {
     @Override
     @Transactional(readOnly = true)
     public Page<ColourDTO> getAllColours(Pageable pageable, String search) {
-        Specification<Colour> spec = (root, query, cb) -> {
+        return colourRepository.findAll(colourSpecification(search), pageable).map(colourMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<ColourDTO> getAllColours(CursorRequest cursorRequest, String search) {
+        Specification<Colour> spec = search == null || search.isEmpty() ? null : colourSpecification(search);
+        return keysetPaginator.page(Colour.class, spec, cursorRequest, colourMapper::toDto);
+    }
+
+    private Specification<Colour> colourSpecification(String search) {
+        return (root, query, cb) -> {
             if (search == null || search.isEmpty()) {
                 return null;
             }
@@ -63,7 +81,6 @@ public class ColourServiceImpl implements ColourService {
                     cb.like(cb.lower(root.get("code")), "%" + search.toLowerCase() + "%")
             );
         };
-        return colourRepository.findAll(spec, pageable).map(colourMapper::toDto);
     }
 
     @Override
@@ -81,7 +98,9 @@ public class ColourServiceImpl implements ColourService {
         }
         colourMapper.updateEntityFromDto(colourDTO, colour);
         colour.setUpdatedBy(QWContext.get().getUserId());
-        return colourMapper.toDto(colourRepository.save(colour));
+        Colour updatedColour = colourRepository.save(colour);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
+        return colourMapper.toDto(updatedColour);
     }
 
     @Override
@@ -93,6 +112,7 @@ public class ColourServiceImpl implements ColourService {
             );
         }
         colourRepository.deleteById(id);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,73 @@
+package com.qw.qwhomes.domains.export.controller;
+
+import com.qw.qwhomes.common.web.CachedResourceSupport;
+import com.qw.qwhomes.domains.export.service.ExportJobService;
+import com.qw.qwhomes.domains.export.service.dto.ExportArtifact;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobDTO;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobRequestDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@Tag(name = "Export Jobs", description = "APIs for running exports in the background")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+    private final CachedResourceSupport cachedResourceSupport;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Queue an export job")
+    public ResponseEntity<ExportJobDTO> createJob(@Valid @RequestBody ExportJobRequestDTO request) {
+        return new ResponseEntity<>(exportJobService.createJob(request), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get my export jobs, newest first")
+    public ResponseEntity<Page<ExportJobDTO>> getMyJobs(Pageable pageable) {
+        return ResponseEntity.ok(exportJobService.getMyJobs(pageable));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get the status and progress of an export job")
+    public ResponseEntity<ExportJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(exportJobService.getJob(id));
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Subscribe to the progress of an export job")
+    public SseEmitter subscribe(@PathVariable Long id) {
+        return exportJobService.subscribe(id);
+    }
+
+    @GetMapping("/{id}/download")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Download the file of a completed export job")
+    public ResponseEntity<Resource> download(@PathVariable Long id) throws IOException {
+        ExportArtifact artifact = exportJobService.download(id);
+        return cachedResourceSupport.download(artifact.resource(), artifact.mediaType(), artifact.fileName());
+    }
+}
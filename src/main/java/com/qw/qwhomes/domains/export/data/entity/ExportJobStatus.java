@@ -0,0 +1,9 @@
+package com.qw.qwhomes.domains.export.data.entity;
+
+public enum ExportJobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED, EXPIRED;
+
+    public boolean isActive() {
+        return this == QUEUED || this == RUNNING;
+    }
+}
@@ -0,0 +1,31 @@
+package com.qw.qwhomes.domains.export.data.entity;
+
+public enum ExportJobType {
+    PROPOSAL_PDF(0, null),
+    PROPOSAL_EXCEL(0, null),
+    PRODUCTS(10, "products"),
+    SUPPLIERS(10, "suppliers"),
+    PROPOSALS(10, "proposals");
+
+    // Lower runs first: single proposal documents are quick and usually awaited, table exports can wait
+    private final int priority;
+    // Name of the exported table, null for proposal documents
+    private final String table;
+
+    ExportJobType(int priority, String table) {
+        this.priority = priority;
+        this.table = table;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public boolean isTable() {
+        return table != null;
+    }
+}
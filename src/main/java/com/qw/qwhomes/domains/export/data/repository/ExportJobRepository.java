@@ -0,0 +1,24 @@
+package com.qw.qwhomes.domains.export.data.repository;
+
+import com.qw.qwhomes.domains.export.data.entity.ExportJob;
+import com.qw.qwhomes.domains.export.data.entity.ExportJobStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
+
+    Page<ExportJob> findByCreatedByOrderByIdDesc(Long createdBy, Pageable pageable);
+
+    long countByCreatedByAndStatusIn(Long createdBy, Collection<ExportJobStatus> statuses);
+
+    List<ExportJob> findByStatusIn(Collection<ExportJobStatus> statuses);
+
+    List<ExportJob> findByStatusAndExpiresAtBefore(ExportJobStatus status, LocalDateTime expiresAt);
+}
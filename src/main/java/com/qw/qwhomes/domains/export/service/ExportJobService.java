@@ -0,0 +1,16 @@
+package com.qw.qwhomes.domains.export.service;
+
+import com.qw.qwhomes.domains.export.service.dto.ExportArtifact;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobDTO;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobRequestDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ExportJobService {
+    ExportJobDTO createJob(ExportJobRequestDTO request);
+    ExportJobDTO getJob(Long id);
+    Page<ExportJobDTO> getMyJobs(Pageable pageable);
+    SseEmitter subscribe(Long id);
+    ExportArtifact download(Long id);
+}
@@ -0,0 +1,7 @@
+package com.qw.qwhomes.domains.export.service.dto;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+
+public record ExportArtifact(Resource resource, MediaType mediaType, String fileName) {
+}
@@ -0,0 +1,25 @@
+package com.qw.qwhomes.domains.export.service.dto;
+
+import com.qw.qwhomes.domains.export.data.entity.ExportJobStatus;
+import com.qw.qwhomes.domains.export.data.entity.ExportJobType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ExportJobDTO {
+    private Long id;
+    private ExportJobType type;
+    private String format;
+    private Long targetId;
+    private ExportJobStatus status;
+    private Integer progress;
+    private String fileName;
+    private Long size;
+    private String errorMessage;
+    private String downloadUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+}
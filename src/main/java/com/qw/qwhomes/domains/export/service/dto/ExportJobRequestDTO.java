@@ -0,0 +1,18 @@
+package com.qw.qwhomes.domains.export.service.dto;
+
+import com.qw.qwhomes.domains.export.data.entity.ExportJobType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ExportJobRequestDTO {
+
+    @NotNull(message = "Export type is required")
+    private ExportJobType type;
+
+    // Proposal id, required for proposal documents
+    private Long targetId;
+
+    // excel, csv or ndjson, only used by table exports
+    private String format = "excel";
+}
@@ -0,0 +1,384 @@
+package com.qw.qwhomes.domains.export.service.impl;
+
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.common.service.ExportFormat;
+import com.qw.qwhomes.common.service.TableExport;
+import com.qw.qwhomes.common.service.impl.StreamingExportService;
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.export.data.entity.ExportJob;
+import com.qw.qwhomes.domains.export.data.entity.ExportJobStatus;
+import com.qw.qwhomes.domains.export.data.entity.ExportJobType;
+import com.qw.qwhomes.domains.export.data.repository.ExportJobRepository;
+import com.qw.qwhomes.domains.export.service.ExportJobService;
+import com.qw.qwhomes.domains.export.service.dto.ExportArtifact;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobDTO;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobRequestDTO;
+import com.qw.qwhomes.domains.export.service.mapper.ExportJobMapper;
+import com.qw.qwhomes.domains.export.service.runner.ExportJobExecutor;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalRepository;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalExportCache;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
+import com.qw.qwhomes.domains.user.data.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs exports in the background: a job row is stored as QUEUED, the work is handed to the
+ * {@link ExportJobExecutor} and the client polls the job or subscribes to its progress, then downloads the
+ * artifact until it expires.
+ */
+@Slf4j
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private static final List<ExportJobStatus> ACTIVE = List.of(ExportJobStatus.QUEUED, ExportJobStatus.RUNNING);
+    private static final long SUBSCRIPTION_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ExportJobRepository exportJobRepository;
+    private final ExportJobMapper exportJobMapper;
+    private final ExportJobExecutor exportJobExecutor;
+    private final StreamingExportService streamingExportService;
+    private final ProposalService proposalService;
+    private final ProposalRepository proposalRepository;
+    private final ProposalExportCache proposalExportCache;
+    private final MessageSource messageSource;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, TableExport<?>> tableExports;
+
+    @Value("${proposal.export.path}")
+    private String exportPath;
+
+    @Value("${application.exports.max-active-per-user:2}")
+    private int maxActivePerUser;
+
+    @Value("${application.exports.ttl:PT24H}")
+    private Duration ttl;
+
+    // Progress of running jobs lives here and is only written to the row when the job ends
+    private final Map<Long, Integer> progress = new ConcurrentHashMap<>();
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public ExportJobServiceImpl(ExportJobRepository exportJobRepository, ExportJobMapper exportJobMapper,
+                                ExportJobExecutor exportJobExecutor, StreamingExportService streamingExportService,
+                                ProposalService proposalService, ProposalRepository proposalRepository,
+                                ProposalExportCache proposalExportCache, MessageSource messageSource, UserRepository userRepository,
+                                TransactionTemplate transactionTemplate, List<TableExport<?>> tableExports) {
+        this.exportJobRepository = exportJobRepository;
+        this.exportJobMapper = exportJobMapper;
+        this.exportJobExecutor = exportJobExecutor;
+        this.streamingExportService = streamingExportService;
+        this.proposalService = proposalService;
+        this.proposalRepository = proposalRepository;
+        this.proposalExportCache = proposalExportCache;
+        this.messageSource = messageSource;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tableExports = tableExports.stream().collect(Collectors.toMap(TableExport::getName, Function.identity()));
+    }
+
+    // Not transactional on purpose: the row is committed in a transaction of its own before a worker can pick the job up
+    @Override
+    public ExportJobDTO createJob(ExportJobRequestDTO request) {
+        Long userId = QWContext.get().getUserId();
+        ExportJobType type = request.getType();
+        String format = null;
+        if (type.isTable()) {
+            ExportFormat exportFormat = ExportFormat.fromValue(request.getFormat());
+            if (exportFormat == null) {
+                throw new BusinessException(messageSource.getMessage("export.invalidFormat", new Object[]{request.getFormat()}, Locale.getDefault()));
+            }
+            format = exportFormat.getValue();
+        } else if (request.getTargetId() == null || !proposalRepository.existsById(request.getTargetId())) {
+            throw new BusinessException(messageSource.getMessage("export.job.invalidTarget", new Object[]{type, request.getTargetId()}, Locale.getDefault()));
+        }
+
+        ExportJob job = ExportJob.builder()
+                .type(type)
+                .format(format)
+                .targetId(type.isTable() ? null : request.getTargetId())
+                .status(ExportJobStatus.QUEUED)
+                .progress(0)
+                .build();
+        job.setCreatedBy(userId);
+        ExportJob saved = transactionTemplate.execute(status -> {
+            // Concurrent requests of one user wait on the user's row, so they cannot all pass the count before inserting
+            userRepository.lockById(userId);
+            if (exportJobRepository.countByCreatedByAndStatusIn(userId, ACTIVE) >= maxActivePerUser) {
+                throw new BusinessException(messageSource.getMessage("export.tooManyJobs", new Object[]{maxActivePerUser}, Locale.getDefault()));
+            }
+            return exportJobRepository.save(job);
+        });
+
+        try {
+            exportJobExecutor.submit(type.getPriority(), () -> run(saved.getId(), userId));
+        } catch (RejectedExecutionException e) {
+            String message = messageSource.getMessage("export.queueFull", null, Locale.getDefault());
+            fail(saved.getId(), message);
+            throw new BusinessException(message);
+        }
+        return toDto(saved);
+    }
+
+    @Override
+    public ExportJobDTO getJob(Long id) {
+        return toDto(findOwnJob(id));
+    }
+
+    @Override
+    public Page<ExportJobDTO> getMyJobs(Pageable pageable) {
+        return exportJobRepository.findByCreatedByOrderByIdDesc(QWContext.get().getUserId(), pageable).map(this::toDto);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long id) {
+        ExportJob job = findOwnJob(id);
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT_MS);
+        Set<SseEmitter> emitters = subscribers.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+
+        // Send the current state right away, the job may already be done
+        send(emitter, toDto(job));
+        if (!job.getStatus().isActive()) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @Override
+    public ExportArtifact download(Long id) {
+        ExportJob job = findOwnJob(id);
+        if (job.getStatus() != ExportJobStatus.COMPLETED || job.getFilePath() == null || !Files.exists(Paths.get(job.getFilePath()))) {
+            throw new BusinessException(messageSource.getMessage("export.job.notReady", new Object[]{id, job.getStatus()}, Locale.getDefault()));
+        }
+        return new ExportArtifact(new FileSystemResource(job.getFilePath()), MediaType.parseMediaType(job.getContentType()), job.getFileName());
+    }
+
+    // Jobs queued or running when the application stopped are gone with the executor
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ExportJob> interrupted = exportJobRepository.findByStatusIn(ACTIVE);
+        for (ExportJob job : interrupted) {
+            job.setStatus(ExportJobStatus.FAILED);
+            job.setErrorMessage("Interrupted by a restart");
+            job.setCompletedAt(now());
+        }
+        exportJobRepository.saveAll(interrupted);
+    }
+
+    /**
+     * Expires completed jobs past their TTL and deletes job files older than the TTL, covering files left behind
+     * by jobs that never completed.
+     */
+    @Scheduled(fixedDelayString = "${application.exports.cleanup-interval:PT1H}")
+    public void cleanup() {
+        List<ExportJob> expired = exportJobRepository.findByStatusAndExpiresAtBefore(ExportJobStatus.COMPLETED, now());
+        for (ExportJob job : expired) {
+            job.setStatus(ExportJobStatus.EXPIRED);
+            deleteQuietly(Paths.get(job.getFilePath()));
+        }
+        exportJobRepository.saveAll(expired);
+
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        deleteOlderThan(jobsDirectory(), "*", cutoff);
+    }
+
+    private void run(Long jobId, Long userId) {
+        QWContext.set(new QWContext().setUserId(userId));
+        try {
+            ExportJob job = exportJobRepository.findById(jobId).orElse(null);
+            if (job == null || job.getStatus() != ExportJobStatus.QUEUED) {
+                return;
+            }
+            job.setStatus(ExportJobStatus.RUNNING);
+            job.setStartedAt(now());
+            job = exportJobRepository.save(job);
+            publish(job);
+
+            produce(job);
+
+            job.setStatus(ExportJobStatus.COMPLETED);
+            job.setProgress(100);
+            job.setSize(Files.size(Paths.get(job.getFilePath())));
+            job.setCompletedAt(now());
+            job.setExpiresAt(job.getCompletedAt().plus(ttl));
+            publish(exportJobRepository.save(job));
+        } catch (Exception e) {
+            log.warn("Export job {} failed", jobId, e);
+            fail(jobId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            progress.remove(jobId);
+            QWContext.clear();
+        }
+    }
+
+    private void produce(ExportJob job) throws IOException {
+        switch (job.getType()) {
+            case PROPOSAL_PDF -> writeProposal(job, ProposalFile.FileFormat.PDF);
+            case PROPOSAL_EXCEL -> writeProposal(job, ProposalFile.FileFormat.EXCEL);
+            default -> writeTable(job, tableExports.get(job.getType().getTable()));
+        }
+    }
+
+    private <T> void writeTable(ExportJob job, TableExport<T> export) throws IOException {
+        ExportFormat format = ExportFormat.fromValue(job.getFormat());
+        Path directory = jobsDirectory();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(job.getId() + "." + format.getExtension());
+
+        long total = Math.max(1, export.count());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            // Capped below 100 until the file is complete
+            streamingExportService.write(format, export, out, rows -> progress(job, (int) Math.min(99, rows * 100 / total)));
+        }
+        job.setFilePath(file.toString());
+        job.setFileName(export.getName() + "." + format.getExtension());
+        job.setContentType(format.getMediaType().toString());
+    }
+
+    // Served from the document cache, so a proposal pre-rendered when it was finalized or approved is only copied.
+    // The job keeps a copy of its own because expired job files are deleted while the cached one may still be served
+    private void writeProposal(ExportJob job, ProposalFile.FileFormat format) throws IOException {
+        ProposalSnapshot snapshot = proposalService.getProposalSnapshot(job.getTargetId());
+        Path document = proposalExportCache.get(snapshot, format);
+        Path directory = jobsDirectory();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(job.getId() + "." + format.getExtension());
+
+        Files.copy(document, file, StandardCopyOption.REPLACE_EXISTING);
+        job.setFilePath(file.toString());
+        job.setFileName("proposal_" + snapshot.id() + "." + format.getExtension());
+        job.setContentType(format.getContentType());
+        progress(job, 100);
+    }
+
+    private void progress(ExportJob job, int percent) {
+        Integer previous = progress.put(job.getId(), percent);
+        if (previous == null || previous != percent) {
+            job.setProgress(percent);
+            publish(job);
+        }
+    }
+
+    private void fail(Long jobId, String message) {
+        exportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(ExportJobStatus.FAILED);
+            job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            job.setCompletedAt(now());
+            publish(exportJobRepository.save(job));
+        });
+    }
+
+    private void publish(ExportJob job) {
+        Set<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        ExportJobDTO dto = toDto(job);
+        for (SseEmitter emitter : emitters) {
+            send(emitter, dto);
+            if (!job.getStatus().isActive()) {
+                emitter.complete();
+            }
+        }
+        if (!job.getStatus().isActive()) {
+            subscribers.remove(job.getId());
+        }
+    }
+
+    private void send(SseEmitter emitter, ExportJobDTO dto) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(dto));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, the emitter callbacks drop it
+            emitter.completeWithError(e);
+        }
+    }
+
+    private ExportJob findOwnJob(Long id) {
+        return exportJobRepository.findById(id)
+                .filter(job -> job.getCreatedBy() != null && job.getCreatedBy().equals(QWContext.get().getUserId()))
+                .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("export.job.notFound", new Object[]{id}, Locale.getDefault())));
+    }
+
+    private ExportJobDTO toDto(ExportJob job) {
+        ExportJobDTO dto = exportJobMapper.toDto(job);
+        Integer current = progress.get(job.getId());
+        if (current != null && job.getStatus().isActive()) {
+            dto.setProgress(current);
+        }
+        if (job.getStatus() == ExportJobStatus.COMPLETED) {
+            dto.setDownloadUrl("/api/v1/exports/" + job.getId() + "/download");
+        }
+        return dto;
+    }
+
+    private Path jobsDirectory() {
+        return Paths.get(exportPath, "jobs");
+    }
+
+    private static void deleteOlderThan(Path directory, String glob, long cutoff) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up exports in {}", directory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export {}", file, e);
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().atZone(ZoneId.of("UTC")).toLocalDateTime();
+    }
+}
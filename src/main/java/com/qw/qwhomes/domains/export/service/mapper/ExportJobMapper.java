@@ -0,0 +1,13 @@
+package com.qw.qwhomes.domains.export.service.mapper;
+
+import com.qw.qwhomes.domains.export.data.entity.ExportJob;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ExportJobMapper {
+
+    @Mapping(target = "downloadUrl", ignore = true)
+    ExportJobDTO toDto(ExportJob entity);
+}
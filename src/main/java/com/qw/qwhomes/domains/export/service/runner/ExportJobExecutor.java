@@ -0,0 +1,86 @@
+package com.qw.qwhomes.domains.export.service.runner;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs export jobs on a small dedicated pool of low priority threads, away from the request threads, so a burst
+ * of exports queues up instead of competing with interactive traffic for CPU. Queued jobs run by priority, then
+ * in submission order.
+ */
+@Component
+public class ExportJobExecutor {
+
+    @Value("${application.exports.threads:2}")
+    private int threads;
+
+    @Value("${application.exports.queue-capacity:100}")
+    private int queueCapacity;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // A priority queue is unbounded, so capacity is enforced in submit
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues the task, lower {@code priority} first.
+     *
+     * @throws RejectedExecutionException when the queue is full or the pool is shutting down
+     */
+    public synchronized void submit(int priority, Runnable task) {
+        if (executor.getQueue().size() >= queueCapacity) {
+            throw new RejectedExecutionException("Export queue is full");
+        }
+        // execute rather than submit: submit would wrap the task in a FutureTask that is not comparable
+        executor.execute(new PrioritizedTask(priority, sequence.incrementAndGet(), task));
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    private record PrioritizedTask(int priority, long sequence, Runnable task) implements Runnable, Comparable<PrioritizedTask> {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
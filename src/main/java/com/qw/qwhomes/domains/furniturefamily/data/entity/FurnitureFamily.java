@@ -18,11 +18,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
 @Entity
 @Table(name = "furniture_family")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "furnitureFamily")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +34,7 @@ public class FurnitureFamily extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "family_id_seq")
-    @SequenceGenerator(name = "family_id_seq", sequenceName = "family_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "family_id_seq", sequenceName = "family_id_seq", allocationSize = 50)
     @Column(name = "family_id")
     private Long familyId;
 
@@ -15,9 +15,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "furniture_subfamily")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "furnitureSubFamily")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,7 +29,7 @@ public class FurnitureSubFamily extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subfamily_id_seq")
-    @SequenceGenerator(name = "subfamily_id_seq", sequenceName = "subfamily_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "subfamily_id_seq", sequenceName = "subfamily_id_seq", allocationSize = 50)
     @Column(name = "subfamily_id")
     private Long subFamilyId;
 
@@ -15,6 +15,9 @@ public interface FurnitureSubFamilyRepository extends JpaRepository<FurnitureSub
     List<FurnitureSubFamily> findByFamilyId(@Param("familyId") Long familyId);
     boolean existsFurnitureSubFamilyByNameIgnoreCase(String name);
 
+    @Query("select lower(fsf.name) from FurnitureSubFamily fsf where lower(fsf.name) in :names")
+    List<String> findExistingNames(@Param("names") List<String> lowerCaseNames);
+
     @Query("select count(fsf) from FurnitureSubFamily fsf")
     Long getFurnitureSubFamiliesMetaData();
 }
@@ -17,9 +17,11 @@ import com.qw.qwhomes.domains.furniturefamily.service.dto.FurnitureSubFamilyResp
 import com.qw.qwhomes.domains.furniturefamily.service.mapper.FurnitureFamilyMapper;
 import com.qw.qwhomes.domains.furniturefamily.service.mapper.FurnitureSubFamilyMapper;
 import com.qw.qwhomes.domains.furniturefamily.service.FurnitureFamilyService;
+import com.qw.qwhomes.domains.product.service.event.FacetLabelsChangedEvent;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -31,6 +33,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,6 +46,7 @@ public class FurnitureFamilyServiceImpl implements FurnitureFamilyService {
     private final FurnitureFamilyMapper furnitureFamilyMapper;
     private final FurnitureSubFamilyMapper furnitureSubFamilyMapper;
     private final MessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -136,6 +140,7 @@ public class FurnitureFamilyServiceImpl implements FurnitureFamilyService {
         }
         furnitureFamily.setUpdatedBy(QWContext.get().getUserId());
         FurnitureFamily updatedFurnitureFamily = furnitureFamilyRepository.save(furnitureFamily);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
         return furnitureFamilyMapper.toResponseDTO(updatedFurnitureFamily);
     }
 
@@ -145,6 +150,7 @@ public class FurnitureFamilyServiceImpl implements FurnitureFamilyService {
         var furnitureFamily = furnitureFamilyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("furnitureFamily.not.found", new Object[]{id}, LocaleContextHolder.getLocale())));
         furnitureFamilyRepository.delete(furnitureFamily);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
     }
 
     @Override
@@ -154,8 +160,10 @@ public class FurnitureFamilyServiceImpl implements FurnitureFamilyService {
                 .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("furnitureFamily.not.found", new Object[]{familyId}, LocaleContextHolder.getLocale())));
 
         StringBuilder duplicateSubFamilies = new StringBuilder();
+        Set<String> existingNames = new HashSet<>(furnitureSubFamilyRepository.findExistingNames(
+                furnitureSubFamilyDTO.stream().map(subFamilyDTO -> subFamilyDTO.getName().toLowerCase()).toList()));
         for (FurnitureSubFamilyDTO subFamilyDTO : furnitureSubFamilyDTO) {
-            var subFamilyExists = furnitureSubFamilyRepository.existsFurnitureSubFamilyByNameIgnoreCase(subFamilyDTO.getName());
+            var subFamilyExists = existingNames.contains(subFamilyDTO.getName().toLowerCase());
             if (subFamilyExists) {
                 duplicateSubFamilies.append(subFamilyDTO.getName()).append(", ");
             }
@@ -181,6 +189,7 @@ public class FurnitureFamilyServiceImpl implements FurnitureFamilyService {
         furnitureSubFamilyMapper.updateEntityFromDto(furnitureSubFamilyDTO, subFamily);
         subFamily.setUpdatedBy(QWContext.get().getUserId());
         var savedSubFamily = furnitureSubFamilyRepository.save(subFamily);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
         return furnitureSubFamilyMapper.toDto(savedSubFamily);
     }
 
@@ -188,6 +197,7 @@ public class FurnitureFamilyServiceImpl implements FurnitureFamilyService {
     @Transactional
     public void deleteFurnitureSubFamily(Long subFamilyId) {
         furnitureSubFamilyRepository.deleteById(subFamilyId);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.qw.qwhomes.domains.material.controller;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.domains.material.service.dto.MaterialDTO;
 import com.qw.qwhomes.domains.material.service.MaterialService;
 import com.qw.qwhomes.domains.material.service.dto.MaterialDashboardDTO;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -53,6 +56,14 @@ public class MaterialController {
         return ResponseEntity.ok(materials);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get materials by cursor",
+            description = "Pass an empty cursor for the first page, then the nextCursor of the previous page")
+    public ResponseEntity<CursorResponse<MaterialDTO>> getAllMaterialsByCursor(Pageable pageable, @RequestParam String cursor) {
+        return ResponseEntity.ok(materialService.getAllMaterials(new CursorRequest(cursor, pageable)));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Update a material")
@@ -12,9 +12,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "material")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "material")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,7 +26,7 @@ public class Material extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "material_seq")
-    @SequenceGenerator(name = "material_seq", sequenceName = "material_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "material_seq", sequenceName = "material_id_seq", allocationSize = 50)
     @Column(name = "material_id")
     private Long materialId;
 
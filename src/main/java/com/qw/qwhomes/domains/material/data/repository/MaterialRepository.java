@@ -2,13 +2,18 @@ package com.qw.qwhomes.domains.material.data.repository;
 
 import com.qw.qwhomes.domains.material.data.entity.Material;
 import com.qw.qwhomes.domains.material.service.dto.MaterialDashboardDTO;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface MaterialRepository extends JpaRepository<Material, Long>, JpaSpecificationExecutor<Material> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByNameIgnoreCase(String name);
 
     @Query("SELECT new com.qw.qwhomes.domains.material.service.dto.MaterialDashboardDTO(COUNT(m)) FROM Material m")
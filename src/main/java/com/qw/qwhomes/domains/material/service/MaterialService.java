@@ -1,5 +1,7 @@
 package com.qw.qwhomes.domains.material.service;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.domains.material.service.dto.MaterialDTO;
 import com.qw.qwhomes.domains.material.service.dto.MaterialDashboardDTO;
 import org.springframework.data.domain.Page;
@@ -12,6 +14,7 @@ public interface MaterialService {
     MaterialDTO getMaterialById(Long id);
 
     Page<MaterialDTO> getAllMaterials(Pageable pageable);
+    CursorResponse<MaterialDTO> getAllMaterials(CursorRequest cursorRequest);
 
     MaterialDTO updateMaterial(Long id, MaterialDTO updateDTO);
 
@@ -1,7 +1,10 @@
 package com.qw.qwhomes.domains.material.service.impl;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.exceptions.ResourceDuplicateException;
 import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.common.pagination.KeysetPaginator;
 import com.qw.qwhomes.config.QWContext;
 import com.qw.qwhomes.domains.material.data.entity.Material;
 import com.qw.qwhomes.domains.material.data.repository.MaterialRepository;
@@ -9,7 +12,9 @@ import com.qw.qwhomes.domains.material.service.dto.MaterialDTO;
 import com.qw.qwhomes.domains.material.service.MaterialService;
 import com.qw.qwhomes.domains.material.service.dto.MaterialDashboardDTO;
 import com.qw.qwhomes.domains.material.service.mapper.MaterialMapper;
+import com.qw.qwhomes.domains.product.service.event.FacetLabelsChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +30,8 @@ public class MaterialServiceImpl implements MaterialService {
     private final MaterialRepository materialRepository;
     private final MaterialMapper materialMapper;
     private final MessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaginator keysetPaginator;
 
     @Override
     @Transactional
@@ -54,6 +61,12 @@ public class MaterialServiceImpl implements MaterialService {
                 .map(materialMapper::toResponseDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<MaterialDTO> getAllMaterials(CursorRequest cursorRequest) {
+        return keysetPaginator.page(Material.class, null, cursorRequest, materialMapper::toResponseDTO);
+    }
+
     @Override
     @Transactional
     public MaterialDTO updateMaterial(Long id, MaterialDTO updateDTO) {
@@ -62,6 +75,7 @@ public class MaterialServiceImpl implements MaterialService {
         materialMapper.updateEntityFromDTO(updateDTO, material);
         material.setUpdatedBy(QWContext.get().getUserId());
         Material updatedMaterial = materialRepository.save(material);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
         return materialMapper.toResponseDTO(updatedMaterial);
     }
 
@@ -72,6 +86,7 @@ public class MaterialServiceImpl implements MaterialService {
             throw new ResourceNotFoundException(messageSource.getMessage("material.not.found", new Object[]{id}, Locale.getDefault()));
         }
         materialRepository.deleteById(id);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
     }
 
     @Transactional(readOnly = true)
@@ -1,13 +1,22 @@
 package com.qw.qwhomes.domains.product.controller;
 
-import com.qw.qwhomes.domains.colour.data.entity.Colour;
-import com.qw.qwhomes.domains.material.data.entity.Material;
-import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
+import com.qw.qwhomes.common.service.ExportFormat;
+import com.qw.qwhomes.common.service.impl.StreamingExportService;
+import com.qw.qwhomes.common.web.CachedResourceSupport;
+import com.qw.qwhomes.common.web.StreamingExportSupport;
 import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductImportService;
 import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.ProductBatchUpdateRequestDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductDashboardDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import com.qw.qwhomes.domains.product.service.dto.ProductImageResource;
+import com.qw.qwhomes.domains.product.service.dto.ProductImportReportDTO;
+import com.qw.qwhomes.domains.product.service.export.ProductTableExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,8 +25,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,18 +40,15 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-import com.qw.qwhomes.common.service.impl.ExcelExportService;
-import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.http.HttpHeaders;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.util.stream.Collectors;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 @RestController
@@ -50,15 +58,11 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
-    private final ExcelExportService excelExportService;
-    private final ProductRepository productRepository;
-
-    private static final String[] PRODUCT_HEADERS = {
-            "ID", "Name", "SKU", "Price", "Discount", "Status", "Height", "Length", "Width",
-            "Supplier", "Family", "Sub Family", "Colours", "Materials",
-    };
-
-
+    private final ProductImportService productImportService;
+    private final StreamingExportService streamingExportService;
+    private final StreamingExportSupport streamingExportSupport;
+    private final ProductTableExport productTableExport;
+    private final CachedResourceSupport cachedResourceSupport;
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -70,6 +74,13 @@ public class ProductController {
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Create or update products in bulk from a CSV or XLSX file, matched by SKU")
+    public ResponseEntity<ProductImportReportDTO> importProducts(@RequestPart("file") MultipartFile file) {
+        return ResponseEntity.ok(productImportService.importProducts(file));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/{id}")
     @Operation(summary = "Get a product by ID")
@@ -96,6 +107,25 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get products by cursor with search",
+            description = "Pass an empty cursor for the first page, then the nextCursor of the previous page")
+    public ResponseEntity<CursorResponse<ProductDTO>> getAllProductsByCursor(
+            Pageable pageable,
+            @RequestParam(required = false) String search, @ModelAttribute ProductFilterDto productFilterDto,
+            @RequestParam String cursor) {
+        return ResponseEntity.ok(productService.getAllProducts(new CursorRequest(cursor, pageable), search, productFilterDto));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/facets")
+    @Operation(summary = "Get product counts per family, subfamily, supplier, colour, material and price range")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(
+            @RequestParam(required = false) String search, @ModelAttribute ProductFilterDto productFilterDto) {
+        return ResponseEntity.ok(productService.getProductFacets(search, productFilterDto));
+    }
+
 
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Update a product",
@@ -113,6 +143,17 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    @PutMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Update products in bulk",
+            description = "Update up to 500 products in one transaction, images are left unchanged")
+    @ApiResponse(responseCode = "200", description = "Products updated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid input or a product listed twice")
+    @ApiResponse(responseCode = "404", description = "Product or referenced entity not found")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<ProductDTO>> updateProducts(@Valid @RequestBody ProductBatchUpdateRequestDTO request) {
+        return ResponseEntity.ok(productService.updateProducts(request.getProducts()));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete a product")
@@ -136,6 +177,21 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProductImages(id, images));
     }
 
+    @GetMapping("/{id}/images/{index}")
+    @Operation(summary = "Get a product image",
+            description = "Streams the image file, byte ranges are supported. size is thumb, medium or original. "
+                    + "Requests carrying the image hash as v are cacheable forever")
+    @ApiResponse(responseCode = "304", description = "Image unchanged since the cached copy")
+    @ApiResponse(responseCode = "404", description = "Product or image not found")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<Resource> getProductImage(@PathVariable Long id, @PathVariable int index,
+                                                    @RequestParam(defaultValue = "original") String size,
+                                                    @RequestParam(required = false) String v) {
+        ProductImageResource image = productService.getProductImage(id, index, size);
+        return cachedResourceSupport.contentAddressed(image.getResource(), image.getVersion(),
+                image.isStable() && image.getHash().equals(v));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @PatchMapping("/{id}")
     @Operation(summary = "Update product status",
@@ -145,6 +201,16 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/fit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get active products that fit a niche",
+            description = "Products fit in any orientation, allowing up to tolerance overhang per dimension. Closest fits come first.")
+    public ResponseEntity<List<ProductDTO>> getProductsThatFit(
+            @RequestParam double height, @RequestParam double width, @RequestParam double length,
+            @RequestParam(defaultValue = "0") double tolerance, @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productService.getProductsThatFit(height, width, length, tolerance, limit));
+    }
+
     @GetMapping("/metadata")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Get Products Metadata")
@@ -159,49 +225,21 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProductsByFamilyAndSubFamily(familyId, subFamilyId));
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/export")
+    @Operation(summary = "Export products as excel, csv or ndjson, streamed while they are read")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(value = "format", defaultValue = "excel") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = streamingExportSupport.formatOf(format);
+        return streamingExportSupport.attachment(exportFormat, productTableExport.getName(), acceptEncoding,
+                out -> streamingExportService.write(exportFormat, productTableExport, out));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/export/excel")
     @Operation(summary = "Export products to Excel")
-    public ResponseEntity<InputStreamResource> exportToExcel() throws IOException {
-        List<Product> products = productRepository.findAll();
-
-        ByteArrayInputStream in = excelExportService.exportToExcel(
-                products,
-                PRODUCT_HEADERS,
-                "Products",
-                product -> new Object[]{
-                        product.getProductId(),
-                        product.getName(),
-                        product.getSku(),
-                        product.getPrice(),
-                        product.getDiscount() != null ? product.getDiscount() : 0,
-                        product.getStatus() != null ? product.getStatus().name() : "N/A",
-                        product.getHeight(),
-                        product.getLength(),
-                        product.getWidth(),
-                        product.getSupplier() != null ? product.getSupplier().getName() : "N/A",
-                        product.getFamily() != null ? product.getFamily().getName() : "N/A",
-                        product.getSubFamily() != null ? product.getSubFamily().getName() : "N/A",
-                        product.getColours() != null && !product.getColours().isEmpty()
-                                ? product.getColours().stream()
-                                .map(Colour::getName)
-                                .collect(Collectors.joining(", "))
-                                : "N/A",
-                        product.getMaterials() != null && !product.getMaterials().isEmpty()
-                                ? product.getMaterials().stream()
-                                .map(Material::getName)
-                                .collect(Collectors.joining(", "))
-                                : "N/A",
-                }
-        );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Content-Disposition", "attachment; filename=products.xlsx");
-
-        return ResponseEntity
-                .ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new InputStreamResource(in));
+    public ResponseEntity<StreamingResponseBody> exportToExcel() {
+        return exportProducts(ExportFormat.EXCEL.getValue(), null);
     }
 }
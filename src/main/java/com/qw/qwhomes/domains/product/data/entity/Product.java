@@ -6,6 +6,7 @@ import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
 import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
 import com.qw.qwhomes.domains.material.data.entity.Material;
 import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -18,26 +19,43 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "product")
+// List views map the family, subfamily and supplier names of every row
+@NamedEntityGraph(name = Product.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("family"),
+        @NamedAttributeNode("subFamily"),
+        @NamedAttributeNode("supplier")
+})
+// Proxies reached through proposal lines are initialised in batches
+@BatchSize(size = 50)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product extends BaseEntity {
 
+    public static final String LIST_GRAPH = "Product.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id_seq")
-    @SequenceGenerator(name = "product_id_seq", sequenceName = "product_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "product_id_seq", sequenceName = "product_id_seq", allocationSize = 50)
     @Column(name = "product_id")
     private Long productId;
 
@@ -69,24 +87,33 @@ public class Product extends BaseEntity {
     @Column(name = "description")
     private String description;
 
+    // Comma-joined upload paths from before the image table, emptied by LegacyProductImageMigration
     @Column(name = "images")
-    private String images;
+    private String legacyImages;
+
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position")
+    @BatchSize(size = 50)
+    private List<ProductImage> images = new ArrayList<>();
 
+    // Sets rather than bags, so Hibernate writes only the join rows that changed instead of rewriting them all
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "product_colour",
             joinColumns = @JoinColumn(name = "product_id"),
             inverseJoinColumns = @JoinColumn(name = "colour_id")
     )
-    private List<Colour> colours;
+    private Set<Colour> colours;
 
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "product_material",
             joinColumns = @JoinColumn(name = "product_id"),
             inverseJoinColumns = @JoinColumn(name = "material_id")
     )
-    private List<Material> materials;
+    private Set<Material> materials;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supplier_id")
@@ -0,0 +1,70 @@
+package com.qw.qwhomes.domains.product.data.entity;
+
+import com.qw.qwhomes.common.entity.BaseEntity;
+import com.qw.qwhomes.common.service.StoredImage;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "product_image")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImage extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_image_id_seq")
+    @SequenceGenerator(name = "product_image_id_seq", sequenceName = "product_image_id_seq", allocationSize = 50)
+    @Column(name = "image_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(name = "sort_order", nullable = false)
+    private Integer position;
+
+    // SHA-256 of the content, also names the blob in the image store
+    @Column(name = "hash", nullable = false, length = 64)
+    private String hash;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long size;
+
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    @Column(name = "mime_type", nullable = false)
+    private String mimeType;
+
+    public static ProductImage of(Product product, int position, StoredImage storedImage) {
+        return ProductImage.builder()
+                .product(product)
+                .position(position)
+                .hash(storedImage.hash())
+                .size(storedImage.size())
+                .width(storedImage.width())
+                .height(storedImage.height())
+                .mimeType(storedImage.mimeType())
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.qw.qwhomes.domains.product.data.repository;
+
+public interface ProductCatalogProjection {
+    Long getProductId();
+    String getName();
+    String getSku();
+    Double getPrice();
+    Long getDiscount();
+    Double getHeight();
+    Double getWidth();
+    Double getLength();
+    Long getFamilyId();
+    Long getSubFamilyId();
+    Long getSupplierId();
+}
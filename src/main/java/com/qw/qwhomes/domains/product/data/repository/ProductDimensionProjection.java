@@ -0,0 +1,8 @@
+package com.qw.qwhomes.domains.product.data.repository;
+
+public interface ProductDimensionProjection {
+    Long getProductId();
+    Double getHeight();
+    Double getWidth();
+    Double getLength();
+}
@@ -0,0 +1,214 @@
+package com.qw.qwhomes.domains.product.data.repository;
+
+import com.qw.qwhomes.common.search.SearchDialect;
+import com.qw.qwhomes.common.search.SearchTarget;
+import com.qw.qwhomes.config.DatabasePlatform;
+import com.qw.qwhomes.domains.product.service.dto.FacetCountDTO;
+import com.qw.qwhomes.domains.product.service.dto.PriceRangeFacetDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductFacetRepository {
+
+    // Upper bounds of the price buckets, the last bucket is open ended
+    public static final double[] PRICE_BUCKET_BOUNDS = {500, 1000, 2500, 5000, 10000};
+
+    // One row per matching product. A single CTE reading a derived table, H2 returns no rows for a CTE reading
+    // another CTE once the query has bind parameters
+    private static final String FACET_ROWS_SQL = """
+            WITH facet_rows AS (
+                SELECT f.product_id, f.price_bucket,
+                       f.family_id, fam.name AS family_name,
+                       f.subfamily_id, sub.name AS subfamily_name,
+                       f.supplier_id, sup.name AS supplier_name
+                FROM (
+                    SELECT p.product_id, p.family_id, p.subfamily_id, p.supplier_id, %s AS price_bucket
+                    FROM product p
+                    WHERE 1 = 1 %s
+                ) f
+                LEFT JOIN furniture_family fam ON fam.family_id = f.family_id
+                LEFT JOIN furniture_subfamily sub ON sub.subfamily_id = f.subfamily_id
+                LEFT JOIN supplier sup ON sup.supplier_id = f.supplier_id
+            )
+            """;
+
+    private static final String GROUPING_SETS_SQL = """
+            SELECT CASE WHEN GROUPING(family_id) = 0 THEN 'family'
+                        WHEN GROUPING(subfamily_id) = 0 THEN 'subFamily'
+                        WHEN GROUPING(supplier_id) = 0 THEN 'supplier'
+                        ELSE 'price' END AS facet,
+                   COALESCE(family_id, subfamily_id, supplier_id, price_bucket) AS value_id,
+                   COALESCE(family_name, subfamily_name, supplier_name) AS value_name,
+                   COUNT(*) AS product_count
+            FROM facet_rows
+            GROUP BY GROUPING SETS ((family_id, family_name), (subfamily_id, subfamily_name), (supplier_id, supplier_name),
+                                    (price_bucket))
+            """;
+
+    // H2 has no GROUPING SETS, the same counts as one UNION ALL statement
+    private static final String UNION_SQL = """
+            SELECT 'family' AS facet, family_id AS value_id, family_name AS value_name, COUNT(*) AS product_count
+            FROM facet_rows GROUP BY family_id, family_name
+            UNION ALL
+            SELECT 'subFamily', subfamily_id, subfamily_name, COUNT(*) FROM facet_rows GROUP BY subfamily_id, subfamily_name
+            UNION ALL
+            SELECT 'supplier', supplier_id, supplier_name, COUNT(*) FROM facet_rows GROUP BY supplier_id, supplier_name
+            UNION ALL
+            SELECT 'price', CAST(price_bucket AS BIGINT), CAST(NULL AS VARCHAR(255)), COUNT(*) FROM facet_rows GROUP BY price_bucket
+            """;
+
+    // Each link table is joined on its own, so colours and materials never multiply each other's rows. A link row
+    // is unique per product and colour or material, so counting rows counts products
+    private static final String LINK_COUNTS_SQL = """
+            UNION ALL
+            SELECT 'colour', pc.colour_id, col.name, COUNT(*)
+            FROM facet_rows fr JOIN product_colour pc ON pc.product_id = fr.product_id JOIN colour col ON col.colour_id = pc.colour_id
+            GROUP BY pc.colour_id, col.name
+            UNION ALL
+            SELECT 'material', pm.material_id, mat.name, COUNT(*)
+            FROM facet_rows fr JOIN product_material pm ON pm.product_id = fr.product_id JOIN material mat ON mat.material_id = pm.material_id
+            GROUP BY pm.material_id, mat.name
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SearchDialect searchDialect;
+    private final DatabasePlatform databasePlatform;
+
+    public ProductFacetsDTO countFacets(String search, List<Long> searchProductIds, ProductFilterDto filter) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = String.format(FACET_ROWS_SQL, priceBucketExpression(), whereClause(search, searchProductIds, filter, parameters))
+                + (databasePlatform == DatabasePlatform.POSTGRESQL ? GROUPING_SETS_SQL : UNION_SQL) + LINK_COUNTS_SQL;
+
+        ProductFacetsDTO facets = new ProductFacetsDTO();
+        jdbcTemplate.query(sql, parameters, rs -> {
+            long valueId = rs.getLong("value_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            String facet = rs.getString("facet");
+            long count = rs.getLong("product_count");
+            FacetCountDTO facetCount = new FacetCountDTO(valueId, rs.getString("value_name"), count);
+            switch (facet) {
+                case "family" -> facets.getFamilies().add(facetCount);
+                case "subFamily" -> facets.getSubFamilies().add(facetCount);
+                case "supplier" -> facets.getSuppliers().add(facetCount);
+                case "colour" -> facets.getColours().add(facetCount);
+                case "material" -> facets.getMaterials().add(facetCount);
+                default -> facets.getPriceRanges().add(toPriceRange((int) valueId, count));
+            }
+        });
+        facets.getPriceRanges().sort((a, b) -> Double.compare(a.getMin(), b.getMin()));
+        return facets;
+    }
+
+    // Mirrors the product list specification in ProductServiceImpl, any filter change belongs in both.
+    // ProductFacetListConsistencyIntegrationTests runs every filter through both and compares the counts
+    private String whereClause(String search, List<Long> searchProductIds, ProductFilterDto filter, MapSqlParameterSource parameters) {
+        StringBuilder where = new StringBuilder();
+        if (searchProductIds != null) {
+            where.append(" AND p.product_id IN (:searchProductIds)");
+            parameters.addValue("searchProductIds", searchProductIds);
+        } else if (StringUtils.isNotEmpty(search)) {
+            // Matched like the product list, so the counts describe the same rows
+            where.append(" AND ").append(searchDialect.matchesSql(SearchTarget.PRODUCT, "p", search, parameters));
+        }
+        if (CollectionUtils.isNotEmpty(filter.getFamilyIds())) {
+            where.append(" AND p.family_id IN (:familyIds)");
+            parameters.addValue("familyIds", filter.getFamilyIds());
+        } else if (StringUtils.isNotEmpty(filter.getFamilyFilter())) {
+            where.append(" AND EXISTS (SELECT 1 FROM furniture_family ff WHERE ff.family_id = p.family_id AND ff.name LIKE :familyFilter)");
+            parameters.addValue("familyFilter", "%" + filter.getFamilyFilter() + "%");
+        }
+        if (CollectionUtils.isNotEmpty(filter.getSubFamilyIds())) {
+            where.append(" AND p.subfamily_id IN (:subFamilyIds)");
+            parameters.addValue("subFamilyIds", filter.getSubFamilyIds());
+        } else if (StringUtils.isNotEmpty(filter.getSubFamilyFilter())) {
+            where.append(" AND EXISTS (SELECT 1 FROM furniture_subfamily fs WHERE fs.subfamily_id = p.subfamily_id AND fs.name LIKE :subFamilyFilter)");
+            parameters.addValue("subFamilyFilter", "%" + filter.getSubFamilyFilter() + "%");
+        }
+        if (filter.getPriceMin() != null) {
+            where.append(" AND p.price >= :priceMin");
+            parameters.addValue("priceMin", filter.getPriceMin());
+        }
+        if (filter.getPriceMax() != null) {
+            where.append(" AND p.price <= :priceMax");
+            parameters.addValue("priceMax", filter.getPriceMax());
+        }
+        if (CollectionUtils.isNotEmpty(filter.getMaterialIds())) {
+            appendRelatedIds(where, parameters, "product_material", "material_id", filter.getMaterialIds(), filter.getMaterialMatch());
+        } else if (StringUtils.isNotEmpty(filter.getMaterialFilter())) {
+            where.append(" AND EXISTS (SELECT 1 FROM product_material fpm JOIN material fm ON fm.material_id = fpm.material_id"
+                    + " WHERE fpm.product_id = p.product_id AND fm.name LIKE :materialFilter)");
+            parameters.addValue("materialFilter", "%" + filter.getMaterialFilter() + "%");
+        }
+        if (CollectionUtils.isNotEmpty(filter.getColourIds())) {
+            appendRelatedIds(where, parameters, "product_colour", "colour_id", filter.getColourIds(), filter.getColourMatch());
+        } else if (StringUtils.isNotEmpty(filter.getColourFilter())) {
+            where.append(" AND EXISTS (SELECT 1 FROM product_colour fpc JOIN colour fc ON fc.colour_id = fpc.colour_id"
+                    + " WHERE fpc.product_id = p.product_id AND fc.name LIKE :colourFilter)");
+            parameters.addValue("colourFilter", "%" + filter.getColourFilter() + "%");
+        }
+        if (filter.getDimensionHeight() != null) {
+            where.append(" AND p.height >= :dimensionHeight");
+            parameters.addValue("dimensionHeight", filter.getDimensionHeight());
+        }
+        if (filter.getDimensionWidth() != null) {
+            where.append(" AND p.width >= :dimensionWidth");
+            parameters.addValue("dimensionWidth", filter.getDimensionWidth());
+        }
+        if (filter.getDimensionLength() != null) {
+            where.append(" AND p.length <= :dimensionLength");
+            parameters.addValue("dimensionLength", filter.getDimensionLength());
+        }
+        if (CollectionUtils.isNotEmpty(filter.getSupplierIds())) {
+            where.append(" AND p.supplier_id IN (:supplierIds)");
+            parameters.addValue("supplierIds", filter.getSupplierIds());
+        } else if (StringUtils.isNotEmpty(filter.getSupplierFilter())) {
+            where.append(" AND EXISTS (SELECT 1 FROM supplier fsp WHERE fsp.supplier_id = p.supplier_id AND fsp.name LIKE :supplierFilter)");
+            parameters.addValue("supplierFilter", "%" + filter.getSupplierFilter() + "%");
+        }
+        return where.toString();
+    }
+
+    // Same ANY/ALL semantics as the product list specification
+    private static void appendRelatedIds(StringBuilder where, MapSqlParameterSource parameters, String joinTable, String idColumn,
+                                         List<Long> ids, ProductFilterDto.Match match) {
+        String exists = " AND EXISTS (SELECT 1 FROM " + joinTable + " r WHERE r.product_id = p.product_id AND r." + idColumn;
+        if (match != ProductFilterDto.Match.ALL) {
+            where.append(exists).append(" IN (:").append(idColumn).append("s))");
+            parameters.addValue(idColumn + "s", ids);
+            return;
+        }
+        int i = 0;
+        for (Long id : ids.stream().distinct().toList()) {
+            String parameter = idColumn + i++;
+            where.append(exists).append(" = :").append(parameter).append(")");
+            parameters.addValue(parameter, id);
+        }
+    }
+
+    // Products without a price fall in no bucket, the null bucket is skipped like any other null facet value
+    private static String priceBucketExpression() {
+        StringBuilder expression = new StringBuilder("CASE WHEN p.price IS NULL THEN NULL");
+        for (int i = 0; i < PRICE_BUCKET_BOUNDS.length; i++) {
+            expression.append(" WHEN p.price < ").append(PRICE_BUCKET_BOUNDS[i]).append(" THEN ").append(i);
+        }
+        return expression.append(" ELSE ").append(PRICE_BUCKET_BOUNDS.length).append(" END").toString();
+    }
+
+    private static PriceRangeFacetDTO toPriceRange(int bucket, long count) {
+        Double min = bucket == 0 ? 0.0 : PRICE_BUCKET_BOUNDS[bucket - 1];
+        Double max = bucket < PRICE_BUCKET_BOUNDS.length ? PRICE_BUCKET_BOUNDS[bucket] : null;
+        return new PriceRangeFacetDTO(min, max, count);
+    }
+}
@@ -0,0 +1,17 @@
+package com.qw.qwhomes.domains.product.data.repository;
+
+import com.qw.qwhomes.domains.product.data.entity.ProductImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
+
+    // A blob is referenced as long as any product image row carries its hash
+    @Query("SELECT DISTINCT i.hash FROM ProductImage i WHERE i.hash IN :hashes")
+    List<String> findReferencedHashes(Collection<String> hashes);
+}
@@ -0,0 +1,30 @@
+package com.qw.qwhomes.domains.product.data.repository;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * An import row with every reference resolved to an id, ready to be written.
+ */
+@Data
+@Builder
+public class ProductImportRecord {
+    private int rowNumber;
+    private Long productId;
+    private String sku;
+    private String name;
+    private Long familyId;
+    private Long subFamilyId;
+    private Long supplierId;
+    private Double price;
+    private Long discount;
+    private Double height;
+    private Double length;
+    private Double width;
+    private String status;
+    private String description;
+    private List<Long> colourIds;
+    private List<Long> materialIds;
+}
@@ -0,0 +1,146 @@
+package com.qw.qwhomes.domains.product.data.repository;
+
+import com.qw.qwhomes.config.DatabasePlatform;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Plain JDBC batches for the bulk import, one round trip per statement kind and batch instead of one per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+
+    // Increment of product_id_seq, see Product's allocationSize
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_PRODUCT_SQL = """
+            INSERT INTO product (name, family_id, subfamily_id, supplier_id, height, length, width, price, discount, status,
+                                 description, sku, created_at, created_by, updated_at, updated_by, product_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_PRODUCT_SQL = """
+            UPDATE product SET name = ?, family_id = ?, subfamily_id = ?, supplier_id = ?, height = ?, length = ?, width = ?,
+                               price = ?, discount = ?, status = ?, description = ?, sku = ?, updated_at = ?, updated_by = ?
+            WHERE product_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public Map<String, Long> findProductIdsBySku() {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT sku, product_id FROM product", rs -> {
+            ids.put(rs.getString(1), rs.getLong(2));
+        });
+        return ids;
+    }
+
+    // Names are matched case-insensitively, the first row wins if two only differ in case
+    public Map<String, Long> findIdsByName(String table, String idColumn) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT " + idColumn + ", name FROM " + table + " ORDER BY " + idColumn, rs -> {
+            ids.putIfAbsent(rs.getString(2).trim().toLowerCase(), rs.getLong(1));
+        });
+        return ids;
+    }
+
+    // Keyed by "familyId/name" since subfamily names repeat across families
+    public Map<String, Long> findSubFamilyIdsByFamilyAndName() {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT subfamily_id, family_id, name FROM furniture_subfamily ORDER BY subfamily_id", rs -> {
+            ids.putIfAbsent(rs.getLong(2) + "/" + rs.getString(3).trim().toLowerCase(), rs.getLong(1));
+        });
+        return ids;
+    }
+
+    // Each nextval reserves a block of ID_BLOCK_SIZE ids starting at the returned value, as the pooled-lo entities do
+    public List<Long> nextProductIds(int count) {
+        String sql = databasePlatform == DatabasePlatform.POSTGRESQL
+                ? "SELECT nextval('product_id_seq') FROM generate_series(1, ?)"
+                : "SELECT NEXT VALUE FOR product_id_seq FROM SYSTEM_RANGE(1, ?)";
+        List<Long> blocks = jdbcTemplate.queryForList(sql, Long.class, (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long block : blocks) {
+            for (int i = 0; i < ID_BLOCK_SIZE && ids.size() < count; i++) {
+                ids.add(block + i);
+            }
+        }
+        return ids;
+    }
+
+    public void insert(List<ProductImportRecord> products, Long userId) {
+        write(INSERT_PRODUCT_SQL, products, userId, true);
+    }
+
+    public void update(List<ProductImportRecord> products, Long userId) {
+        write(UPDATE_PRODUCT_SQL, products, userId, false);
+    }
+
+    public void replaceColours(List<ProductImportRecord> products) {
+        replaceLinks("product_colour", "colour_id", products, ProductImportRecord::getColourIds);
+    }
+
+    public void replaceMaterials(List<ProductImportRecord> products) {
+        replaceLinks("product_material", "material_id", products, ProductImportRecord::getMaterialIds);
+    }
+
+    // Both statements list the columns in the same order so one setter serves both, insert adds the audit columns
+    private void write(String sql, List<ProductImportRecord> products, Long userId, boolean insert) {
+        if (products.isEmpty()) {
+            return;
+        }
+        // Same clock as BaseEntity's audit callbacks, so imported and edited rows compare correctly
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(sql, products, products.size(), (ps, product) -> {
+            int i = 1;
+            ps.setString(i++, product.getName());
+            ps.setObject(i++, product.getFamilyId(), Types.BIGINT);
+            ps.setObject(i++, product.getSubFamilyId(), Types.BIGINT);
+            ps.setObject(i++, product.getSupplierId(), Types.BIGINT);
+            ps.setObject(i++, product.getHeight(), Types.DOUBLE);
+            ps.setObject(i++, product.getLength(), Types.DOUBLE);
+            ps.setObject(i++, product.getWidth(), Types.DOUBLE);
+            ps.setDouble(i++, product.getPrice());
+            ps.setObject(i++, product.getDiscount(), Types.BIGINT);
+            ps.setString(i++, product.getStatus());
+            ps.setString(i++, product.getDescription());
+            ps.setString(i++, product.getSku());
+            if (insert) {
+                ps.setTimestamp(i++, now);
+                ps.setObject(i++, userId, Types.BIGINT);
+            }
+            ps.setTimestamp(i++, now);
+            ps.setObject(i++, userId, Types.BIGINT);
+            ps.setLong(i, product.getProductId());
+        });
+    }
+
+    private void replaceLinks(String table, String column, List<ProductImportRecord> products, Function<ProductImportRecord, List<Long>> links) {
+        if (products.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM " + table + " WHERE product_id = ?", products, products.size(),
+                (ps, product) -> ps.setLong(1, product.getProductId()));
+
+        List<long[]> rows = new ArrayList<>();
+        for (ProductImportRecord product : products) {
+            links.apply(product).stream().distinct().forEach(id -> rows.add(new long[]{product.getProductId(), id}));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (product_id, " + column + ") VALUES (?, ?)", rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setLong(2, row[1]);
+        });
+    }
+}
@@ -2,21 +2,59 @@ package com.qw.qwhomes.domains.product.data.repository;
 
 import com.qw.qwhomes.domains.product.data.entity.Product;
 import com.qw.qwhomes.domains.product.service.dto.ProductDashboardDTO;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     Optional<Product> findBySku(String sku);
 
+    @Override
+    @EntityGraph(Product.LIST_GRAPH)
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    // Streamed exports must be consumed inside a transaction, the fetch size keeps the driver from buffering all rows
+    @EntityGraph(Product.LIST_GRAPH)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p ORDER BY p.productId")
+    Stream<Product> streamAllForExport();
+
     @Query("SELECT new com.qw.qwhomes.domains.product.service.dto.ProductDashboardDTO(COUNT(p)) FROM Product p")
     ProductDashboardDTO getProductsMetadata();
 
-    @Query("SELECT p FROM Product p WHERE p.status = com.qw.qwhomes.domains.product.data.entity.ProductStatus.Active and p.family.familyId = :familyId AND p.subFamily.subFamilyId = :subFamilyId")
-    List<Product> getProductsByFamilyIdAndSubFamilyId(Long familyId, Long subFamilyId);
+    @Query("SELECT p.productId as productId, p.name as name, p.sku as sku, p.description as description FROM Product p")
+    List<ProductSearchProjection> findAllForSearchIndex();
+
+    @Query("SELECT p.productId as productId, p.height as height, p.width as width, p.length as length FROM Product p " +
+            "WHERE p.status = com.qw.qwhomes.domains.product.data.entity.ProductStatus.Active " +
+            "AND p.height IS NOT NULL AND p.width IS NOT NULL AND p.length IS NOT NULL")
+    List<ProductDimensionProjection> findAllForDimensionIndex();
+
+    @Query("SELECT p.productId as productId, p.name as name, p.sku as sku, p.price as price, p.discount as discount, " +
+            "p.height as height, p.width as width, p.length as length, p.family.familyId as familyId, " +
+            "p.subFamily.subFamilyId as subFamilyId, p.supplier.id as supplierId FROM Product p " +
+            "WHERE p.status = com.qw.qwhomes.domains.product.data.entity.ProductStatus.Active " +
+            "AND p.family IS NOT NULL AND p.subFamily IS NOT NULL")
+    List<ProductCatalogProjection> findAllForCatalogIndex();
+
+    @Query("SELECT p.productId FROM Product p WHERE p.legacyImages IS NOT NULL")
+    List<Long> findIdsWithLegacyImages();
+
+    @EntityGraph(Product.LIST_GRAPH)
+    List<Product> findByProductIdIn(Collection<Long> productIds);
 }
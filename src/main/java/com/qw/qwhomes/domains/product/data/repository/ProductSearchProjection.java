@@ -0,0 +1,8 @@
+package com.qw.qwhomes.domains.product.data.repository;
+
+public interface ProductSearchProjection {
+    Long getProductId();
+    String getName();
+    String getSku();
+    String getDescription();
+}
@@ -0,0 +1,8 @@
+package com.qw.qwhomes.domains.product.service;
+
+import com.qw.qwhomes.domains.product.service.dto.ProductImportReportDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ProductImportService {
+    ProductImportReportDTO importProducts(MultipartFile file);
+}
@@ -1,9 +1,14 @@
 package com.qw.qwhomes.domains.product.service;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.dto.ProductBatchUpdateDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductDashboardDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import com.qw.qwhomes.domains.product.service.dto.ProductImageResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,12 +18,17 @@ import java.util.List;
 public interface ProductService {
     ProductDTO createProduct(ProductDTO productDTO, List<MultipartFile> images);
     ProductDTO getProductById(Long id);
+    ProductImageResource getProductImage(Long productId, int index, String size);
     ProductDTO getProductBySku(String sku);
     Page<ProductDTO> getAllProducts(Pageable pageable, String search, ProductFilterDto productFilterDto);
+    CursorResponse<ProductDTO> getAllProducts(CursorRequest cursorRequest, String search, ProductFilterDto productFilterDto);
+    ProductFacetsDTO getProductFacets(String search, ProductFilterDto productFilterDto);
     ProductDTO updateProduct(Long id, ProductDTO productDTO, List<MultipartFile> images);
+    List<ProductDTO> updateProducts(List<ProductBatchUpdateDTO> updates);
     void deleteProduct(Long id);
     ProductDTO updateProductImages(Long productId, List<MultipartFile> images);
     void updateProductStatus(Long productId, ProductStatus status);
     ProductDashboardDTO getProductsMetadata();
+    List<ProductDTO> getProductsThatFit(double height, double width, double length, double tolerance, int limit);
     List<ProductDTO> getAllProductsByFamilyAndSubFamily(Long familyId, Long subFamilyId);
 }
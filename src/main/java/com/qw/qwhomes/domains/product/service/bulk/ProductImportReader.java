@@ -0,0 +1,129 @@
+package com.qw.qwhomes.domains.product.service.bulk;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams import files row by row, neither format is ever loaded whole. The first row holds the column headers.
+ */
+@Component
+public class ProductImportReader {
+
+    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setAllowMissingColumnNames(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+    public void readCsv(InputStream content, Consumer<ProductImportRow> rows) throws IOException {
+        try (Reader reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+             CSVParser parser = CSV_FORMAT.parse(reader)) {
+            List<String> headers = parser.getHeaderNames().stream().map(ProductImportRow::normalizeHeader).toList();
+            for (CSVRecord record : parser) {
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < headers.size() && i < record.size(); i++) {
+                    values.put(headers.get(i), record.get(i));
+                }
+                // Line numbers as a spreadsheet shows them, the header is line 1
+                rows.accept(ProductImportRow.of((int) record.getRecordNumber() + 1, values));
+            }
+        }
+    }
+
+    // SAX over the first sheet with read-only shared strings, unlike XSSFWorkbook this never builds the sheet in memory
+    public void readXlsx(File file, Consumer<ProductImportRow> rows) throws IOException {
+        try (OPCPackage xlsx = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(xlsx);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), new ReadOnlySharedStringsTable(xlsx),
+                        new SheetRowHandler(rows), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static final class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<ProductImportRow> rows;
+        private List<String> headers;
+        private final Map<Integer, String> cells = new HashMap<>();
+        private int lastColumn;
+
+        private SheetRowHandler(Consumer<ProductImportRow> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            lastColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headers == null) {
+                headers = new ArrayList<>();
+                for (int i = 0; i <= lastColumn; i++) {
+                    headers.add(ProductImportRow.normalizeHeader(cells.get(i)));
+                }
+                return;
+            }
+            if (cells.values().stream().allMatch(StringUtils::isBlank)) {
+                return;
+            }
+            Map<String, String> values = new HashMap<>();
+            cells.forEach((column, value) -> {
+                if (column < headers.size()) {
+                    values.put(headers.get(column), value.trim());
+                }
+            });
+            rows.accept(ProductImportRow.of(rowNum + 1, values));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // The reference is optional in the file format, cells then follow each other
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : lastColumn + 1;
+            cells.put(column, formattedValue);
+            lastColumn = column;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.qw.qwhomes.domains.product.service.bulk;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * One data row of an import file, values as they appear in the file.
+ */
+@Data
+public class ProductImportRow {
+    private int rowNumber;
+    private String sku;
+    private String name;
+    private String family;
+    private String subFamily;
+    private String supplier;
+    private String price;
+    private String discount;
+    private String height;
+    private String length;
+    private String width;
+    private String status;
+    private String description;
+    private String colours;
+    private String materials;
+
+    // Keys are header names lower-cased with everything but letters and digits removed, so "Sub Family" is "subfamily"
+    static ProductImportRow of(int rowNumber, Map<String, String> values) {
+        ProductImportRow row = new ProductImportRow();
+        row.setRowNumber(rowNumber);
+        row.setSku(values.get("sku"));
+        row.setName(values.get("name"));
+        row.setFamily(values.get("family"));
+        row.setSubFamily(values.get("subfamily"));
+        row.setSupplier(values.get("supplier"));
+        row.setPrice(values.get("price"));
+        row.setDiscount(values.get("discount"));
+        row.setHeight(values.get("height"));
+        row.setLength(values.get("length"));
+        row.setWidth(values.get("width"));
+        row.setStatus(values.get("status"));
+        row.setDescription(values.get("description"));
+        row.setColours(values.getOrDefault("colours", values.get("colors")));
+        row.setMaterials(values.get("materials"));
+        return row;
+    }
+
+    static String normalizeHeader(String header) {
+        return header == null ? "" : header.toLowerCase().replaceAll("[^a-z0-9]", "");
+    }
+}
@@ -0,0 +1,14 @@
+package com.qw.qwhomes.domains.product.service.dto;
+
+// Compact, immutable product summary shared between catalog index readers
+public record CatalogProductDTO(
+        Long productId,
+        String name,
+        String sku,
+        Double price,
+        Long discount,
+        Double height,
+        Double width,
+        Double length,
+        Long supplierId) {
+}
@@ -0,0 +1,16 @@
+package com.qw.qwhomes.domains.product.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ProductBatchUpdateDTO {
+
+    @NotNull(message = "{product.batch.id.notNull}")
+    private Long productId;
+
+    @NotNull(message = "{product.batch.product.notNull}")
+    @Valid
+    private ProductDTO product;
+}
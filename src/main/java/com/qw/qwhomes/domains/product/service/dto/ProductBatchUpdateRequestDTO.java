@@ -0,0 +1,17 @@
+package com.qw.qwhomes.domains.product.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductBatchUpdateRequestDTO {
+
+    @NotEmpty(message = "{product.batch.notEmpty}")
+    @Size(max = 500, message = "{product.batch.size}")
+    @Valid
+    private List<ProductBatchUpdateDTO> products;
+}
@@ -43,7 +43,6 @@ public class ProductDTO {
 
     private ProductStatus status;
     private String description;
-    private String images;
     
     @NotNull(message = "{product.family.notNull}")
     private Long familyId;
@@ -80,7 +79,7 @@ public class ProductDTO {
     private List<MaterialDTO> materials;
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    private List<byte[]> allImages;
+    private List<ProductImageDTO> allImages;
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDateTime createdAt;
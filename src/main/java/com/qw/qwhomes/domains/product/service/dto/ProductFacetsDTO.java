@@ -0,0 +1,16 @@
+package com.qw.qwhomes.domains.product.service.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductFacetsDTO {
+    private List<FacetCountDTO> families = new ArrayList<>();
+    private List<FacetCountDTO> subFamilies = new ArrayList<>();
+    private List<FacetCountDTO> suppliers = new ArrayList<>();
+    private List<FacetCountDTO> colours = new ArrayList<>();
+    private List<FacetCountDTO> materials = new ArrayList<>();
+    private List<PriceRangeFacetDTO> priceRanges = new ArrayList<>();
+}
@@ -2,6 +2,8 @@ package com.qw.qwhomes.domains.product.service.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class ProductFilterDto {
     private String familyFilter;
@@ -14,4 +16,18 @@ public class ProductFilterDto {
     private Double dimensionHeight;
     private Double dimensionLength;
     private Double dimensionWidth;
+
+    // Id filters take precedence over the name filters above
+    private List<Long> familyIds;
+    private List<Long> subFamilyIds;
+    private List<Long> supplierIds;
+    private List<Long> colourIds;
+    private List<Long> materialIds;
+    // Whether a product needs any or all of the requested colours/materials
+    private Match colourMatch = Match.ANY;
+    private Match materialMatch = Match.ANY;
+
+    public enum Match {
+        ANY, ALL
+    }
 }
@@ -0,0 +1,21 @@
+package com.qw.qwhomes.domains.product.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageDTO {
+    private Integer index;
+    private String url;
+    private String thumbnailUrl;
+    private String mediumUrl;
+    private String contentType;
+    private Long size;
+    private Integer width;
+    private Integer height;
+    // Fingerprint of the stored file, changes whenever the image is replaced
+    private String hash;
+}
@@ -0,0 +1,17 @@
+package com.qw.qwhomes.domains.product.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.Resource;
+
+@Getter
+@AllArgsConstructor
+public class ProductImageResource {
+    private final Resource resource;
+    // Content hash of the original image
+    private final String hash;
+    // Validator for the bytes actually served, differs per rendition
+    private final String version;
+    // False while a requested rendition is not rendered yet and the original stands in for it
+    private final boolean stable;
+}
@@ -0,0 +1,18 @@
+package com.qw.qwhomes.domains.product.service.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportReportDTO {
+    private int totalRows;
+    private int created;
+    private int updated;
+    private int failed;
+    private List<ProductImportErrorDTO> errors = new ArrayList<>();
+    // Only the first errors are listed, failed still counts all of them. When the file could not be read to the end
+    // the last error has no row and explains why
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,5 @@
+package com.qw.qwhomes.domains.product.service.event;
+
+// Published when a colour, material, family, sub family or supplier is renamed or removed, facet counts carry their names
+public class FacetLabelsChangedEvent {
+}
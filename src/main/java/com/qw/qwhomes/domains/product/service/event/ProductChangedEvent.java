@@ -0,0 +1,12 @@
+package com.qw.qwhomes.domains.product.service.event;
+
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+    private final Product product;
+    private final boolean deleted;
+}
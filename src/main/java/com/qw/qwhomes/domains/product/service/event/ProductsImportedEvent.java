@@ -0,0 +1,11 @@
+package com.qw.qwhomes.domains.product.service.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Published once after a bulk import, which writes too many products for per-product events
+@Getter
+@RequiredArgsConstructor
+public class ProductsImportedEvent {
+    private final int written;
+}
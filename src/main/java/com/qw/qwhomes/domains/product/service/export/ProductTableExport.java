@@ -0,0 +1,77 @@
+package com.qw.qwhomes.domains.product.service.export;
+
+import com.qw.qwhomes.common.service.TableExport;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class ProductTableExport implements TableExport<Product> {
+
+    private static final String[] PRODUCT_HEADERS = {
+            "ID", "Name", "SKU", "Price", "Discount", "Status", "Height", "Length", "Width",
+            "Supplier", "Family", "Sub Family", "Colours", "Materials",
+    };
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public String getName() {
+        return "products";
+    }
+
+    @Override
+    public String getTitle() {
+        return "Products";
+    }
+
+    @Override
+    public String[] getHeaders() {
+        return PRODUCT_HEADERS;
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return productRepository.streamAllForExport();
+    }
+
+    @Override
+    public long count() {
+        return productRepository.count();
+    }
+
+    @Override
+    public Object[] toRow(Product product) {
+        return new Object[]{
+                product.getProductId(),
+                product.getName(),
+                product.getSku(),
+                product.getPrice(),
+                product.getDiscount() != null ? product.getDiscount() : 0,
+                product.getStatus() != null ? product.getStatus().name() : "N/A",
+                product.getHeight(),
+                product.getLength(),
+                product.getWidth(),
+                product.getSupplier() != null ? product.getSupplier().getName() : "N/A",
+                product.getFamily() != null ? product.getFamily().getName() : "N/A",
+                product.getSubFamily() != null ? product.getSubFamily().getName() : "N/A",
+                product.getColours() != null && !product.getColours().isEmpty()
+                        ? product.getColours().stream()
+                        .map(Colour::getName)
+                        .collect(Collectors.joining(", "))
+                        : "N/A",
+                product.getMaterials() != null && !product.getMaterials().isEmpty()
+                        ? product.getMaterials().stream()
+                        .map(Material::getName)
+                        .collect(Collectors.joining(", "))
+                        : "N/A",
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.qw.qwhomes.domains.product.service.image;
+
+import com.qw.qwhomes.common.service.ImageRenditionService;
+import com.qw.qwhomes.common.service.ImageStore;
+import com.qw.qwhomes.domains.product.data.repository.ProductImageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Removes image blobs no product image row references anymore. The grace period has to outlast the time between
+ * storing an upload and committing its row, a blob stored within it is kept even while nothing references it yet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductImageSweeper {
+
+    private final ImageStore imageStore;
+    private final ImageRenditionService imageRenditionService;
+    private final ProductImageRepository productImageRepository;
+
+    @Value("${application.images.orphan-grace-period:PT1H}")
+    private Duration gracePeriod;
+
+    @Scheduled(fixedDelayString = "${application.images.orphan-sweep-interval:PT1H}")
+    public void sweep() {
+        List<String> deleted = imageStore.sweep(Instant.now().minus(gracePeriod), productImageRepository::findReferencedHashes);
+        deleted.forEach(imageRenditionService::deleteRenditions);
+        if (!deleted.isEmpty()) {
+            log.info("Removed {} unreferenced image blobs", deleted.size());
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.qw.qwhomes.domains.product.service.impl;
+
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.data.repository.ProductImportRecord;
+import com.qw.qwhomes.domains.product.data.repository.ProductImportRepository;
+import com.qw.qwhomes.domains.product.service.ProductImportService;
+import com.qw.qwhomes.domains.product.service.bulk.ProductImportReader;
+import com.qw.qwhomes.domains.product.service.bulk.ProductImportRow;
+import com.qw.qwhomes.domains.product.service.dto.ProductImportErrorDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductImportReportDTO;
+import com.qw.qwhomes.domains.product.service.event.ProductsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String LIST_SEPARATORS = "[|;,]";
+
+    private final ProductImportReader productImportReader;
+    private final ProductImportRepository productImportRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageSource messageSource;
+
+    @Value("${application.products.import.batch-size:500}")
+    private int batchSize;
+
+    // Each batch commits on its own, a failing batch is reported and the import carries on with the next one
+    @Override
+    public ProductImportReportDTO importProducts(MultipartFile file) {
+        String fileName = StringUtils.defaultString(file.getOriginalFilename()).toLowerCase();
+        if (!fileName.endsWith(".csv") && !fileName.endsWith(".xlsx")) {
+            throw new BusinessException(message("product.import.unsupportedFormat"));
+        }
+
+        long start = System.currentTimeMillis();
+        ImportRun run = new ImportRun(QWContext.get().getUserId());
+        String readError = null;
+        try {
+            if (fileName.endsWith(".csv")) {
+                try (InputStream content = file.getInputStream()) {
+                    productImportReader.readCsv(content, run::accept);
+                }
+            } else {
+                // The SAX reader needs random access to the zip entries, so the upload is read from a file
+                Path temp = Files.createTempFile("product-import", ".xlsx");
+                try {
+                    file.transferTo(temp);
+                    productImportReader.readXlsx(temp.toFile(), run::accept);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException | IllegalStateException e) {
+            readError = message("product.import.unreadable", e.getMessage());
+        }
+        run.flush();
+
+        // Batches read before a broken part of the file are already committed, so they are reported and announced
+        // rather than dropped with the exception
+        ProductImportReportDTO report = run.report;
+        int written = report.getCreated() + report.getUpdated();
+        if (readError != null) {
+            if (written == 0) {
+                throw new BusinessException(readError);
+            }
+            log.warn("Import of {} stopped after {} rows: {}", fileName, report.getTotalRows(), readError);
+            report.getErrors().add(new ProductImportErrorDTO(null, null, readError));
+        }
+        if (written > 0) {
+            eventPublisher.publishEvent(new ProductsImportedEvent(written));
+        }
+        log.info("Imported {} rows from {}: {} created, {} updated, {} failed in {} ms", report.getTotalRows(), fileName,
+                report.getCreated(), report.getUpdated(), report.getFailed(), System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * State of one import: the reference data and SKUs are loaded once up front, rows are resolved against them in
+     * memory and written in batches.
+     */
+    private final class ImportRun {
+
+        private final Long userId;
+        private final ProductImportReportDTO report = new ProductImportReportDTO();
+        private final Map<String, Long> productIds = productImportRepository.findProductIdsBySku();
+        private final Map<String, Long> families = productImportRepository.findIdsByName("furniture_family", "family_id");
+        private final Map<String, Long> subFamilies = productImportRepository.findSubFamilyIdsByFamilyAndName();
+        private final Map<String, Long> suppliers = productImportRepository.findIdsByName("supplier", "supplier_id");
+        private final Map<String, Long> colours = productImportRepository.findIdsByName("colour", "colour_id");
+        private final Map<String, Long> materials = productImportRepository.findIdsByName("material", "material_id");
+        // Keyed by SKU, a SKU repeated within a batch keeps its last row
+        private final Map<String, ProductImportRecord> pending = new LinkedHashMap<>();
+
+        private ImportRun(Long userId) {
+            this.userId = userId;
+        }
+
+        void accept(ProductImportRow row) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            List<String> errors = new ArrayList<>();
+            ProductImportRecord record = resolve(row, errors);
+            if (!errors.isEmpty()) {
+                fail(row.getRowNumber(), row.getSku(), String.join("; ", errors));
+                return;
+            }
+            ProductImportRecord replaced = pending.put(record.getSku(), record);
+            if (replaced != null) {
+                fail(replaced.getRowNumber(), replaced.getSku(), message("product.import.duplicateSku", record.getRowNumber()));
+            }
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<ProductImportRecord> records = new ArrayList<>(pending.values());
+            pending.clear();
+
+            List<ProductImportRecord> inserts = new ArrayList<>();
+            List<ProductImportRecord> updates = new ArrayList<>();
+            for (ProductImportRecord record : records) {
+                Long productId = productIds.get(record.getSku());
+                record.setProductId(productId);
+                (productId == null ? inserts : updates).add(record);
+            }
+            try {
+                if (!inserts.isEmpty()) {
+                    List<Long> ids = productImportRepository.nextProductIds(inserts.size());
+                    for (int i = 0; i < inserts.size(); i++) {
+                        inserts.get(i).setProductId(ids.get(i));
+                    }
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    productImportRepository.insert(inserts, userId);
+                    productImportRepository.update(updates, userId);
+                    productImportRepository.replaceColours(records);
+                    productImportRepository.replaceMaterials(records);
+                });
+            } catch (DataAccessException e) {
+                String cause = e.getMostSpecificCause().getMessage();
+                log.warn("Product import batch of {} rows failed: {}", records.size(), cause);
+                records.forEach(record -> fail(record.getRowNumber(), record.getSku(), message("product.import.batchFailed", cause)));
+                return;
+            }
+            inserts.forEach(record -> productIds.put(record.getSku(), record.getProductId()));
+            report.setCreated(report.getCreated() + inserts.size());
+            report.setUpdated(report.getUpdated() + updates.size());
+        }
+
+        private ProductImportRecord resolve(ProductImportRow row, List<String> errors) {
+            String sku = required(row.getSku(), "SKU", errors);
+            String name = required(row.getName(), "Name", errors);
+            Double price = positive(row.getPrice(), "Price", true, errors);
+            Double height = positive(row.getHeight(), "Height", false, errors);
+            Double length = positive(row.getLength(), "Length", false, errors);
+            Double width = positive(row.getWidth(), "Width", false, errors);
+
+            Long familyId = reference(families, row.getFamily(), "family", errors);
+            Long subFamilyId = null;
+            if (familyId != null) {
+                subFamilyId = reference(subFamilies, row.getSubFamily(), familyId + "/", "subfamily", errors);
+            } else if (StringUtils.isBlank(row.getSubFamily())) {
+                errors.add(message("product.import.required", "Subfamily"));
+            }
+            Long supplierId = reference(suppliers, row.getSupplier(), "supplier", errors);
+            List<Long> colourIds = references(colours, row.getColours(), "colour", errors);
+            List<Long> materialIds = references(materials, row.getMaterials(), "material", errors);
+
+            Long discount = null;
+            if (StringUtils.isNotBlank(row.getDiscount())) {
+                Double value = parse(row.getDiscount());
+                if (value == null || value < 0 || value > 100) {
+                    errors.add(message("product.import.invalidDiscount", row.getDiscount()));
+                } else {
+                    discount = Math.round(value);
+                }
+            }
+            ProductStatus status = ProductStatus.Active;
+            if (StringUtils.isNotBlank(row.getStatus())) {
+                status = Arrays.stream(ProductStatus.values())
+                        .filter(candidate -> candidate.name().equalsIgnoreCase(row.getStatus().trim()))
+                        .findFirst()
+                        .orElse(null);
+                if (status == null) {
+                    errors.add(message("product.import.invalidStatus", row.getStatus()));
+                }
+            }
+            if (!errors.isEmpty()) {
+                return null;
+            }
+            return ProductImportRecord.builder()
+                    .rowNumber(row.getRowNumber())
+                    .sku(sku)
+                    .name(name)
+                    .familyId(familyId)
+                    .subFamilyId(subFamilyId)
+                    .supplierId(supplierId)
+                    .price(price)
+                    .discount(discount)
+                    .height(height)
+                    .length(length)
+                    .width(width)
+                    .status(status.name())
+                    .description(StringUtils.trimToNull(row.getDescription()))
+                    .colourIds(colourIds)
+                    .materialIds(materialIds)
+                    .build();
+        }
+
+        private String required(String value, String column, List<String> errors) {
+            if (StringUtils.isBlank(value)) {
+                errors.add(message("product.import.required", column));
+                return null;
+            }
+            return value.trim();
+        }
+
+        private Double positive(String value, String column, boolean required, List<String> errors) {
+            if (StringUtils.isBlank(value)) {
+                if (required) {
+                    errors.add(message("product.import.required", column));
+                }
+                return null;
+            }
+            Double number = parse(value);
+            if (number == null || number <= 0) {
+                errors.add(message("product.import.invalidNumber", column, value));
+                return null;
+            }
+            return number;
+        }
+
+        private Long reference(Map<String, Long> ids, String name, String kind, List<String> errors) {
+            return reference(ids, name, "", kind, errors);
+        }
+
+        private Long reference(Map<String, Long> ids, String name, String keyPrefix, String kind, List<String> errors) {
+            if (StringUtils.isBlank(name)) {
+                errors.add(message("product.import.required", StringUtils.capitalize(kind)));
+                return null;
+            }
+            Long id = ids.get(keyPrefix + name.trim().toLowerCase());
+            if (id == null) {
+                errors.add(message("product.import.unknownReference", kind, name.trim()));
+            }
+            return id;
+        }
+
+        private List<Long> references(Map<String, Long> ids, String names, String kind, List<String> errors) {
+            List<Long> resolved = new ArrayList<>();
+            if (StringUtils.isNotBlank(names)) {
+                for (String name : names.split(LIST_SEPARATORS)) {
+                    if (StringUtils.isNotBlank(name)) {
+                        resolved.add(reference(ids, name, kind, errors));
+                    }
+                }
+            }
+            if (resolved.isEmpty()) {
+                errors.add(message("product.import.required", StringUtils.capitalize(kind) + "s"));
+            }
+            return resolved;
+        }
+
+        private void fail(int rowNumber, String sku, String error) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new ProductImportErrorDTO(rowNumber, sku, error));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+    }
+
+    private static Double parse(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String message(String key, Object... args) {
+        return messageSource.getMessage(key, args, LocaleContextHolder.getLocale());
+    }
+}
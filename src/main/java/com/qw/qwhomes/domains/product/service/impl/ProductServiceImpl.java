@@ -1,45 +1,77 @@
 package com.qw.qwhomes.domains.product.service.impl;
 
-import com.qw.qwhomes.common.exceptions.QWIOException;
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
+import com.qw.qwhomes.common.exceptions.BusinessException;
 import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.common.pagination.KeysetPaginator;
+import com.qw.qwhomes.common.search.SearchDialect;
+import com.qw.qwhomes.common.search.SearchTarget;
+import com.qw.qwhomes.common.service.ImageRendition;
+import com.qw.qwhomes.common.service.ImageRenditionService;
 import com.qw.qwhomes.common.service.IoService;
+import com.qw.qwhomes.common.service.StoredImage;
+import com.qw.qwhomes.config.CacheNames;
 import com.qw.qwhomes.config.QWContext;
-import com.qw.qwhomes.domains.colour.data.entity.Colour;
-import com.qw.qwhomes.domains.colour.data.repository.ColourRepository;
 import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
 import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
-import com.qw.qwhomes.domains.furniturefamily.data.repository.FurnitureFamilyRepository;
-import com.qw.qwhomes.domains.furniturefamily.data.repository.FurnitureSubFamilyRepository;
-import com.qw.qwhomes.domains.material.data.entity.Material;
-import com.qw.qwhomes.domains.material.data.repository.MaterialRepository;
 import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductImage;
 import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.data.repository.ProductFacetRepository;
 import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.dto.CatalogProductDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductBatchUpdateDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductDashboardDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
 import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import com.qw.qwhomes.domains.product.service.dto.ProductImageDTO;
+import com.qw.qwhomes.domains.product.service.event.FacetLabelsChangedEvent;
+import com.qw.qwhomes.domains.product.service.event.ProductChangedEvent;
+import com.qw.qwhomes.domains.product.service.event.ProductsImportedEvent;
 import com.qw.qwhomes.domains.product.service.mapper.ProductMapper;
+import com.qw.qwhomes.domains.product.service.reference.ProductReferences;
+import com.qw.qwhomes.domains.product.service.reference.ReferenceResolver;
 import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.ProductImageResource;
+import com.qw.qwhomes.domains.product.service.search.CatalogIndex;
+import com.qw.qwhomes.domains.product.service.search.ProductDimensionIndex;
+import com.qw.qwhomes.domains.product.service.search.ProductSearchIndex;
 import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
-import com.qw.qwhomes.domains.supplier.data.repository.SupplierRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,28 +80,41 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
-    private final FurnitureSubFamilyRepository furnitureSubFamilyRepository;
-    private final SupplierRepository supplierRepository;
     private final MessageSource messageSource;
     private final IoService ioService;
-    private final FurnitureFamilyRepository furnitureFamilyRepository;
-    private final ColourRepository colourRepository;
-    private final MaterialRepository materialRepository;
-
+    private final ImageRenditionService imageRenditionService;
+    private final ProductSearchIndex productSearchIndex;
+    private final SearchDialect searchDialect;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductFacetRepository productFacetRepository;
+    private final KeysetPaginator keysetPaginator;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductDimensionIndex productDimensionIndex;
+    private final ReferenceResolver referenceResolver;
+    private final CatalogIndex catalogIndex;
+    private final CacheManager cacheManager;
+
+    // Above this many hits an id filter is no better than letting the database scan
+    private static final int MAX_SEARCH_ID_FILTER = 1000;
+    private static final int MAX_FIT_RESULTS = 200;
+
+    // Not @Transactional: the image files are written first, the transaction only covers the rows
     @Override
-    @Transactional
     public ProductDTO createProduct(ProductDTO productDTO, List<MultipartFile> images) {
-        Product product = productMapper.toEntity(productDTO);
-        setProductRelations(product, productDTO);
-        product.setStatus(ProductStatus.Active);
-
-        if (CollectionUtils.isNotEmpty(images)) {
-            List<String> imagePaths = ioService.saveImages(images, "products");
-            product.setImages(String.join(",", imagePaths));
-        }
-        product.setCreatedBy(QWContext.get().getUserId());
-        Product savedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(savedProduct);
+        List<StoredImage> storedImages = CollectionUtils.isNotEmpty(images) ? ioService.storeImages(images) : List.of();
+        return writeWithImages(storedImages, status -> {
+            Product product = productMapper.toEntity(productDTO);
+            setProductRelations(product, productDTO);
+            product.setStatus(ProductStatus.Active);
+
+            if (!storedImages.isEmpty()) {
+                replaceImages(product, storedImages);
+            }
+            product.setCreatedBy(QWContext.get().getUserId());
+            Product savedProduct = productRepository.save(product);
+            eventPublisher.publishEvent(new ProductChangedEvent(savedProduct, false));
+            return productMapper.toResponseDTO(savedProduct);
+        });
     }
 
     @Override
@@ -78,19 +123,68 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("product.notFound", new Object[]{id}, LocaleContextHolder.getLocale())));
         var productDto = productMapper.toResponseDTO(product);
-        List<byte[]> images = new ArrayList<>();
-        if (product.getImages() != null) {
-            for (String imagePath : product.getImages().split(",")) {
-                try {
-                    byte[] imageData = ioService.loadFileAsByteArray(imagePath);
-                    images.add(imageData);
-                } catch (IOException e) {
-                    throw new QWIOException(e.getMessage(), e);
-                }
+        productDto.setAllImages(describeImages(product));
+        return productDto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductImageResource getProductImage(Long productId, int index, String size) {
+        ImageRendition rendition = ImageRendition.fromValue(size);
+        if (rendition == null) {
+            throw new BusinessException(messageSource.getMessage("product.image.invalidSize", new Object[]{size}, LocaleContextHolder.getLocale()));
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("product.notFound", new Object[]{productId}, LocaleContextHolder.getLocale())));
+        ProductImage productImage = product.getImages().stream()
+                .filter(image -> image.getPosition() == index)
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("product.image.notFound", new Object[]{index, productId}, LocaleContextHolder.getLocale())));
+        String imagePath = ioService.storedImagePath(productImage.getHash(), productImage.getMimeType());
+        if (rendition != ImageRendition.ORIGINAL) {
+            Resource renditionImage = ioService.loadFileAsResource(rendition.pathFor(imagePath));
+            if (renditionImage.isReadable()) {
+                return new ProductImageResource(renditionImage, productImage.getHash(),
+                        productImage.getHash() + "-" + rendition.getValue(), true);
             }
+            // Not rendered yet (still queued or uploaded before renditions existed), serve the original meanwhile
+            imageRenditionService.generateRenditions(List.of(imagePath));
         }
-        productDto.setAllImages(images);
-        return productDto;
+        Resource image = ioService.loadFileAsResource(imagePath);
+        if (!image.isReadable()) {
+            throw new ResourceNotFoundException(messageSource.getMessage("product.image.notFound", new Object[]{index, productId}, LocaleContextHolder.getLocale()));
+        }
+        return new ProductImageResource(image, productImage.getHash(), productImage.getHash(), rendition == ImageRendition.ORIGINAL);
+    }
+
+    // Metadata comes from the image rows, the bytes are served by the image endpoint
+    private List<ProductImageDTO> describeImages(Product product) {
+        List<ProductImageDTO> images = new ArrayList<>(product.getImages().size());
+        for (ProductImage image : product.getImages()) {
+            // The hash in the URL makes each response immutable, a replaced image gets a new URL
+            String url = "/api/v1/products/" + product.getProductId() + "/images/" + image.getPosition() + "?v=" + image.getHash();
+            images.add(new ProductImageDTO(image.getPosition(), url, url + "&size=" + ImageRendition.THUMB.getValue(),
+                    url + "&size=" + ImageRendition.MEDIUM.getValue(), image.getMimeType(), image.getSize(),
+                    image.getWidth(), image.getHeight(), image.getHash()));
+        }
+        return images;
+    }
+
+    // Identical uploads share a blob, blobs no row references anymore are removed by the ProductImageSweeper
+    private void replaceImages(Product product, List<StoredImage> storedImages) {
+        product.getImages().clear();
+
+        for (int i = 0; i < storedImages.size(); i++) {
+            product.getImages().add(ProductImage.of(product, i, storedImages.get(i)));
+        }
+    }
+
+    // Image files are already on disk when the transaction starts, so no connection is held while they are written.
+    // If the transaction fails, blobs nothing references are left to the ProductImageSweeper
+    private <T> T writeWithImages(List<StoredImage> storedImages, TransactionCallback<T> write) {
+        T result = transactionTemplate.execute(write);
+        imageRenditionService.generateRenditions(storedImages.stream().map(StoredImage::path).distinct().toList());
+        return result;
     }
 
     @Override
@@ -98,31 +192,67 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO getProductBySku(String sku) {
         Product product = productRepository.findBySku(sku)
                 .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("product.skuNotFound", new Object[]{sku}, LocaleContextHolder.getLocale())));
-        return productMapper.toResponseDTO(product);
+        var productDto = productMapper.toResponseDTO(product);
+        productDto.setAllImages(describeImages(product));
+        return productDto;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> getAllProducts(Pageable pageable, String search, ProductFilterDto productFilterDto) {
-        Specification<Product> spec = (root, query, cb) -> {
+        List<Long> searchProductIds = resolveSearchHits(search);
+        if (searchProductIds != null && searchProductIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Specification<Product> spec = productSpecification(search, searchProductIds, productFilterDto);
+        // Hits from the search index are ranked by the dialect too, so a search orders the same however many match
+        if (StringUtils.isNotEmpty(search) && pageable.getSort().isUnsorted()) {
+            spec = spec.and(searchDialect.orderByRelevance(SearchTarget.PRODUCT, search));
+        }
+        return productRepository.findAll(spec, pageable).map(productMapper::toResponseDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<ProductDTO> getAllProducts(CursorRequest cursorRequest, String search, ProductFilterDto productFilterDto) {
+        List<Long> searchProductIds = resolveSearchHits(search);
+        if (searchProductIds != null && searchProductIds.isEmpty()) {
+            return new CursorResponse<>(List.of(), null, cursorRequest.getSize(), 0L);
+        }
+        Specification<Product> spec = StringUtils.isEmpty(search) && new ProductFilterDto().equals(productFilterDto)
+                ? null
+                : productSpecification(search, searchProductIds, productFilterDto);
+        return keysetPaginator.page(Product.class, Product.LIST_GRAPH, spec, cursorRequest, productMapper::toResponseDTO);
+    }
+
+    private Specification<Product> productSpecification(String search, List<Long> searchProductIds, ProductFilterDto productFilterDto) {
+        final Specification<Product> searchSpec = searchProductIds == null && StringUtils.isNotEmpty(search)
+                ? searchDialect.matches(SearchTarget.PRODUCT, search)
+                : null;
+
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // Search by name or SKU
-            if (search != null && !search.isEmpty()) {
-                predicates.add(cb.or(
-                    cb.like(cb.lower(root.get("name")), "%" + search.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("sku")), "%" + search.toLowerCase() + "%")
-                ));
+            // Search by name, SKU or description, resolved from the search index when possible
+            if (searchProductIds != null) {
+                predicates.add(root.get("productId").in(searchProductIds));
+            } else if (searchSpec != null) {
+                predicates.add(searchSpec.toPredicate(root, query, cb));
             }
 
-            // Join and filter by Family
-            if (StringUtils.isNotEmpty(productFilterDto.getFamilyFilter())) {
+            // Filter by Family ids, falling back to a name join
+            if (CollectionUtils.isNotEmpty(productFilterDto.getFamilyIds())) {
+                predicates.add(root.get("family").get("familyId").in(productFilterDto.getFamilyIds()));
+            } else if (StringUtils.isNotEmpty(productFilterDto.getFamilyFilter())) {
                 Join<Product, FurnitureFamily> familyJoin = root.join("family");
-                predicates.add(cb.like(familyJoin.get("name"), "%" + productFilterDto.getFamilyFilter() + "%"));            }
+                predicates.add(cb.like(familyJoin.get("name"), "%" + productFilterDto.getFamilyFilter() + "%"));
+            }
 
-            // Join and filter by Subfamily
-            if (StringUtils.isNotEmpty(productFilterDto.getSubFamilyFilter())) {
-                Join<Product, FurnitureSubFamily> subfamilyJoin = root.join("subfamily");
+            // Filter by Subfamily ids, falling back to a name join
+            if (CollectionUtils.isNotEmpty(productFilterDto.getSubFamilyIds())) {
+                predicates.add(root.get("subFamily").get("subFamilyId").in(productFilterDto.getSubFamilyIds()));
+            } else if (StringUtils.isNotEmpty(productFilterDto.getSubFamilyFilter())) {
+                Join<Product, FurnitureSubFamily> subfamilyJoin = root.join("subFamily");
                 predicates.add(cb.like(subfamilyJoin.get("name"), "%" + productFilterDto.getSubFamilyFilter() + "%"));
             }
 
@@ -134,16 +264,20 @@ public class ProductServiceImpl implements ProductService {
                 predicates.add(cb.lessThanOrEqualTo(root.get("price"), productFilterDto.getPriceMax()));
             }
 
-            // Join and filter by Material
-            if (StringUtils.isNotEmpty(productFilterDto.getMaterialFilter())) {
-                Join<Product, Material> materialJoin = root.join("materials");
-                predicates.add(cb.like(materialJoin.get("name"), "%" + productFilterDto.getMaterialFilter() + "%"));
+            // Filter by Material, as EXISTS so the many-to-many never multiplies product rows
+            if (CollectionUtils.isNotEmpty(productFilterDto.getMaterialIds())) {
+                predicates.add(hasRelated(root, query, cb, "materials", "materialId",
+                        productFilterDto.getMaterialIds(), productFilterDto.getMaterialMatch()));
+            } else if (StringUtils.isNotEmpty(productFilterDto.getMaterialFilter())) {
+                predicates.add(hasRelatedNamed(root, query, cb, "materials", productFilterDto.getMaterialFilter()));
             }
 
-            // Join and filter by Colour
-            if (StringUtils.isNotEmpty(productFilterDto.getColourFilter())) {
-                Join<Product, Colour> colourJoin = root.join("colours");
-                predicates.add(cb.like(colourJoin.get("name"), "%" + productFilterDto.getColourFilter() + "%"));
+            // Filter by Colour, as EXISTS so the many-to-many never multiplies product rows
+            if (CollectionUtils.isNotEmpty(productFilterDto.getColourIds())) {
+                predicates.add(hasRelated(root, query, cb, "colours", "colourId",
+                        productFilterDto.getColourIds(), productFilterDto.getColourMatch()));
+            } else if (StringUtils.isNotEmpty(productFilterDto.getColourFilter())) {
+                predicates.add(hasRelatedNamed(root, query, cb, "colours", productFilterDto.getColourFilter()));
             }
 
             // Filter by dimensions
@@ -157,46 +291,153 @@ public class ProductServiceImpl implements ProductService {
                 predicates.add(cb.lessThanOrEqualTo(root.get("length"), productFilterDto.getDimensionLength()));
             }
 
-            // Join and filter by Supplier
-            if (StringUtils.isNotEmpty(productFilterDto.getSupplierFilter())) {
+            // Filter by Supplier ids, falling back to a name join
+            if (CollectionUtils.isNotEmpty(productFilterDto.getSupplierIds())) {
+                predicates.add(root.get("supplier").get("id").in(productFilterDto.getSupplierIds()));
+            } else if (StringUtils.isNotEmpty(productFilterDto.getSupplierFilter())) {
                 Join<Product, Supplier> supplierJoin = root.join("supplier");
                 predicates.add(cb.like(supplierJoin.get("name"), "%" + productFilterDto.getSupplierFilter() + "%"));
             }
 
             return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
         };
+    }
 
-        return productRepository.findAll(spec, pageable).map(productMapper::toResponseDTO);
+    // ANY is a single EXISTS with IN, ALL is one EXISTS per id, each answered from the join table's primary key
+    private Predicate hasRelated(Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                 String collection, String idAttribute, List<Long> ids, ProductFilterDto.Match match) {
+        if (match == ProductFilterDto.Match.ALL) {
+            return cb.and(ids.stream().distinct()
+                    .map(id -> relatedExists(root, query, cb, collection, related -> cb.equal(related.get(idAttribute), id)))
+                    .toArray(Predicate[]::new));
+        }
+        return relatedExists(root, query, cb, collection, related -> related.get(idAttribute).in(ids));
+    }
+
+    private Predicate hasRelatedNamed(Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder cb, String collection, String name) {
+        return relatedExists(root, query, cb, collection, related -> cb.like(related.get("name"), "%" + name + "%"));
+    }
+
+    private Predicate relatedExists(Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder cb, String collection,
+                                    Function<Join<Product, ?>, Predicate> condition) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<Product> correlated = subquery.correlate(root);
+        Join<Product, ?> related = correlated.join(collection);
+        subquery.select(cb.literal(1)).where(condition.apply(related));
+        return cb.exists(subquery);
     }
 
     @Override
-    @Transactional
-    public ProductDTO updateProduct(Long id, ProductDTO productDTO, List<MultipartFile> images) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage(
-                        "product.notFound", new Object[]{id}, LocaleContextHolder.getLocale())));
-        
-        productMapper.updateEntityFromDTO(productDTO, product);
-        setProductRelations(product, productDTO);
-        
-        if (productDTO.getStatus() != null) {
-            product.setStatus(productDTO.getStatus());
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PRODUCT_FACETS)
+    public ProductFacetsDTO getProductFacets(String search, ProductFilterDto productFilterDto) {
+        List<Long> searchProductIds = resolveSearchHits(search);
+        if (searchProductIds != null && searchProductIds.isEmpty()) {
+            return new ProductFacetsDTO();
         }
+        return productFacetRepository.countFacets(search, searchProductIds, productFilterDto);
+    }
 
-        if (images != null && !images.isEmpty()) {
-            // Delete existing images
-            if (product.getImages() != null && !product.getImages().isEmpty()) {
-                Arrays.stream(product.getImages().split(","))
-                        .forEach(ioService::deleteImage);
+    // Facet counts are cheap to recompute but not per request, drop them all once a product write commits
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        evictFacets();
+    }
+
+    // Evicting before the rename commits would let a concurrent facet request cache the old labels again
+    @TransactionalEventListener(FacetLabelsChangedEvent.class)
+    public void onFacetLabelsChanged() {
+        evictFacets();
+    }
+
+    @EventListener(ProductsImportedEvent.class)
+    public void onProductsImported() {
+        evictFacets();
+    }
+
+    private void evictFacets() {
+        Objects.requireNonNull(cacheManager.getCache(CacheNames.PRODUCT_FACETS)).clear();
+    }
+
+    // Null when the index cannot answer the search, an empty list when nothing matches
+    private List<Long> resolveSearchHits(String search) {
+        if (StringUtils.isEmpty(search) || !productSearchIndex.canSearch(search)) {
+            return null;
+        }
+        long[] hits = productSearchIndex.search(search);
+        if (hits.length > MAX_SEARCH_ID_FILTER) {
+            return null;
+        }
+        return Arrays.stream(hits).boxed().toList();
+    }
+
+    @Override
+    public ProductDTO updateProduct(Long id, ProductDTO productDTO, List<MultipartFile> images) {
+        List<StoredImage> storedImages = CollectionUtils.isNotEmpty(images) ? ioService.storeImages(images) : List.of();
+        return writeWithImages(storedImages, status -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage(
+                            "product.notFound", new Object[]{id}, LocaleContextHolder.getLocale())));
+
+            productMapper.updateEntityFromDTO(productDTO, product);
+            setProductRelations(product, productDTO);
+
+            if (productDTO.getStatus() != null) {
+                product.setStatus(productDTO.getStatus());
+            }
+
+            if (!storedImages.isEmpty()) {
+                replaceImages(product, storedImages);
+            }
+            product.setUpdatedBy(QWContext.get().getUserId());
+            Product updatedProduct = productRepository.save(product);
+            eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct, false));
+            return productMapper.toResponseDTO(updatedProduct);
+        });
+    }
+
+    /**
+     * Applies every update in one transaction: the products are read with one query and their references
+     * resolved with one lookup per type for the whole batch, then only changed rows are written in JDBC batches.
+     */
+    @Override
+    @Transactional
+    public List<ProductDTO> updateProducts(List<ProductBatchUpdateDTO> updates) {
+        Map<Long, ProductDTO> changes = new LinkedHashMap<>();
+        for (ProductBatchUpdateDTO update : updates) {
+            if (changes.put(update.getProductId(), update.getProduct()) != null) {
+                throw new BusinessException(messageSource.getMessage("product.batch.duplicate", new Object[]{update.getProductId()}, LocaleContextHolder.getLocale()));
             }
-            
-            // Save new images
-            List<String> imagePaths = ioService.saveImages(images, "products");
-            product.setImages(String.join(",", imagePaths));
         }
-        product.setUpdatedBy(QWContext.get().getUserId());
-        Product updatedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(updatedProduct);
+        Map<Long, Product> products = productRepository.findAllById(changes.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        ProductReferences references = referenceResolver.resolve(changes.values());
+
+        Long userId = QWContext.get().getUserId();
+        changes.forEach((id, productDTO) -> {
+            Product product = products.get(id);
+            if (product == null) {
+                throw new ResourceNotFoundException(messageSource.getMessage("product.notFound", new Object[]{id}, LocaleContextHolder.getLocale()));
+            }
+            productMapper.updateEntityFromDTO(productDTO, product);
+            references.applyRemovals(product, productDTO);
+            if (productDTO.getStatus() != null) {
+                product.setStatus(productDTO.getStatus());
+            }
+            product.setUpdatedBy(userId);
+        });
+        // Hibernate writes each product's removed and added join rows back to back, which closes the JDBC batch
+        // after every row. Flushing the removals of all products first keeps deletes and inserts in batches
+        productRepository.flush();
+
+        List<ProductDTO> updated = new ArrayList<>(changes.size());
+        changes.forEach((id, productDTO) -> {
+            Product product = products.get(id);
+            references.applyAdditions(product, productDTO);
+            eventPublisher.publishEvent(new ProductChangedEvent(product, false));
+            updated.add(productMapper.toResponseDTO(product));
+        });
+        return updated;
     }
 
     @Override
@@ -205,32 +446,23 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("product.notFound", new Object[]{id}, LocaleContextHolder.getLocale())));
 
-        // Delete associated images first
-        if (StringUtils.isNotEmpty(product.getImages())) {
-            Arrays.stream(product.getImages().split(","))
-                .forEach(ioService::deleteImage);
-        }
-
+        // Image rows go with the product, their blobs with the next sweep once nothing else references them
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product, true));
     }
 
     @Override
-    @Transactional
     public ProductDTO updateProductImages(Long productId, List<MultipartFile> images) {
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        List<StoredImage> storedImages = ioService.storeImages(images);
+        return writeWithImages(storedImages, status -> {
+            Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
 
-        // Delete existing images if any
-        if (StringUtils.isNotEmpty(product.getImages())) {
-            Arrays.asList(product.getImages().split("::")).forEach(ioService::deleteImage);
-        }
+            replaceImages(product, storedImages);
 
-        // Save new images
-        List<String> imagePaths = ioService.saveImages(images, "products/" + productId);
-        product.setImages(String.join(",", imagePaths));
-        
-        Product savedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(savedProduct);
+            Product savedProduct = productRepository.save(product);
+            return productMapper.toResponseDTO(savedProduct);
+        });
     }
 
     @Transactional
@@ -242,6 +474,27 @@ public class ProductServiceImpl implements ProductService {
 
         product.setStatus(status);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product, false));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsThatFit(double height, double width, double length, double tolerance, int limit) {
+        if (height <= 0 || width <= 0 || length <= 0 || tolerance < 0) {
+            throw new BusinessException(messageSource.getMessage("product.fit.invalidDimensions", null, LocaleContextHolder.getLocale()));
+        }
+        long[] fits = productDimensionIndex.fit(height, width, length, tolerance, Math.min(Math.max(limit, 1), MAX_FIT_RESULTS));
+        if (fits.length == 0) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findByProductIdIn(Arrays.stream(fits).boxed().toList()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        // Keep the closest-fit order of the index
+        return Arrays.stream(fits)
+                .mapToObj(products::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toResponseDTO)
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -251,75 +504,24 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProductsByFamilyAndSubFamily(Long familyId, Long subFamilyId) {
-        return productRepository.getProductsByFamilyIdAndSubFamilyId(familyId, subFamilyId)
-                .stream().map(productMapper::toResponseDTO).collect(Collectors.toList());
+        List<CatalogProductDTO> candidates = catalogIndex.candidates(familyId, subFamilyId);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findByProductIdIn(candidates.stream().map(CatalogProductDTO::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        // Keep the name order of the index
+        return candidates.stream()
+                .map(candidate -> products.get(candidate.productId()))
+                .filter(Objects::nonNull)
+                .map(productMapper::toResponseDTO)
+                .toList();
     }
 
     private void setProductRelations(Product product, ProductDTO productDTO) {
-        if (productDTO.getFamilyId() != null) {
-            FurnitureFamily family = furnitureFamilyRepository.findById(productDTO.getFamilyId()).orElseThrow(
-                    () -> new ResourceNotFoundException(messageSource.getMessage("furnitureFamily.notFound", new Object[]{productDTO.getFamilyId()}, LocaleContextHolder.getLocale()))
-            );
-            product.setFamily(family);
-        }
-        if (productDTO.getSubFamilyId() != null) {
-            FurnitureSubFamily subFamily = furnitureSubFamilyRepository.findById(productDTO.getSubFamilyId())
-                    .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("furnitureSubFamily.notFound", new Object[]{productDTO.getSubFamilyId()}, LocaleContextHolder.getLocale())));
-            product.setSubFamily(subFamily);
-        }
-        if (productDTO.getSupplierId() != null) {
-            Supplier supplier = supplierRepository.findById(productDTO.getSupplierId()).orElseThrow(
-                    () -> new ResourceNotFoundException(messageSource.getMessage("supplier.notFound", new Object[]{productDTO.getSupplierId()}, LocaleContextHolder.getLocale()))
-            );
-            product.setSupplier(supplier);
-        }
-
-
-        if (product.getProductId() == null) {
-            if(CollectionUtils.isNotEmpty(productDTO.getColourIds())){
-                var colours = colourRepository.findAllById(productDTO.getColourIds());
-                product.setColours(colours);
-            }
-
-            if(CollectionUtils.isNotEmpty(productDTO.getMaterialIds())){
-                var materials = materialRepository.findAllById(productDTO.getMaterialIds());
-                product.setMaterials(materials);
-            }
-        }else {
-            if (CollectionUtils.isNotEmpty(productDTO.getColourIds())) {
-                var existingColours = product.getColours();
-                var newColours = colourRepository.findAllById(productDTO.getColourIds());
-
-                // Add new colours
-                for (var colour : newColours) {
-                    if (!existingColours.contains(colour)) {
-                        existingColours.add(colour);
-                    }
-                }
-
-                // Remove old colours
-                existingColours.removeIf(colour -> !productDTO.getColourIds().contains(colour.getColourId()));
-                product.setColours(existingColours);
-            }
-
-            if (CollectionUtils.isNotEmpty(productDTO.getMaterialIds())) {
-                var existingMaterials = product.getMaterials();
-                var newMaterials = materialRepository.findAllById(productDTO.getMaterialIds());
-
-                // Add new materials
-                for (var material : newMaterials) {
-                    if (!existingMaterials.contains(material)) {
-                        existingMaterials.add(material);
-                    }
-                }
-
-                // Remove old materials
-                existingMaterials.removeIf(material -> !productDTO.getMaterialIds().contains(material.getMaterialId()));
-                product.setMaterials(existingMaterials);
-            }
-
-        }
-
+        referenceResolver.resolve(List.of(productDTO)).applyTo(product, productDTO);
     }
 }
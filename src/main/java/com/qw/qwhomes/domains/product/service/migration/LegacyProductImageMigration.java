@@ -0,0 +1,85 @@
+package com.qw.qwhomes.domains.product.service.migration;
+
+import com.qw.qwhomes.common.service.ImageRenditionService;
+import com.qw.qwhomes.common.service.IoService;
+import com.qw.qwhomes.common.service.StoredImage;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductImage;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moves images still referenced by the old comma-joined {@code product.images} column into the image store and
+ * the product_image table. Runs once per product, each in its own transaction; the old files are removed after
+ * the product commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyProductImageMigration {
+
+    private final ProductRepository productRepository;
+    private final IoService ioService;
+    private final ImageRenditionService imageRenditionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        List<Long> productIds = productRepository.findIdsWithLegacyImages();
+        if (productIds.isEmpty()) {
+            return;
+        }
+        int migrated = 0;
+        for (Long productId : productIds) {
+            try {
+                List<String> legacyPaths = transactionTemplate.execute(status -> migrate(productId));
+                legacyPaths.forEach(this::deleteLegacyFile);
+                migrated++;
+            } catch (RuntimeException e) {
+                log.warn("Could not migrate images of product {}", productId, e);
+            }
+        }
+        log.info("Migrated legacy images of {} of {} products", migrated, productIds.size());
+    }
+
+    private List<String> migrate(Long productId) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        List<String> legacyPaths = Arrays.stream(product.getLegacyImages().split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .toList();
+
+        int position = product.getImages().size();
+        for (String legacyPath : legacyPaths) {
+            if (!ioService.loadFileAsResource(legacyPath).isReadable()) {
+                log.warn("Image {} of product {} is missing on disk, dropping it", legacyPath, productId);
+                continue;
+            }
+            StoredImage storedImage = ioService.importImage(legacyPath);
+            product.getImages().add(ProductImage.of(product, position++, storedImage));
+        }
+        product.setLegacyImages(null);
+        return legacyPaths;
+    }
+
+    // Old uploads live outside the image store, so they and their renditions are removed here rather than swept
+    private void deleteLegacyFile(String legacyPath) {
+        try {
+            Files.deleteIfExists(ioService.loadFileAsResource(legacyPath).getFile().toPath());
+            imageRenditionService.deleteRenditions(legacyPath);
+        } catch (IOException e) {
+            log.warn("Could not delete legacy image {}", legacyPath, e);
+        }
+    }
+}
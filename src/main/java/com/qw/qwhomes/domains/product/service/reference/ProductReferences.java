@@ -0,0 +1,93 @@
+package com.qw.qwhomes.domains.product.service.reference;
+
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The reference entities resolved by {@link ReferenceResolver}, keyed by id.
+ */
+public record ProductReferences(Map<Long, FurnitureFamily> families,
+                                Map<Long, FurnitureSubFamily> subFamilies,
+                                Map<Long, Supplier> suppliers,
+                                Map<Long, Colour> colours,
+                                Map<Long, Material> materials) {
+
+    /**
+     * Points the product at the references named by the DTO. Empty colour or material ids leave the current
+     * ones as they are.
+     */
+    public void applyTo(Product product, ProductDTO dto) {
+        applyRemovals(product, dto);
+        applyAdditions(product, dto);
+    }
+
+    /**
+     * Points the product at the family, subfamily and supplier named by the DTO and drops the colours and
+     * materials it no longer names. Together with {@link #applyAdditions} this is {@link #applyTo}, split so a bulk
+     * update can flush every removed join row before the first added one and keep both in JDBC batches.
+     */
+    public void applyRemovals(Product product, ProductDTO dto) {
+        if (dto.getFamilyId() != null) {
+            product.setFamily(families.get(dto.getFamilyId()));
+        }
+        if (dto.getSubFamilyId() != null) {
+            product.setSubFamily(subFamilies.get(dto.getSubFamilyId()));
+        }
+        if (dto.getSupplierId() != null) {
+            product.setSupplier(suppliers.get(dto.getSupplierId()));
+        }
+        if (CollectionUtils.isNotEmpty(dto.getColourIds())) {
+            product.setColours(retain(product.getColours(), dto.getColourIds(), Colour::getColourId));
+        }
+        if (CollectionUtils.isNotEmpty(dto.getMaterialIds())) {
+            product.setMaterials(retain(product.getMaterials(), dto.getMaterialIds(), Material::getMaterialId));
+        }
+    }
+
+    /**
+     * Adds the colours and materials named by the DTO that the product does not reference yet.
+     */
+    public void applyAdditions(Product product, ProductDTO dto) {
+        if (CollectionUtils.isNotEmpty(dto.getColourIds())) {
+            product.setColours(add(product.getColours(), dto.getColourIds(), colours, Colour::getColourId));
+        }
+        if (CollectionUtils.isNotEmpty(dto.getMaterialIds())) {
+            product.setMaterials(add(product.getMaterials(), dto.getMaterialIds(), materials, Material::getMaterialId));
+        }
+    }
+
+    // Edits the current set in place, so an unchanged reference keeps its join row and only the difference is written
+    private static <T> Set<T> retain(Set<T> current, List<Long> ids, Function<T, Long> idOf) {
+        Set<T> target = current != null ? current : new LinkedHashSet<>();
+        Set<Long> wanted = new HashSet<>(ids);
+        target.removeIf(reference -> !wanted.contains(idOf.apply(reference)));
+        return target;
+    }
+
+    private static <T> Set<T> add(Set<T> current, List<Long> ids, Map<Long, T> byId, Function<T, Long> idOf) {
+        Set<T> target = current != null ? current : new LinkedHashSet<>();
+        Set<Long> present = new HashSet<>();
+        for (T reference : target) {
+            present.add(idOf.apply(reference));
+        }
+        for (Long id : ids) {
+            if (present.add(id)) {
+                target.add(byId.get(id));
+            }
+        }
+        return target;
+    }
+}
@@ -0,0 +1,82 @@
+package com.qw.qwhomes.domains.product.service.reference;
+
+import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves the families, subfamilies, suppliers, colours and materials referenced by any number of product DTOs
+ * with at most one lookup per type. Lookups go through Hibernate's multi-load, so entities already in the
+ * persistence context or the second-level cache are not queried again and only the rest is read with one IN query.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceResolver {
+
+    private final EntityManager entityManager;
+    private final MessageSource messageSource;
+
+    /**
+     * @throws ResourceNotFoundException when any referenced id does not exist
+     */
+    public ProductReferences resolve(Collection<ProductDTO> products) {
+        return new ProductReferences(
+                load(FurnitureFamily.class, ids(products, dto -> Collections.singletonList(dto.getFamilyId())), "furnitureFamily.not.found"),
+                load(FurnitureSubFamily.class, ids(products, dto -> Collections.singletonList(dto.getSubFamilyId())), "furnitureSubFamily.not.found"),
+                load(Supplier.class, ids(products, dto -> Collections.singletonList(dto.getSupplierId())), "supplier.not.found"),
+                load(Colour.class, ids(products, ProductDTO::getColourIds), "colour.notFound"),
+                load(Material.class, ids(products, ProductDTO::getMaterialIds), "material.not.found"));
+    }
+
+    private <T> Map<Long, T> load(Class<T> type, Set<Long> ids, String notFoundMessage) {
+        Map<Long, T> byId = new HashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        List<Long> orderedIds = List.copyOf(ids);
+        List<T> entities = entityManager.unwrap(Session.class)
+                .byMultipleIds(type)
+                .enableSessionCheck(true)
+                .multiLoad(orderedIds);
+        // multiLoad answers in the order of the ids asked for, with null for the ones that do not exist
+        for (int i = 0; i < orderedIds.size(); i++) {
+            T entity = entities.get(i);
+            if (entity == null) {
+                throw new ResourceNotFoundException(messageSource.getMessage(notFoundMessage, new Object[]{orderedIds.get(i)}, LocaleContextHolder.getLocale()));
+            }
+            byId.put(orderedIds.get(i), entity);
+        }
+        return byId;
+    }
+
+    private static Set<Long> ids(Collection<ProductDTO> products, Function<ProductDTO, List<Long>> ids) {
+        Set<Long> all = new LinkedHashSet<>();
+        for (ProductDTO product : products) {
+            List<Long> productIds = ids.apply(product);
+            if (productIds != null) {
+                productIds.stream().filter(Objects::nonNull).forEach(all::add);
+            }
+        }
+        return all;
+    }
+}
@@ -0,0 +1,289 @@
+package com.qw.qwhomes.domains.product.service.search;
+
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.data.repository.ProductCatalogProjection;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.dto.CatalogProductDTO;
+import com.qw.qwhomes.domains.product.service.event.ProductChangedEvent;
+import com.qw.qwhomes.domains.product.service.event.ProductsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory catalog of active products grouped by family and sub family, so the proposal builder can list the
+ * candidates for every requirement of an apartment type without a query per requirement. Each bucket is an
+ * immutable array sorted by name and replaced on write, so readers can hand it out without copying. The version
+ * is bumped on every change and lets clients tell whether candidates they hold are still current. Changes arriving
+ * while a reload reads the products are recorded and replayed onto the reloaded catalog, so none of them is lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogIndex {
+
+    private static final CatalogProductDTO[] EMPTY = new CatalogProductDTO[0];
+    private static final Comparator<CatalogProductDTO> BY_NAME = Comparator
+            .comparing(CatalogProductDTO::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(CatalogProductDTO::productId);
+
+    private final ProductRepository productRepository;
+
+    // familyId -> subFamilyId -> products
+    private LongObjectMap<LongObjectMap<CatalogProductDTO[]>> families = new LongObjectMap<>();
+    private LongObjectMap<Entry> products = new LongObjectMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long version;
+    // Changes applied while a reload runs, null when no reload is in progress
+    private List<Change> pendingChanges;
+
+    // Bulk imports bypass the per-product events, so they trigger a full reload
+    @EventListener({ApplicationReadyEvent.class, ProductsImportedEvent.class})
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductCatalogProjection> rows;
+        try {
+            rows = productRepository.findAllForCatalogIndex();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        LongObjectMap<LongObjectMap<List<CatalogProductDTO>>> grouped = new LongObjectMap<>();
+        LongObjectMap<Entry> entries = new LongObjectMap<>();
+        for (ProductCatalogProjection row : rows) {
+            CatalogProductDTO product = new CatalogProductDTO(row.getProductId(), row.getName(), row.getSku(),
+                    row.getPrice(), row.getDiscount(), row.getHeight(), row.getWidth(), row.getLength(), row.getSupplierId());
+            LongObjectMap<List<CatalogProductDTO>> subFamilies = grouped.get(row.getFamilyId());
+            if (subFamilies == null) {
+                subFamilies = new LongObjectMap<>();
+                grouped.put(row.getFamilyId(), subFamilies);
+            }
+            List<CatalogProductDTO> bucket = subFamilies.get(row.getSubFamilyId());
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                subFamilies.put(row.getSubFamilyId(), bucket);
+            }
+            bucket.add(product);
+            entries.put(row.getProductId(), new Entry(row.getFamilyId(), row.getSubFamilyId(), product));
+        }
+
+        LongObjectMap<LongObjectMap<CatalogProductDTO[]>> loaded = new LongObjectMap<>();
+        grouped.forEach((familyId, subFamilies) -> {
+            LongObjectMap<CatalogProductDTO[]> sortedSubFamilies = new LongObjectMap<>();
+            subFamilies.forEach((subFamilyId, bucket) -> {
+                CatalogProductDTO[] sorted = bucket.toArray(EMPTY);
+                Arrays.sort(sorted, BY_NAME);
+                sortedSubFamilies.put(subFamilyId, sorted);
+            });
+            loaded.put(familyId, sortedSubFamilies);
+        });
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            families = loaded;
+            products = entries;
+            // The rows may predate these changes, replaying them in order leaves each product in its latest state
+            replayed = pendingChanges.size();
+            for (Change change : pendingChanges) {
+                if (change.entry() != null) {
+                    apply(change.entry());
+                } else {
+                    discard(change.productId());
+                }
+            }
+            pendingChanges = null;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Catalog index loaded {} products and replayed {} changes in {} ms",
+                rows.size(), replayed, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.isDeleted() || product.getStatus() != ProductStatus.Active
+                || product.getFamily() == null || product.getSubFamily() == null) {
+            remove(product.getProductId());
+            return;
+        }
+        // Only identifiers are read from the associations, so lazy proxies of the detached product stay uninitialized
+        index(product.getFamily().getFamilyId(), product.getSubFamily().getSubFamilyId(), new CatalogProductDTO(
+                product.getProductId(), product.getName(), product.getSku(), product.getPrice(), product.getDiscount(),
+                product.getHeight(), product.getWidth(), product.getLength(),
+                product.getSupplier() != null ? product.getSupplier().getId() : null));
+    }
+
+    public void index(long familyId, long subFamilyId, CatalogProductDTO product) {
+        Entry entry = new Entry(familyId, subFamilyId, product);
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(product.productId(), entry));
+            }
+            apply(entry);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(productId, null));
+            }
+            if (discard(productId)) {
+                version++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the active products of a family and sub family ordered by name.
+     */
+    public List<CatalogProductDTO> candidates(long familyId, long subFamilyId) {
+        lock.readLock().lock();
+        try {
+            return bucket(familyId, subFamilyId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the candidates of every {@code (familyIds[i], subFamilyIds[i])} pair read at a single catalog version.
+     */
+    public Candidates candidates(long[] familyIds, long[] subFamilyIds) {
+        List<List<CatalogProductDTO>> result = new ArrayList<>(familyIds.length);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < familyIds.length; i++) {
+                result.add(bucket(familyIds[i], subFamilyIds[i]));
+            }
+            return new Candidates(version, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Entry entry) {
+        Entry previous = products.put(entry.product().productId(), entry);
+        if (previous != null) {
+            removeFromBucket(previous);
+        }
+        LongObjectMap<CatalogProductDTO[]> subFamilies = subFamiliesOf(entry.familyId());
+        CatalogProductDTO[] bucket = subFamilies.get(entry.subFamilyId());
+        subFamilies.put(entry.subFamilyId(), inserted(bucket != null ? bucket : EMPTY, entry.product()));
+    }
+
+    private boolean discard(long productId) {
+        Entry previous = products.remove(productId);
+        if (previous == null) {
+            return false;
+        }
+        removeFromBucket(previous);
+        return true;
+    }
+
+    // Buckets are never modified once published, so a read-only view is safe to use after the lock is released
+    private List<CatalogProductDTO> bucket(long familyId, long subFamilyId) {
+        LongObjectMap<CatalogProductDTO[]> subFamilies = families.get(familyId);
+        CatalogProductDTO[] bucket = subFamilies != null ? subFamilies.get(subFamilyId) : null;
+        return bucket != null ? Collections.unmodifiableList(Arrays.asList(bucket)) : List.of();
+    }
+
+    private LongObjectMap<CatalogProductDTO[]> subFamiliesOf(long familyId) {
+        LongObjectMap<CatalogProductDTO[]> subFamilies = families.get(familyId);
+        if (subFamilies == null) {
+            subFamilies = new LongObjectMap<>();
+            families.put(familyId, subFamilies);
+        }
+        return subFamilies;
+    }
+
+    private void removeFromBucket(Entry entry) {
+        LongObjectMap<CatalogProductDTO[]> subFamilies = families.get(entry.familyId());
+        CatalogProductDTO[] bucket = subFamilies.get(entry.subFamilyId());
+        int index = indexOf(bucket, entry.product().productId());
+        if (bucket.length == 1) {
+            subFamilies.remove(entry.subFamilyId());
+            if (subFamilies.size() == 0) {
+                families.remove(entry.familyId());
+            }
+            return;
+        }
+        CatalogProductDTO[] copy = new CatalogProductDTO[bucket.length - 1];
+        System.arraycopy(bucket, 0, copy, 0, index);
+        System.arraycopy(bucket, index + 1, copy, index, copy.length - index);
+        subFamilies.put(entry.subFamilyId(), copy);
+    }
+
+    private static CatalogProductDTO[] inserted(CatalogProductDTO[] bucket, CatalogProductDTO product) {
+        int index = Arrays.binarySearch(bucket, product, BY_NAME);
+        int at = index >= 0 ? index : -index - 1;
+        CatalogProductDTO[] copy = new CatalogProductDTO[bucket.length + 1];
+        System.arraycopy(bucket, 0, copy, 0, at);
+        copy[at] = product;
+        System.arraycopy(bucket, at, copy, at + 1, bucket.length - at);
+        return copy;
+    }
+
+    private static int indexOf(CatalogProductDTO[] bucket, long productId) {
+        for (int i = 0; i < bucket.length; i++) {
+            if (bucket[i].productId() == productId) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Product " + productId + " missing from its catalog bucket");
+    }
+
+    public record Candidates(long version, List<List<CatalogProductDTO>> products) {
+    }
+
+    private record Entry(long familyId, long subFamilyId, CatalogProductDTO product) {
+    }
+
+    // A null entry records a removal
+    private record Change(long productId, Entry entry) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.qw.qwhomes.domains.product.service.search;
+
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Static, implicitly balanced 3-d tree over product dimensions. Nodes live in flat arrays: the
+ * node of a range is its middle element, split on axis {@code depth % 3}.
+ */
+final class DimensionKdTree {
+
+    static final int DIMENSIONS = 3;
+
+    private final long[] ids;
+    private final double[] points;
+
+    DimensionKdTree(long[] ids, double[] points) {
+        this.ids = ids.clone();
+        this.points = points.clone();
+        build(0, this.ids.length, 0);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    // Offers every point with point[d] <= limit[d] on all axes to the collector, skipping stale ids
+    void search(double[] limit, double[] target, FitCollector collector, LongPredicate skip) {
+        search(0, ids.length, 0, limit, target, collector, skip);
+    }
+
+    private void search(int lo, int hi, int depth, double[] limit, double[] target, FitCollector collector, LongPredicate skip) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int axis = depth % DIMENSIONS;
+        double split = points[mid * DIMENSIONS + axis];
+
+        if (!skip.test(ids[mid]) && fits(mid, limit)) {
+            collector.offer(ids[mid], distanceSquared(mid, target));
+        }
+
+        // Everything right of the split is >= split on this axis, so it is out of range once split exceeds the limit
+        boolean rightFeasible = split <= limit[axis];
+        // Visit the side holding the target first, the other side is at least |gap| away on this axis
+        double gap = target[axis] - split;
+        if (gap > 0 && rightFeasible) {
+            search(mid + 1, hi, depth + 1, limit, target, collector, skip);
+            if (collector.mayAccept(gap * gap)) {
+                search(lo, mid, depth + 1, limit, target, collector, skip);
+            }
+        } else {
+            search(lo, mid, depth + 1, limit, target, collector, skip);
+            if (rightFeasible && collector.mayAccept(gap * gap)) {
+                search(mid + 1, hi, depth + 1, limit, target, collector, skip);
+            }
+        }
+    }
+
+    private boolean fits(int index, double[] limit) {
+        int offset = index * DIMENSIONS;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            if (points[offset + d] > limit[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double distanceSquared(int index, double[] target) {
+        int offset = index * DIMENSIONS;
+        double sum = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double delta = target[d] - points[offset + d];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % DIMENSIONS);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: afterwards position k holds the median on the axis, smaller values on its left
+    private void select(int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            double pivot = points[((lo + hi) >>> 1) * DIMENSIONS + axis];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (points[i * DIMENSIONS + axis] < pivot) {
+                    i++;
+                }
+                while (points[j * DIMENSIONS + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double value = points[a * DIMENSIONS + d];
+            points[a * DIMENSIONS + d] = points[b * DIMENSIONS + d];
+            points[b * DIMENSIONS + d] = value;
+        }
+    }
+
+    /**
+     * Keeps the {@code limit} closest fits seen so far.
+     */
+    static final class FitCollector {
+
+        private final int limit;
+        // Max-heap on distance so the worst kept fit is evicted first
+        private final PriorityQueue<ProductFit> fits;
+
+        FitCollector(int limit) {
+            this.limit = limit;
+            this.fits = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(b.distanceSquared(), a.distanceSquared()));
+        }
+
+        void offer(long id, double distanceSquared) {
+            if (fits.size() < limit) {
+                fits.add(new ProductFit(id, distanceSquared));
+            } else if (distanceSquared < fits.peek().distanceSquared()) {
+                fits.poll();
+                fits.add(new ProductFit(id, distanceSquared));
+            }
+        }
+
+        boolean mayAccept(double lowerBoundSquared) {
+            return fits.size() < limit || lowerBoundSquared < fits.peek().distanceSquared();
+        }
+
+        ProductFit[] closestFirst() {
+            ProductFit[] result = new ProductFit[fits.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = fits.poll();
+            }
+            return result;
+        }
+    }
+
+    record ProductFit(long id, double distanceSquared) {
+    }
+}
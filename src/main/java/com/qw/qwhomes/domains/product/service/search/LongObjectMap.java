@@ -0,0 +1,115 @@
+package com.qw.qwhomes.domains.product.service.search;
+
+/**
+ * Open addressing hash map from primitive long keys to values, so lookups neither box the key nor allocate an
+ * entry per mapping. Linear probing with backward shift deletion, resized at half load.
+ */
+final class LongObjectMap<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = slotOf(key, keys.length);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return null;
+    }
+
+    // Null values are not stored, use remove instead
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int slot = slotOf(key, keys.length);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, keys.length);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        // Pull back later entries of the probe run that would no longer be reachable across the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = slotOf(keys[next], keys.length);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(EntryConsumer<V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i], capacity);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Sequence ids are dense, so spread them before masking
+    private static int slotOf(long key, int capacity) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+
+    interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+}
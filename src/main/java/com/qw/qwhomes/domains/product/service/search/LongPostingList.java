@@ -0,0 +1,53 @@
+package com.qw.qwhomes.domains.product.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate free list of product ids backed by a primitive array.
+ */
+final class LongPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
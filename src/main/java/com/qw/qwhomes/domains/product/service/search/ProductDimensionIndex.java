@@ -0,0 +1,211 @@
+package com.qw.qwhomes.domains.product.service.search;
+
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.data.repository.ProductDimensionProjection;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.event.ProductChangedEvent;
+import com.qw.qwhomes.domains.product.service.event.ProductsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of active product dimensions answering "what fits in this niche, in any orientation".
+ * A box fits in some axis-aligned orientation exactly when its dimensions sorted descending are each no
+ * larger than the niche's sorted dimensions, so both sides are stored and queried sorted. Changes arriving while
+ * a reload reads the products are recorded and replayed onto the reloaded index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductDimensionIndex {
+
+    // Writes go to a small overlay that is folded into a freshly built tree once it grows past this share
+    private static final int MIN_REBUILD_THRESHOLD = 64;
+    private static final int REBUILD_DIVISOR = 8;
+
+    private final ProductRepository productRepository;
+
+    private final Map<Long, double[]> dimensions = new HashMap<>();
+    private final Map<Long, double[]> pending = new HashMap<>();
+    private final Set<Long> stale = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private DimensionKdTree tree = new DimensionKdTree(new long[0], new double[0]);
+    // Changes applied while a reload runs, null when no reload is in progress
+    private List<Change> pendingChanges;
+
+    // Bulk imports bypass the per-product events, so they trigger a full reload
+    @EventListener({ApplicationReadyEvent.class, ProductsImportedEvent.class})
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductDimensionProjection> products;
+        try {
+            products = productRepository.findAllForDimensionIndex();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            dimensions.clear();
+            for (ProductDimensionProjection product : products) {
+                dimensions.put(product.getProductId(), sortedDescending(product.getHeight(), product.getWidth(), product.getLength()));
+            }
+            // The rows may predate these changes, replaying them in order leaves each product in its latest state
+            replayed = pendingChanges.size();
+            for (Change change : pendingChanges) {
+                if (change.dimensions() != null) {
+                    dimensions.put(change.productId(), change.dimensions());
+                } else {
+                    dimensions.remove(change.productId());
+                }
+            }
+            pendingChanges = null;
+            rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product dimension index loaded {} products and replayed {} changes in {} ms",
+                products.size(), replayed, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.isDeleted() || product.getStatus() != ProductStatus.Active) {
+            remove(product.getProductId());
+        } else {
+            index(product.getProductId(), product.getHeight(), product.getWidth(), product.getLength());
+        }
+    }
+
+    public void index(Long productId, Double height, Double width, Double length) {
+        if (height == null || width == null || length == null) {
+            remove(productId);
+            return;
+        }
+        double[] sorted = sortedDescending(height, width, length);
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(productId, sorted));
+            }
+            dimensions.put(productId, sorted);
+            pending.put(productId, sorted);
+            stale.add(productId);
+            rebuildIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(productId, null));
+            }
+            if (dimensions.remove(productId) != null) {
+                pending.remove(productId);
+                stale.add(productId);
+                rebuildIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products that fit the niche with up to {@code tolerance} overhang per
+     * dimension, ordered by how closely they fill it (Euclidean slack over the sorted dimensions).
+     */
+    public long[] fit(double height, double width, double length, double tolerance, int limit) {
+        double[] target = sortedDescending(height, width, length);
+        double[] bounds = new double[DimensionKdTree.DIMENSIONS];
+        for (int d = 0; d < bounds.length; d++) {
+            bounds[d] = target[d] + tolerance;
+        }
+
+        DimensionKdTree.FitCollector collector = new DimensionKdTree.FitCollector(limit);
+        lock.readLock().lock();
+        try {
+            tree.search(bounds, target, collector, stale::contains);
+            for (Map.Entry<Long, double[]> entry : pending.entrySet()) {
+                double[] point = entry.getValue();
+                if (point[0] <= bounds[0] && point[1] <= bounds[1] && point[2] <= bounds[2]) {
+                    collector.offer(entry.getKey(), distanceSquared(point, target));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.stream(collector.closestFirst()).mapToLong(DimensionKdTree.ProductFit::id).toArray();
+    }
+
+    private void rebuildIfNeeded() {
+        if (pending.size() + stale.size() > Math.max(MIN_REBUILD_THRESHOLD, dimensions.size() / REBUILD_DIVISOR)) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        long[] ids = new long[dimensions.size()];
+        double[] points = new double[ids.length * DimensionKdTree.DIMENSIONS];
+        int i = 0;
+        for (Map.Entry<Long, double[]> entry : dimensions.entrySet()) {
+            ids[i] = entry.getKey();
+            System.arraycopy(entry.getValue(), 0, points, i * DimensionKdTree.DIMENSIONS, DimensionKdTree.DIMENSIONS);
+            i++;
+        }
+        tree = new DimensionKdTree(ids, points);
+        pending.clear();
+        stale.clear();
+    }
+
+    private static double distanceSquared(double[] point, double[] target) {
+        double sum = 0;
+        for (int d = 0; d < point.length; d++) {
+            double delta = target[d] - point[d];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    private static double[] sortedDescending(double a, double b, double c) {
+        double[] sorted = {a, b, c};
+        Arrays.sort(sorted);
+        return new double[]{sorted[2], sorted[1], sorted[0]};
+    }
+
+    // Null dimensions record a removal
+    private record Change(Long productId, double[] dimensions) {
+    }
+}
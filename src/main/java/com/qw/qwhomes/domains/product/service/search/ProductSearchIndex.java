@@ -0,0 +1,221 @@
+package com.qw.qwhomes.domains.product.service.search;
+
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.data.repository.ProductSearchProjection;
+import com.qw.qwhomes.domains.product.service.event.ProductChangedEvent;
+import com.qw.qwhomes.domains.product.service.event.ProductsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over product name, SKU and description. Answers the same
+ * case-insensitive substring question as {@code LIKE '%search%'} without touching the database.
+ * Changes arriving while a reload reads the products are recorded and replayed onto the reloaded index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final char FIELD_SEPARATOR = '\n';
+    private static final long[] NO_MATCHES = new long[0];
+
+    private final ProductRepository productRepository;
+
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    // Keyed by the primitive id like the postings, so the table holds no boxed key or entry object per product
+    private LongObjectMap<String> documents = new LongObjectMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    // Changes applied while a reload runs, null when no reload is in progress
+    private List<Change> pendingChanges;
+
+    // Bulk imports bypass the per-product events, so they trigger a full reload
+    @EventListener({ApplicationReadyEvent.class, ProductsImportedEvent.class})
+    public synchronized void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductSearchProjection> products;
+        try {
+            products = productRepository.findAllForSearchIndex();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents = new LongObjectMap<>();
+            for (ProductSearchProjection product : products) {
+                put(product.getProductId(), toDocument(product.getName(), product.getSku(), product.getDescription()));
+            }
+            // The rows may predate these changes, replaying them in order leaves each product in its latest state
+            replayed = pendingChanges.size();
+            for (Change change : pendingChanges) {
+                removeDocument(change.productId());
+                if (change.document() != null) {
+                    put(change.productId(), change.document());
+                }
+            }
+            pendingChanges = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index loaded {} products ({} grams) and replayed {} changes in {} ms",
+                products.size(), postings.size(), replayed, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (event.isDeleted()) {
+            remove(product.getProductId());
+        } else {
+            index(product.getProductId(), product.getName(), product.getSku(), product.getDescription());
+        }
+    }
+
+    public void index(Long productId, String name, String sku, String description) {
+        String document = toDocument(name, sku, description);
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(productId, document));
+            }
+            removeDocument(productId);
+            put(productId, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(productId, null));
+            }
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean canSearch(String query) {
+        return ready && query != null && query.length() >= GRAM_SIZE;
+    }
+
+    // Returns the ascending ids of products whose name, SKU or description contains the query
+    public long[] search(String query) {
+        String normalized = normalize(query);
+        Set<String> grams = grams(normalized);
+
+        lock.readLock().lock();
+        try {
+            LongPostingList[] lists = new LongPostingList[grams.size()];
+            int i = 0;
+            for (String gram : grams) {
+                LongPostingList list = postings.get(gram);
+                if (list == null) {
+                    return NO_MATCHES;
+                }
+                lists[i++] = list;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+            long[] candidates = lists[0].toArray();
+            int matches = 0;
+            for (long candidate : candidates) {
+                if (containsAll(lists, candidate) && documents.get(candidate).contains(normalized)) {
+                    candidates[matches++] = candidate;
+                }
+            }
+            return Arrays.copyOf(candidates, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean containsAll(LongPostingList[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(long productId, String document) {
+        documents.put(productId, document);
+        for (String gram : grams(document)) {
+            postings.computeIfAbsent(gram, key -> new LongPostingList()).add(productId);
+        }
+    }
+
+    private void removeDocument(long productId) {
+        String previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            LongPostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(productId);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String toDocument(String name, String sku, String description) {
+        return normalize(name) + FIELD_SEPARATOR + normalize(sku) + FIELD_SEPARATOR + normalize(description);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    // A null document records a removal
+    private record Change(long productId, String document) {
+    }
+}
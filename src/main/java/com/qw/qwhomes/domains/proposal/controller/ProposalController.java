@@ -1,17 +1,28 @@
 package com.qw.qwhomes.domains.proposal.controller;
 
-import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
+import com.qw.qwhomes.common.service.ExportFormat;
+import com.qw.qwhomes.common.service.impl.StreamingExportService;
+import com.qw.qwhomes.common.web.CachedResourceSupport;
+import com.qw.qwhomes.common.web.StreamingExportSupport;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
 import com.qw.qwhomes.domains.proposal.data.entity.ProposalProduct;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalDTO;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalDashboardDTO;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalDocumentStatusDTO;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalResponseDTO;
 import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalExportCache;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalPreRenderer;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
+import com.qw.qwhomes.domains.proposal.service.export.ProposalTableExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
@@ -26,14 +37,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import com.qw.qwhomes.common.service.impl.ExcelExportService;
-import com.qw.qwhomes.domains.proposal.data.repository.ProposalRepository;
-import org.springframework.core.io.InputStreamResource;
-import java.io.ByteArrayInputStream;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.io.IOException;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 
 @RestController
@@ -43,12 +52,12 @@ import java.nio.file.Paths;
 public class ProposalController {
 
     private final ProposalService proposalService;
-    private final ExcelExportService excelExportService;
-    private final ProposalRepository proposalRepository;
-
-    private static final String[] PROPOSAL_HEADERS = {
-            "ID", "Name", "Client", "Apartment Type", "Status", "Total Price", "Discount",  "Created Date"
-    };
+    private final StreamingExportService streamingExportService;
+    private final StreamingExportSupport streamingExportSupport;
+    private final ProposalTableExport proposalTableExport;
+    private final CachedResourceSupport cachedResourceSupport;
+    private final ProposalExportCache proposalExportCache;
+    private final ProposalPreRenderer proposalPreRenderer;
 
     @PostMapping
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -82,6 +91,14 @@ public class ProposalController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER')")
+    @Operation(summary = "Get proposals by cursor",
+            description = "Pass an empty cursor for the first page, then the nextCursor of the previous page")
+    public ResponseEntity<CursorResponse<ProposalResponseDTO>> getAllProposalsByCursor(Pageable pageable, @RequestParam String cursor) {
+        return ResponseEntity.ok(proposalService.getAllProposals(new CursorRequest(cursor, pageable)));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @Operation(summary = "Delete a proposal")
@@ -108,32 +125,33 @@ public class ProposalController {
 
     @GetMapping("/{id}/export/pdf")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER')")
-    @Operation(summary = "Export proposal as PDF")
+    @Operation(summary = "Export proposal as PDF, rendered once per proposal version")
     public ResponseEntity<Resource> exportProposalAsPdf(@PathVariable Long id) throws IOException {
-        String filePath = proposalService.exportProposalAsPdf(id);
-        Path path = Paths.get(filePath);
-        Resource resource = new UrlResource(path.toUri());
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+        return document(id, ProposalFile.FileFormat.PDF);
     }
 
     @GetMapping("/{id}/export/excel")
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER')")
-    @Operation(summary = "Export proposal as Excel")
+    @Operation(summary = "Export proposal as Excel, rendered once per proposal version")
     public ResponseEntity<Resource> exportProposalAsExcel(@PathVariable Long id) throws IOException {
-        String filePath = proposalService.exportProposalAsExcel(id);
-        Path path = Paths.get(filePath);
-        Resource resource = new UrlResource(path.toUri());
+        return document(id, ProposalFile.FileFormat.EXCEL);
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+    @GetMapping("/{id}/documents/status")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER')")
+    @Operation(summary = "Get the progress of rendering the proposal documents after it was finalized or approved")
+    public ResponseEntity<ProposalDocumentStatusDTO> getDocumentStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(proposalPreRenderer.getStatus(id));
     }
 
+    @PostMapping("/{id}/archive")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Operation(summary = "Archive the proposal as a PDF or EXCEL proposal file and download it")
+    public ResponseEntity<Resource> archiveProposal(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "PDF") ProposalFile.FileFormat format) throws IOException {
+        Resource resource = new FileSystemResource(Paths.get(proposalService.archiveProposal(id, format)));
+        return cachedResourceSupport.download(resource, MediaType.parseMediaType(format.getContentType()), resource.getFilename());
+    }
 
     @GetMapping("/metadata")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
@@ -142,35 +160,28 @@ public class ProposalController {
         return ResponseEntity.ok(proposalService.getProposalMetadata());
     }
 
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER')")
+    @GetMapping("/export")
+    @Operation(summary = "Export all proposals as excel, csv or ndjson, streamed while they are read")
+    public ResponseEntity<StreamingResponseBody> exportAllProposals(
+            @RequestParam(value = "format", defaultValue = "excel") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = streamingExportSupport.formatOf(format);
+        return streamingExportSupport.attachment(exportFormat, proposalTableExport.getName(), acceptEncoding,
+                out -> streamingExportService.write(exportFormat, proposalTableExport, out));
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER')")
     @GetMapping("/export/excel")
     @Operation(summary = "Export all proposals to Excel")
-    public ResponseEntity<InputStreamResource> exportAllProposalsToExcel() throws IOException {
-        List<Proposal> proposals = proposalRepository.findAll();
-
-        ByteArrayInputStream in = excelExportService.exportToExcel(
-                proposals,
-                PROPOSAL_HEADERS,
-                "Proposals",
-                proposal -> new Object[]{
-                        proposal.getId(),
-                        proposal.getName(),
-                        proposal.getClient() != null ? proposal.getClient().getName() : "N/A",
-                        proposal.getApartmentType() != null ? proposal.getApartmentType().getName() : "N/A",
-                        proposal.getStatus() != null ? proposal.getStatus().name() : "N/A",
-                        proposal.getTotalPrice(),
-                        proposal.getDiscount(),
-                        proposal.getCreatedAt() != null ? proposal.getCreatedAt().toString() : "N/A"
-                }
-        );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Content-Disposition", "attachment; filename=proposals.xlsx");
-
-        return ResponseEntity
-                .ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new InputStreamResource(in));
+    public ResponseEntity<StreamingResponseBody> exportAllProposalsToExcel() {
+        return exportAllProposals(ExportFormat.EXCEL.getValue(), null);
+    }
+
+    private ResponseEntity<Resource> document(Long id, ProposalFile.FileFormat format) throws IOException {
+        ProposalSnapshot snapshot = proposalService.getProposalSnapshot(id);
+        Resource resource = new FileSystemResource(proposalExportCache.get(snapshot, format));
+        return cachedResourceSupport.download(resource, MediaType.parseMediaType(format.getContentType()),
+                "proposal_" + id + "." + format.getExtension());
     }
 }
@@ -14,28 +14,38 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "proposal")
+@NamedEntityGraph(name = Proposal.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("apartmentType")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Proposal extends BaseEntity {
 
+    public static final String LIST_GRAPH = "Proposal.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proposal_id_seq")
-    @SequenceGenerator(name = "proposal_id_seq", sequenceName = "proposal_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "proposal_id_seq", sequenceName = "proposal_id_seq", allocationSize = 50)
     @Column(name = "proposal_id")
     private Long id;
 
@@ -59,10 +69,15 @@ public class Proposal extends BaseEntity {
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
 
+    // Collections cannot be fetch joined into a paged query, they are loaded for the whole page in batches.
+    // Lines load in id order, so documents list them the same way on every render
     @OneToMany(mappedBy = "proposal", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @BatchSize(size = 50)
     private List<ProposalProduct> proposalProducts = new ArrayList<>();
 
     @OneToMany(mappedBy = "proposal", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<ProposalFile> proposalFiles = new ArrayList<>();
 
     public enum ProposalStatus {
@@ -19,6 +19,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "proposal_file")
 @Getter
@@ -30,7 +32,7 @@ public class ProposalFile extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proposal_file_id_seq")
-    @SequenceGenerator(name = "proposal_file_id_seq", sequenceName = "proposal_file_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "proposal_file_id_seq", sequenceName = "proposal_file_id_seq", allocationSize = 50)
     @Column(name = "file_id")
     private Long id;
 
@@ -45,7 +47,32 @@ public class ProposalFile extends BaseEntity {
     @Column(name = "file_format", nullable = false)
     private FileFormat fileFormat;
 
+    // Proposal version the file was rendered from
+    @Column(name = "proposal_version")
+    private LocalDateTime proposalVersion;
+
+    // Hash of everything the file prints, also covers product and apartment type names the version does not
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     public enum FileFormat {
-        PDF, EXCEL
+        PDF("pdf", "application/pdf"),
+        EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String extension;
+        private final String contentType;
+
+        FileFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
     }
 }
@@ -27,7 +27,7 @@ public class ProposalProduct extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proposal_product_id_seq")
-    @SequenceGenerator(name = "proposal_product_id_seq", sequenceName = "proposal_product_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "proposal_product_id_seq", sequenceName = "proposal_product_id_seq", allocationSize = 50)
     @Column(name = "proposal_product_id")
     private Long id;
 
@@ -2,8 +2,14 @@ package com.qw.qwhomes.domains.proposal.data.repository;
 
 import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProposalFileRepository extends JpaRepository<ProposalFile, Long> {
+
+    @Query("SELECT f FROM ProposalFile f WHERE f.proposal.id = :proposalId AND f.fileFormat = :fileFormat")
+    List<ProposalFile> findByProposalAndFormat(Long proposalId, ProposalFile.FileFormat fileFormat);
 }
@@ -2,14 +2,45 @@ package com.qw.qwhomes.domains.proposal.data.repository;
 
 import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalDashboardDTO;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface ProposalRepository extends JpaRepository<Proposal, Long>, JpaSpecificationExecutor<Proposal> {
 
+    @Override
+    @EntityGraph(Proposal.LIST_GRAPH)
+    Page<Proposal> findAll(Pageable pageable);
+
+    @EntityGraph(Proposal.LIST_GRAPH)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Proposal p ORDER BY p.id")
+    Stream<Proposal> streamAllForExport();
+
+    // Line edits alone do not dirty the proposal row, forcing the increment keeps the version that keys cached documents current
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT p FROM Proposal p WHERE p.id = :id")
+    Optional<Proposal> findForUpdate(Long id);
+
+    // Everything the proposal documents print in one statement, so the snapshot can be rendered detached
+    @Query("SELECT p FROM Proposal p JOIN FETCH p.apartmentType LEFT JOIN FETCH p.proposalProducts pp " +
+            "LEFT JOIN FETCH pp.product WHERE p.id = :id ORDER BY pp.id")
+    Optional<Proposal> findForDocument(Long id);
+
     @Query("SELECT new com.qw.qwhomes.domains.proposal.service.dto.ProposalDashboardDTO(" +
             "COUNT(p), SUM(CASE WHEN p.status = 'DRAFT' THEN 1 ELSE 0 END), SUM(CASE WHEN p.status = 'FINALIZED' THEN 1 ELSE 0 END), " +
             "SUM(CASE WHEN p.status = 'APPROVED' THEN 1 ELSE 0 END)) FROM Proposal p")
@@ -1,20 +1,29 @@
 package com.qw.qwhomes.domains.proposal.service;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalDTO;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalDashboardDTO;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalResponseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface ProposalService {
     ProposalResponseDTO createProposal(ProposalDTO createDTO);
     ProposalResponseDTO updateProposal(Long id, ProposalDTO updateDTO);
     ProposalResponseDTO getProposal(Long id);
     Page<ProposalResponseDTO> getAllProposals(Pageable pageable);
+    CursorResponse<ProposalResponseDTO> getAllProposals(CursorRequest cursorRequest);
     void deleteProposal(Long id);
     ProposalResponseDTO finalizeProposal(Long id);
     ProposalResponseDTO approveProposal(Long id);
-    String exportProposalAsPdf(Long id);
-    String exportProposalAsExcel(Long id);
+    ProposalSnapshot getProposalSnapshot(Long id);
+    void renderProposal(ProposalSnapshot snapshot, ProposalFile.FileFormat format, OutputStream out) throws IOException;
+    String archiveProposal(Long id, ProposalFile.FileFormat format);
     ProposalDashboardDTO getProposalMetadata();
 }
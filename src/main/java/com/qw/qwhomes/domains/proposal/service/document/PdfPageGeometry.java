@@ -0,0 +1,15 @@
+package com.qw.qwhomes.domains.proposal.service.document;
+
+/**
+ * Vertical positions and sizes of the proposal table, in PDF points from the bottom of the page.
+ */
+record PdfPageGeometry(
+        float tableTop,
+        float firstTableTop,
+        float tableBottom,
+        float headerHeight,
+        float leading,
+        float rowPadding,
+        float nameColumnWidth,
+        int maxNameLines) {
+}
@@ -0,0 +1,73 @@
+package com.qw.qwhomes.domains.proposal.service.document;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Component
+public class ProposalExcelRenderer {
+
+    public void render(ProposalSnapshot snapshot, OutputStream out) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Proposal");
+
+            // Create cell styles
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            // Proposal details
+            Row titleRow = sheet.createRow(0);
+            titleRow.createCell(0).setCellValue("Proposal: " + snapshot.name());
+            titleRow.getCell(0).setCellStyle(headerStyle);
+
+            Row detailsRow1 = sheet.createRow(1);
+            detailsRow1.createCell(0).setCellValue("Apartment Type: " + snapshot.apartmentTypeName());
+
+            Row detailsRow2 = sheet.createRow(2);
+            detailsRow2.createCell(0).setCellValue("Status: " + snapshot.status());
+
+            Row detailsRow3 = sheet.createRow(3);
+            detailsRow3.createCell(0).setCellValue("Total Price: AED " + snapshot.totalPrice());
+
+            // Product table header
+            Row headerRow = sheet.createRow(5);
+            headerRow.createCell(0).setCellValue("Product");
+            headerRow.createCell(1).setCellValue("Quantity");
+            headerRow.createCell(2).setCellValue("Price");
+            headerRow.createCell(3).setCellValue("Total");
+            headerRow.forEach(cell -> cell.setCellStyle(headerStyle));
+
+            // Product table content
+            int rowNum = 6;
+            for (ProposalSnapshot.Line line : snapshot.lines()) {
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(line.productName());
+                if (line.quantity() != null) {
+                    row.createCell(1).setCellValue(line.quantity());
+                }
+                if (line.price() != null) {
+                    row.createCell(2).setCellValue(line.price());
+                }
+                if (line.totalPrice() != null) {
+                    row.createCell(3).setCellValue(line.totalPrice());
+                }
+            }
+
+            // Auto-size columns
+            for (int i = 0; i < 4; i++) {
+                sheet.autoSizeColumn(i);
+            }
+
+            workbook.write(out);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.qw.qwhomes.domains.proposal.service.document;
+
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalFileRepository;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalRepository;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.event.ProposalChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Rendered proposal documents keyed by {@code (proposalId, format, contentHash)}, where the hash covers everything
+ * the document prints. Each rendered file is recorded as a {@link ProposalFile} along with the proposal's optimistic
+ * lock version. A hit serves any recorded file with that hash, including archived ones. A miss renders once per key
+ * while concurrent callers wait for that render.
+ * <p>
+ * After a render the rows of strictly older versions are dropped, but their files are kept for one more cycle, so a
+ * download that looked one up just before can still open it. The next render of that format deletes them once they
+ * are past a short grace period. Finalized and approved proposals are rendered ahead of the first download by the
+ * {@link ProposalPreRenderer}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProposalExportCache {
+
+    // Covers a render of another key whose file is in place but whose row is not saved yet
+    private static final Duration ORPHAN_GRACE_PERIOD = Duration.ofMinutes(5);
+
+    private final ProposalService proposalService;
+    private final ProposalRepository proposalRepository;
+    private final ProposalFileRepository proposalFileRepository;
+
+    @Value("${proposal.export.path}")
+    private String exportPath;
+
+    private final ConcurrentMap<Key, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the file for the snapshot's content, rendering it if no recorded file exists yet.
+     */
+    public Path get(ProposalSnapshot snapshot, ProposalFile.FileFormat format) {
+        Key key = new Key(snapshot.id(), format, snapshot.contentHash());
+        List<ProposalFile> files = proposalFileRepository.findByProposalAndFormat(key.proposalId(), format);
+        Path cached = find(files, key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, render);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // A render of this key may have completed between the lookup and claiming the key
+            files = proposalFileRepository.findByProposalAndFormat(key.proposalId(), format);
+            Path path = find(files, key);
+            if (path == null) {
+                path = render(snapshot, key);
+                evictSuperseded(key, snapshot.version(), path);
+            }
+            render.complete(path);
+            return path;
+        } catch (RuntimeException e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, render);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProposalChanged(ProposalChangedEvent event) {
+        if (event.isDeleted()) {
+            evictAll(event.getProposalId());
+        }
+    }
+
+    private Path find(List<ProposalFile> files, Key key) {
+        for (ProposalFile file : files) {
+            if (Objects.equals(file.getContentHash(), key.contentHash()) && Files.isRegularFile(Paths.get(file.getFilePath()))) {
+                return Paths.get(file.getFilePath());
+            }
+        }
+        return null;
+    }
+
+    private Path render(ProposalSnapshot snapshot, Key key) {
+        Path directory = cacheDirectory();
+        Path target = directory.resolve(snapshot.fileName(key.format(), key.contentHash()));
+        try {
+            Files.createDirectories(directory);
+            // Rendered aside and moved into place, so a crashed render never leaves a truncated file under the final name
+            Path temp = Files.createTempFile(directory, "render-", ".tmp");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                    proposalService.renderProposal(snapshot, key.format(), out);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Failed to generate " + key.format() + ": " + e.getMessage());
+        }
+
+        proposalFileRepository.save(ProposalFile.builder()
+                .proposal(proposalRepository.getReferenceById(key.proposalId()))
+                .filePath(target.toString())
+                .fileFormat(key.format())
+                .proposalVersion(snapshot.version())
+                .contentHash(key.contentHash())
+                .build());
+        return target;
+    }
+
+    // Only files this cache rendered are evicted, archived copies of older versions stay. A caller holding an older
+    // snapshot never evicts newer versions, and rows of the same version with other content are left to the next
+    // version bump, since it cannot tell which content is the current one
+    private void evictSuperseded(Key key, LocalDateTime version, Path rendered) {
+        List<ProposalFile> files = proposalFileRepository.findByProposalAndFormat(key.proposalId(), key.format());
+        deleteOrphans(key, files, rendered);
+
+        List<ProposalFile> superseded = files.stream()
+                .filter(this::isCached)
+                .filter(file -> isOlder(file.getProposalVersion(), version))
+                .toList();
+        if (!superseded.isEmpty()) {
+            proposalFileRepository.deleteAll(superseded);
+        }
+    }
+
+    // Files whose rows an earlier render dropped, their one cycle of grace is over
+    private void deleteOrphans(Key key, List<ProposalFile> files, Path rendered) {
+        Path directory = cacheDirectory();
+        Set<Path> referenced = files.stream().map(file -> Paths.get(file.getFilePath())).collect(Collectors.toSet());
+        Instant cutoff = Instant.now().minus(ORPHAN_GRACE_PERIOD);
+        String pattern = "proposal_" + key.proposalId() + "_*." + key.format().getExtension();
+        try (DirectoryStream<Path> cached = Files.newDirectoryStream(directory, pattern)) {
+            for (Path path : cached) {
+                if (!path.equals(rendered) && !referenced.contains(path) && isModifiedBefore(path, cutoff)) {
+                    deleteQuietly(path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not evict superseded documents of proposal {}", key.proposalId(), e);
+        }
+    }
+
+    // The file rows went with the proposal, only the files are left to remove
+    private void evictAll(Long proposalId) {
+        Path directory = cacheDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "proposal_" + proposalId + "_*")) {
+            files.forEach(ProposalExportCache::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not evict cached documents of proposal {}", proposalId, e);
+        }
+    }
+
+    private boolean isCached(ProposalFile file) {
+        return Paths.get(file.getFilePath()).startsWith(cacheDirectory());
+    }
+
+    private Path cacheDirectory() {
+        return Paths.get(exportPath, "proposals");
+    }
+
+    // Rows rendered before versions were recorded count as older than any version
+    private static boolean isOlder(LocalDateTime version, LocalDateTime than) {
+        return than != null && (version == null || version.isBefore(than));
+    }
+
+    private static boolean isModifiedBefore(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> render) {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete cached document {}", path, e);
+        }
+    }
+
+    private record Key(Long proposalId, ProposalFile.FileFormat format, String contentHash) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.qw.qwhomes.domains.proposal.service.document;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders a proposal as a paginated table: the proposal details on the first page, the table header repeated on
+ * every page, a subtotal at the bottom of each page and the grand total on the last one. Layout is computed up
+ * front by {@link ProposalTableLayout}, so every line is measured and drawn exactly once.
+ */
+@Component
+public class ProposalPdfRenderer {
+
+    private static final PDFont FONT = PDType1Font.HELVETICA;
+    private static final PDFont BOLD_FONT = PDType1Font.HELVETICA_BOLD;
+    private static final float FONT_SIZE = 12;
+    private static final float TITLE_FONT_SIZE = 18;
+    private static final float FOOTER_FONT_SIZE = 9;
+
+    private static final float MARGIN = 50;
+    private static final float[] COLUMNS = {MARGIN, 250, 350, 450};
+    private static final String[] HEADERS = {"Product", "Quantity", "Price", "Total"};
+    private static final float SUBTOTAL_Y = 50;
+    private static final float FOOTER_Y = 30;
+
+    static final PdfPageGeometry GEOMETRY = new PdfPageGeometry(
+            750, 650, 70, 20, 14, 6, COLUMNS[1] - COLUMNS[0] - 10, 6);
+
+    public void render(ProposalSnapshot snapshot, OutputStream out) throws IOException {
+        ProposalTableLayout layout = new ProposalTableLayout(snapshot.lines(), FONT, FONT_SIZE, GEOMETRY);
+        ProposalTableLayout.TextWrapper wrapper = new ProposalTableLayout.TextWrapper(FONT, FONT_SIZE);
+        List<ProposalSnapshot.Line> lines = snapshot.lines();
+        // One instance per render, DecimalFormat is not thread safe
+        DecimalFormat amount = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.ROOT));
+
+        try (PDDocument document = new PDDocument()) {
+            int pages = layout.pageCount();
+            for (int page = 0; page < pages; page++) {
+                PDPage pdPage = new PDPage(PDRectangle.LETTER);
+                document.addPage(pdPage);
+                try (PDPageContentStream stream = new PDPageContentStream(document, pdPage)) {
+                    float tableTop = GEOMETRY.tableTop();
+                    if (page == 0) {
+                        drawDetails(stream, snapshot, wrapper, amount);
+                        tableTop = GEOMETRY.firstTableTop();
+                    }
+                    drawHeader(stream, tableTop);
+
+                    float y = tableTop - GEOMETRY.headerHeight();
+                    double subtotal = 0;
+                    stream.setFont(FONT, FONT_SIZE);
+                    for (int i = layout.firstLine(page); i < layout.endLine(page); i++) {
+                        ProposalSnapshot.Line line = lines.get(i);
+                        drawRow(stream, y, layout.nameLines(i), line, amount);
+                        subtotal += line.totalPrice() != null ? line.totalPrice() : 0;
+                        y -= layout.rowHeight(i);
+                    }
+
+                    text(stream, BOLD_FONT, FONT_SIZE, COLUMNS[0], SUBTOTAL_Y, "Page subtotal: AED " + amount.format(subtotal));
+                    if (page == pages - 1) {
+                        text(stream, BOLD_FONT, FONT_SIZE, COLUMNS[2], SUBTOTAL_Y, "Total: AED " + format(amount, snapshot.totalPrice()));
+                    }
+                    text(stream, FONT, FOOTER_FONT_SIZE, COLUMNS[3], FOOTER_Y, "Page " + (page + 1) + " of " + pages);
+                }
+            }
+            document.save(out);
+        }
+    }
+
+    private void drawDetails(PDPageContentStream stream, ProposalSnapshot snapshot, ProposalTableLayout.TextWrapper wrapper,
+                             DecimalFormat amount) throws IOException {
+        text(stream, BOLD_FONT, TITLE_FONT_SIZE, MARGIN, 750, "Proposal: " + wrapper.printable(snapshot.name()));
+        text(stream, FONT, FONT_SIZE, MARGIN, 720, "Apartment Type: " + wrapper.printable(snapshot.apartmentTypeName()));
+        text(stream, FONT, FONT_SIZE, MARGIN, 700, "Status: " + snapshot.status());
+        text(stream, FONT, FONT_SIZE, MARGIN, 680, "Total Price: AED " + format(amount, snapshot.totalPrice()));
+    }
+
+    private void drawHeader(PDPageContentStream stream, float y) throws IOException {
+        stream.setFont(BOLD_FONT, FONT_SIZE);
+        for (int column = 0; column < HEADERS.length; column++) {
+            cell(stream, COLUMNS[column], y, HEADERS[column]);
+        }
+    }
+
+    private void drawRow(PDPageContentStream stream, float y, String[] nameLines, ProposalSnapshot.Line line,
+                         DecimalFormat amount) throws IOException {
+        for (int i = 0; i < nameLines.length; i++) {
+            cell(stream, COLUMNS[0], y - i * GEOMETRY.leading(), nameLines[i]);
+        }
+        cell(stream, COLUMNS[1], y, line.quantity() != null ? String.valueOf(line.quantity()) : "");
+        cell(stream, COLUMNS[2], y, "AED " + format(amount, line.price()));
+        cell(stream, COLUMNS[3], y, "AED " + format(amount, line.totalPrice()));
+    }
+
+    private static void text(PDPageContentStream stream, PDFont font, float size, float x, float y, String value) throws IOException {
+        stream.setFont(font, size);
+        cell(stream, x, y, value);
+    }
+
+    private static void cell(PDPageContentStream stream, float x, float y, String value) throws IOException {
+        stream.beginText();
+        stream.newLineAtOffset(x, y);
+        stream.showText(value);
+        stream.endText();
+    }
+
+    private static String format(DecimalFormat amount, Double value) {
+        return value != null ? amount.format(value) : "-";
+    }
+}
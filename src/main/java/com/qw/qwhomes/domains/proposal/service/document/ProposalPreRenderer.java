@@ -0,0 +1,277 @@
+package com.qw.qwhomes.domains.proposal.service.document;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalDocumentStatusDTO;
+import com.qw.qwhomes.domains.proposal.service.event.ProposalChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Renders the documents of finalized and approved proposals into the {@link ProposalExportCache} before anyone asks
+ * for them. Status changes are put on a bounded queue drained by a fixed number of virtual thread workers, and a
+ * failed render is queued again after an exponential backoff, so no worker sits idle while it waits. A download
+ * arriving while its document renders waits for that render instead of starting another one. Queue depth, queue wait
+ * and render duration are published as {@code proposal.prerender.*} meters.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProposalPreRenderer {
+
+    private static final ProposalFile.FileFormat[] FORMATS = ProposalFile.FileFormat.values();
+
+    private final ProposalService proposalService;
+    private final ProposalExportCache proposalExportCache;
+    private final MeterRegistry meterRegistry;
+    private final MessageSource messageSource;
+
+    @Value("${application.proposals.prerender.workers:2}")
+    private int workers;
+
+    @Value("${application.proposals.prerender.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${application.proposals.prerender.offer-timeout:PT0.1S}")
+    private Duration offerTimeout;
+
+    @Value("${application.proposals.prerender.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${application.proposals.prerender.retry-backoff:PT2S}")
+    private Duration retryBackoff;
+
+    // Proposals waiting in the queue, a queued proposal renders its latest version once it is picked up
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Cache<Long, ProposalDocumentStatusDTO> statuses = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+    private final AtomicInteger active = new AtomicInteger();
+    private BlockingQueue<Task> queue;
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private Timer renderTimer;
+    private Timer waitTimer;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("proposal.prerender.queue.depth", queue, Collection::size)
+                .description("Proposals waiting to be pre-rendered")
+                .register(meterRegistry);
+        Gauge.builder("proposal.prerender.active", active, AtomicInteger::get)
+                .description("Proposals being pre-rendered")
+                .register(meterRegistry);
+        renderTimer = Timer.builder("proposal.prerender.duration")
+                .description("Time to render every document format of a proposal")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        waitTimer = Timer.builder("proposal.prerender.wait")
+                .description("Time a proposal waited in the pre-render queue")
+                .register(meterRegistry);
+
+        // The worker count bounds how many renders run at once, blocked workers only park their virtual thread
+        workerPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("proposal-prerender-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("proposal-prerender-retry").factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        retryScheduler.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    public ProposalDocumentStatusDTO getStatus(Long proposalId) {
+        ProposalDocumentStatusDTO status = statuses.getIfPresent(proposalId);
+        if (status == null) {
+            throw new ResourceNotFoundException(messageSource.getMessage("proposal.documents.notScheduled", new Object[]{proposalId}, Locale.getDefault()));
+        }
+        return status;
+    }
+
+    // Finalized and approved proposals no longer change, so their documents are rendered ahead of the first download
+    @TransactionalEventListener
+    public void onProposalChanged(ProposalChangedEvent event) {
+        if (event.isDeleted()) {
+            statuses.invalidate(event.getProposalId());
+            return;
+        }
+        if (event.getStatus() != Proposal.ProposalStatus.DRAFT) {
+            submit(event.getProposalId());
+        }
+    }
+
+    private void submit(Long proposalId) {
+        if (!pending.add(proposalId)) {
+            return;
+        }
+        statuses.put(proposalId, ProposalDocumentStatusDTO.builder()
+                .proposalId(proposalId)
+                .state(ProposalDocumentStatusDTO.State.QUEUED)
+                .progress(0)
+                .attempts(0)
+                .queuedAt(LocalDateTime.now())
+                .build());
+
+        boolean accepted;
+        try {
+            // Waits briefly so a burst of status changes is absorbed instead of dropped
+            accepted = queue.offer(new Task(proposalId, System.nanoTime(), 1, null), offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            reject(proposalId);
+        }
+    }
+
+    private void reject(Long proposalId) {
+        pending.remove(proposalId);
+        outcome("rejected");
+        update(proposalId, status -> status.toBuilder().state(ProposalDocumentStatusDTO.State.REJECTED).build());
+        log.warn("Pre-render queue full, proposal {} will render on first download", proposalId);
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.remove(task.proposalId());
+            waitTimer.record(System.nanoTime() - task.queuedAt(), TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                render(task);
+            } catch (Throwable e) {
+                // Nothing restarts a worker, so whatever escapes a render must not end the loop
+                log.warn("Pre-rendering proposal {} failed", task.proposalId(), e);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private void render(Task task) {
+        Long proposalId = task.proposalId();
+        LocalDateTime startedAt = task.startedAt() != null ? task.startedAt() : LocalDateTime.now();
+        update(proposalId, status -> status.toBuilder()
+                .state(ProposalDocumentStatusDTO.State.RENDERING)
+                .progress(0)
+                .attempts(task.attempt())
+                .startedAt(startedAt)
+                .build());
+        long start = System.nanoTime();
+        try {
+            ProposalSnapshot snapshot = proposalService.getProposalSnapshot(proposalId);
+            for (int i = 0; i < FORMATS.length; i++) {
+                proposalExportCache.get(snapshot, FORMATS[i]);
+                int progress = (i + 1) * 100 / FORMATS.length;
+                update(proposalId, status -> status.toBuilder().progress(progress).build());
+            }
+            long elapsed = System.nanoTime() - start;
+            renderTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            // Metrics are recorded before the status is published, so whoever sees the new state also sees its outcome
+            outcome("ready");
+            update(proposalId, status -> status.toBuilder()
+                    .state(ProposalDocumentStatusDTO.State.READY)
+                    .renderMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .errorMessage(null)
+                    .completedAt(LocalDateTime.now())
+                    .build());
+        } catch (ResourceNotFoundException e) {
+            // Deleted while it was queued or rendering
+            statuses.invalidate(proposalId);
+        } catch (Error e) {
+            // Not retried, an out of memory, stack overflow or missing class from PDFBox or POI comes back on every attempt
+            fail(proposalId, task.attempt(), e);
+        } catch (RuntimeException e) {
+            if (task.attempt() >= maxAttempts) {
+                fail(proposalId, task.attempt(), e);
+                return;
+            }
+            String message = message(e);
+            outcome("retried");
+            update(proposalId, status -> status.toBuilder()
+                    .state(ProposalDocumentStatusDTO.State.RETRYING)
+                    .errorMessage(message)
+                    .build());
+            Task retry = new Task(proposalId, 0, task.attempt() + 1, startedAt);
+            Duration backoff = retryBackoff.multipliedBy(1L << (task.attempt() - 1));
+            retryScheduler.schedule(() -> requeue(retry), backoff.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void fail(Long proposalId, int attempts, Throwable e) {
+        String message = message(e);
+        outcome("failed");
+        update(proposalId, status -> status.toBuilder()
+                .state(ProposalDocumentStatusDTO.State.FAILED)
+                .errorMessage(message)
+                .completedAt(LocalDateTime.now())
+                .build());
+        log.warn("Pre-rendering proposal {} failed after {} attempts, it will render on first download", proposalId, attempts, e);
+    }
+
+    private static String message(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    // Runs on the scheduler thread, so it never waits for room in the queue
+    private void requeue(Task retry) {
+        if (!pending.add(retry.proposalId())) {
+            // A status change queued the proposal during the backoff, that render replaces this retry
+            return;
+        }
+        if (!queue.offer(new Task(retry.proposalId(), System.nanoTime(), retry.attempt(), retry.startedAt()))) {
+            reject(retry.proposalId());
+        }
+    }
+
+    // Statuses are replaced rather than changed, so a status handed to a caller never changes under it
+    private void update(Long proposalId, UnaryOperator<ProposalDocumentStatusDTO> change) {
+        statuses.asMap().computeIfPresent(proposalId, (id, status) -> change.apply(status));
+    }
+
+    private void outcome(String outcome) {
+        meterRegistry.counter("proposal.prerender.outcomes", "outcome", outcome).increment();
+    }
+
+    private record Task(Long proposalId, long queuedAt, int attempt, LocalDateTime startedAt) {
+    }
+}
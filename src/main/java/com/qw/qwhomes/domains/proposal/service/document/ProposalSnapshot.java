@@ -0,0 +1,75 @@
+package com.qw.qwhomes.domains.proposal.service.document;
+
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalProduct;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Everything the proposal documents print, detached from the persistence context so rendering needs neither a
+ * transaction nor a connection.
+ */
+public record ProposalSnapshot(Long id, LocalDateTime version, String name, String apartmentTypeName, String status, Double totalPrice, List<Line> lines) {
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSSSSS");
+    private static final int HASH_PREFIX_LENGTH = 16;
+
+    // Lines are taken in id order whatever order the collection was loaded in, so the same content always hashes alike
+    public static ProposalSnapshot from(Proposal proposal) {
+        List<Line> lines = proposal.getProposalProducts().stream()
+                .sorted(Comparator.comparing(ProposalProduct::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(ProposalSnapshot::line)
+                .toList();
+        return new ProposalSnapshot(proposal.getId(), proposal.getUpdatedAt(), proposal.getName(), proposal.getApartmentType().getName(),
+                String.valueOf(proposal.getStatus()), proposal.getTotalPrice(), lines);
+    }
+
+    /**
+     * SHA-256 of everything the documents print. Product and apartment type names can change without bumping the
+     * proposal version, so rendered documents are matched by this hash rather than by the version alone.
+     */
+    public String contentHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, id, name, apartmentTypeName, status, totalPrice);
+            for (Line line : lines) {
+                update(digest, line.productName(), line.quantity(), line.price(), line.totalPrice());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Document file name for this version and content. Renders of the same content share a name, so writing one
+     * over another never leaves a file that differs from what its {@link ProposalFile} row records.
+     */
+    public String fileName(ProposalFile.FileFormat format, String contentHash) {
+        String formattedVersion = version != null ? version.format(VERSION_FORMAT) : "0";
+        return "proposal_" + id + "_" + formattedVersion + "_" + contentHash.substring(0, HASH_PREFIX_LENGTH) + "." + format.getExtension();
+    }
+
+    private static void update(MessageDigest digest, Object... values) {
+        for (Object value : values) {
+            // Separated so adjacent values cannot run into each other
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+
+    private static Line line(ProposalProduct product) {
+        return new Line(product.getProduct().getName(), product.getQuantity(), product.getPrice(), product.getTotalPrice());
+    }
+
+    public record Line(String productName, Integer quantity, Double price, Double totalPrice) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.qw.qwhomes.domains.proposal.service.document;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps product names and assigns table rows to pages in one pass over the lines, so rendering only has to walk
+ * the result once. Row positions are not stored: each page is drawn top down from its first row.
+ */
+final class ProposalTableLayout {
+
+    private final String[][] names;
+    private final float[] rowHeights;
+    // First line of every page followed by the line count, so page p holds lines [pageStarts[p], pageStarts[p + 1])
+    private final int[] pageStarts;
+
+    ProposalTableLayout(List<ProposalSnapshot.Line> lines, PDFont font, float fontSize, PdfPageGeometry geometry) throws IOException {
+        TextWrapper wrapper = new TextWrapper(font, fontSize);
+        names = new String[lines.size()][];
+        rowHeights = new float[lines.size()];
+
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        float y = geometry.firstTableTop() - geometry.headerHeight();
+        for (int i = 0; i < lines.size(); i++) {
+            names[i] = wrapper.wrap(lines.get(i).productName(), geometry.nameColumnWidth(), geometry.maxNameLines());
+            rowHeights[i] = names[i].length * geometry.leading() + geometry.rowPadding();
+            // A page always takes at least one row, otherwise an oversized row would never be placed
+            if (y - rowHeights[i] < geometry.tableBottom() && i > starts.get(starts.size() - 1)) {
+                starts.add(i);
+                y = geometry.tableTop() - geometry.headerHeight();
+            }
+            y -= rowHeights[i];
+        }
+        starts.add(lines.size());
+        pageStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    int pageCount() {
+        return pageStarts.length - 1;
+    }
+
+    int firstLine(int page) {
+        return pageStarts[page];
+    }
+
+    int endLine(int page) {
+        return pageStarts[page + 1];
+    }
+
+    String[] nameLines(int line) {
+        return names[line];
+    }
+
+    float rowHeight(int line) {
+        return rowHeights[line];
+    }
+
+    /**
+     * Greedy word wrap measured with the font metrics. Words wider than the column are broken between characters
+     * and text past the line limit is cut with an ellipsis.
+     */
+    static final class TextWrapper {
+
+        private static final String ELLIPSIS = "...";
+
+        private final PDFont font;
+        private final float fontSize;
+        private final float spaceWidth;
+
+        TextWrapper(PDFont font, float fontSize) throws IOException {
+            this.font = font;
+            this.fontSize = fontSize;
+            this.spaceWidth = width(" ");
+        }
+
+        String[] wrap(String text, float maxWidth, int maxLines) throws IOException {
+            String printable = printable(text);
+            List<String> lines = new ArrayList<>();
+            StringBuilder line = new StringBuilder();
+            float lineWidth = 0;
+            for (String word : printable.split(" ")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                float wordWidth = width(word);
+                if (!line.isEmpty() && lineWidth + spaceWidth + wordWidth <= maxWidth) {
+                    line.append(' ').append(word);
+                    lineWidth += spaceWidth + wordWidth;
+                    continue;
+                }
+                if (!line.isEmpty()) {
+                    lines.add(line.toString());
+                    line.setLength(0);
+                    lineWidth = 0;
+                }
+                if (wordWidth <= maxWidth) {
+                    line.append(word);
+                    lineWidth = wordWidth;
+                    continue;
+                }
+                for (int i = 0; i < word.length(); i++) {
+                    float charWidth = width(String.valueOf(word.charAt(i)));
+                    if (!line.isEmpty() && lineWidth + charWidth > maxWidth) {
+                        lines.add(line.toString());
+                        line.setLength(0);
+                        lineWidth = 0;
+                    }
+                    line.append(word.charAt(i));
+                    lineWidth += charWidth;
+                }
+            }
+            if (!line.isEmpty() || lines.isEmpty()) {
+                lines.add(line.toString());
+            }
+            if (lines.size() <= maxLines) {
+                return lines.toArray(String[]::new);
+            }
+            String[] kept = lines.subList(0, maxLines).toArray(String[]::new);
+            kept[maxLines - 1] = ellipsize(kept[maxLines - 1], maxWidth);
+            return kept;
+        }
+
+        private String ellipsize(String line, float maxWidth) throws IOException {
+            float ellipsisWidth = width(ELLIPSIS);
+            int end = line.length();
+            while (end > 0 && width(line.substring(0, end)) + ellipsisWidth > maxWidth) {
+                end--;
+            }
+            return line.substring(0, end) + ELLIPSIS;
+        }
+
+        // Standard 14 fonts only encode WinAnsi, anything else would make showText throw halfway through a page
+        String printable(String text) {
+            if (text == null) {
+                return "";
+            }
+            StringBuilder result = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    result.append(' ');
+                } else if (encodable(c)) {
+                    result.append(c);
+                } else {
+                    result.append('?');
+                }
+            }
+            return result.toString();
+        }
+
+        private boolean encodable(char c) {
+            try {
+                font.encode(String.valueOf(c));
+                return true;
+            } catch (IllegalArgumentException | IOException e) {
+                return false;
+            }
+        }
+
+        private float width(String text) throws IOException {
+            return font.getStringWidth(text) / 1000 * fontSize;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.qw.qwhomes.domains.proposal.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+public class ProposalDocumentStatusDTO {
+    private Long proposalId;
+    private State state;
+    private Integer progress;
+    private Integer attempts;
+    private Long renderMillis;
+    private String errorMessage;
+    private LocalDateTime queuedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public enum State {
+        QUEUED, RENDERING, RETRYING, READY, FAILED, REJECTED
+    }
+}
@@ -0,0 +1,13 @@
+package com.qw.qwhomes.domains.proposal.service.event;
+
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ProposalChangedEvent {
+    private final Long proposalId;
+    private final Proposal.ProposalStatus status;
+    private final boolean deleted;
+}
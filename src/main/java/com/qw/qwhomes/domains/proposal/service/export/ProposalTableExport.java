@@ -0,0 +1,59 @@
+package com.qw.qwhomes.domains.proposal.service.export;
+
+import com.qw.qwhomes.common.service.TableExport;
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class ProposalTableExport implements TableExport<Proposal> {
+
+    private static final String[] PROPOSAL_HEADERS = {
+            "ID", "Name", "Client", "Apartment Type", "Status", "Total Price", "Discount",  "Created Date"
+    };
+
+    private final ProposalRepository proposalRepository;
+
+    @Override
+    public String getName() {
+        return "proposals";
+    }
+
+    @Override
+    public String getTitle() {
+        return "Proposals";
+    }
+
+    @Override
+    public String[] getHeaders() {
+        return PROPOSAL_HEADERS;
+    }
+
+    @Override
+    public Stream<Proposal> stream() {
+        return proposalRepository.streamAllForExport();
+    }
+
+    @Override
+    public long count() {
+        return proposalRepository.count();
+    }
+
+    @Override
+    public Object[] toRow(Proposal proposal) {
+        return new Object[]{
+                proposal.getId(),
+                proposal.getName(),
+                proposal.getClient() != null ? proposal.getClient().getName() : "N/A",
+                proposal.getApartmentType() != null ? proposal.getApartmentType().getName() : "N/A",
+                proposal.getStatus() != null ? proposal.getStatus().name() : "N/A",
+                proposal.getTotalPrice(),
+                proposal.getDiscount(),
+                proposal.getCreatedAt() != null ? proposal.getCreatedAt().toString() : "N/A"
+        };
+    }
+}
@@ -1,7 +1,10 @@
 package com.qw.qwhomes.domains.proposal.service.impl;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.exceptions.BusinessException;
 import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.common.pagination.KeysetPaginator;
 import com.qw.qwhomes.domains.apartmenttype.data.entity.ApartmentType;
 import com.qw.qwhomes.domains.apartmenttype.data.repository.ApartmentTypeRepository;
 import com.qw.qwhomes.domains.client.data.entity.Client;
@@ -11,6 +14,7 @@ import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
 import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
 import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
 import com.qw.qwhomes.domains.proposal.data.entity.ProposalProduct;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalFileRepository;
 import com.qw.qwhomes.domains.proposal.data.repository.ProposalRepository;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalDTO;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalDashboardDTO;
@@ -18,33 +22,32 @@ import com.qw.qwhomes.domains.proposal.service.dto.ProposalProductDTO;
 import com.qw.qwhomes.domains.proposal.service.dto.ProposalResponseDTO;
 import com.qw.qwhomes.domains.proposal.service.mapper.ProposalMapper;
 import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalExcelRenderer;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalPdfRenderer;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
+import com.qw.qwhomes.domains.proposal.service.event.ProposalChangedEvent;
 import lombok.RequiredArgsConstructor;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -57,6 +60,11 @@ public class ProposalServiceImpl implements ProposalService {
     private final ProposalMapper proposalMapper;
     private final MessageSource messageSource;
     private final ClientRepository clientRepository;
+    private final KeysetPaginator keysetPaginator;
+    private final ProposalPdfRenderer proposalPdfRenderer;
+    private final ProposalExcelRenderer proposalExcelRenderer;
+    private final ProposalFileRepository proposalFileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${proposal.export.path}")
     private String exportPath;
@@ -91,7 +99,7 @@ public class ProposalServiceImpl implements ProposalService {
     @Override
     @Transactional
     public ProposalResponseDTO updateProposal(Long id, ProposalDTO updateDTO) {
-        Proposal proposal = proposalRepository.findById(id)
+        Proposal proposal = proposalRepository.findForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("proposal.notFound", new Object[]{id}, Locale.getDefault())));
 
         Double oldDiscount = proposal.getDiscount() != null ? proposal.getDiscount() : 0;
@@ -131,6 +139,12 @@ public class ProposalServiceImpl implements ProposalService {
         return proposalRepository.findAll(pageable).map(proposalMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<ProposalResponseDTO> getAllProposals(CursorRequest cursorRequest) {
+        return keysetPaginator.page(Proposal.class, Proposal.LIST_GRAPH, null, cursorRequest, proposalMapper::toDto);
+    }
+
     @Override
     @Transactional
     public void deleteProposal(Long id) {
@@ -142,6 +156,7 @@ public class ProposalServiceImpl implements ProposalService {
         }
 
         proposalRepository.delete(proposal);
+        eventPublisher.publishEvent(new ProposalChangedEvent(id, proposal.getStatus(), true));
     }
 
     @Override
@@ -156,6 +171,7 @@ public class ProposalServiceImpl implements ProposalService {
 
         proposal.setStatus(Proposal.ProposalStatus.FINALIZED);
         Proposal finalizedProposal = proposalRepository.save(proposal);
+        eventPublisher.publishEvent(new ProposalChangedEvent(id, Proposal.ProposalStatus.FINALIZED, false));
         return proposalMapper.toDto(finalizedProposal);
     }
 
@@ -171,55 +187,60 @@ public class ProposalServiceImpl implements ProposalService {
 
         proposal.setStatus(Proposal.ProposalStatus.APPROVED);
         Proposal approvedProposal = proposalRepository.save(proposal);
+        eventPublisher.publishEvent(new ProposalChangedEvent(id, Proposal.ProposalStatus.APPROVED, false));
         return proposalMapper.toDto(approvedProposal);
     }
 
     @Override
-    @Transactional
-    public String exportProposalAsPdf(Long id) {
-        Proposal proposal = proposalRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("proposal.notFound", new Object[]{id}, Locale.getDefault())));
-
-        try {
-            String pdfPath = generatePdf(proposal);
-
-            ProposalFile proposalFile = ProposalFile.builder()
-                    .proposal(proposal)
-                    .filePath(pdfPath)
-                    .fileFormat(ProposalFile.FileFormat.PDF)
-                    .build();
-
-            proposal.getProposalFiles().add(proposalFile);
-            proposalRepository.save(proposal);
+    @Transactional(readOnly = true)
+    public ProposalSnapshot getProposalSnapshot(Long id) {
+        return loadSnapshot(id);
+    }
 
-            return pdfPath;
-        } catch (IOException e) {
-            throw new BusinessException("Failed to generate PDF: " + e.getMessage());
+    // Called without a transaction: renderers only see the detached snapshot
+    @Override
+    public void renderProposal(ProposalSnapshot snapshot, ProposalFile.FileFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case PDF -> proposalPdfRenderer.render(snapshot, out);
+            case EXCEL -> proposalExcelRenderer.render(snapshot, out);
         }
     }
 
+    /**
+     * Renders the proposal into the export directory and records it as a {@link ProposalFile}. The proposal is read
+     * and the file row written in two short transactions, none is held while rendering.
+     */
     @Override
-    @Transactional
-    public String exportProposalAsExcel(Long id) {
-        Proposal proposal = proposalRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("proposal.notFound", new Object[]{id}, Locale.getDefault())));
+    public String archiveProposal(Long id, ProposalFile.FileFormat format) {
+        ProposalSnapshot snapshot = loadSnapshot(id);
+        String contentHash = snapshot.contentHash();
+        Path directory = Paths.get(exportPath);
+        Path target = directory.resolve(snapshot.fileName(format, contentHash));
 
         try {
-            String excelPath = generateExcel(proposal);
-
-            ProposalFile proposalFile = ProposalFile.builder()
-                    .proposal(proposal)
-                    .filePath(excelPath)
-                    .fileFormat(ProposalFile.FileFormat.EXCEL)
-                    .build();
-
-            proposal.getProposalFiles().add(proposalFile);
-            proposalRepository.save(proposal);
-
-            return excelPath;
+            Files.createDirectories(directory);
+            // Written aside and moved into place, so a concurrent archive or download never sees a truncated file
+            Path temp = Files.createTempFile(directory, "archive-", ".tmp");
+            try {
+                try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                    renderProposal(snapshot, format, outputStream);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
         } catch (IOException e) {
-            throw new BusinessException("Failed to generate Excel: " + e.getMessage());
+            throw new BusinessException("Failed to generate " + format + ": " + e.getMessage());
         }
+
+        proposalFileRepository.save(ProposalFile.builder()
+                .proposal(proposalRepository.getReferenceById(id))
+                .filePath(target.toString())
+                .fileFormat(format)
+                .proposalVersion(snapshot.version())
+                .contentHash(contentHash)
+                .build());
+        return target.toString();
     }
 
     @Override
@@ -228,8 +249,11 @@ public class ProposalServiceImpl implements ProposalService {
     }
 
     private List<ProposalProduct> createProposalProducts(List<ProposalProductDTO> productDTOs, Proposal proposal) {
+        // One query for all lines instead of a lookup per line
+        Map<Long, Product> products = productRepository.findAllById(productDTOs.stream().map(ProposalProductDTO::getProductId).toList()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
         return productDTOs.stream().map(dto -> {
-            Product product = productRepository.findById(dto.getProductId())
+            Product product = Optional.ofNullable(products.get(dto.getProductId()))
                     .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("product.notFound", new Object[]{dto.getProductId()}, Locale.getDefault())));
 
             ProposalProduct proposalProduct = proposalMapper.toEntity(dto);
@@ -250,151 +274,11 @@ public class ProposalServiceImpl implements ProposalService {
                 .map(ProposalProduct::getTotalPrice)
                 .reduce(0.0, Double::sum);
     }
-    private String generatePdf(Proposal proposal) throws IOException {
-        String fileName = "proposal_" + proposal.getId() + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ".pdf";
-        String filePath = exportPath + File.separator + fileName;
-
-        try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage();
-            document.addPage(page);
-
-            float margin = 50;
-            float yStart = 650;
-            float yPosition = yStart;
-            float bottomMargin = 70;
-            float rowHeight = 20;
-
-            while (true) {
-                try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-                    if (yPosition == yStart) {
-                        // Title
-                        contentStream.beginText();
-                        contentStream.setFont(PDType1Font.HELVETICA_BOLD, 18);
-                        contentStream.newLineAtOffset(50, 750);
-                        contentStream.showText("Proposal: " + proposal.getName());
-                        contentStream.endText();
-
-                        // Proposal details
-                        contentStream.beginText();
-                        contentStream.setFont(PDType1Font.HELVETICA, 12);
-                        contentStream.newLineAtOffset(50, 720);
-                        contentStream.showText("Apartment Type: " + proposal.getApartmentType().getName());
-                        contentStream.newLineAtOffset(0, -20);
-                        contentStream.showText("Status: " + proposal.getStatus());
-                        contentStream.newLineAtOffset(0, -20);
-                        contentStream.showText("Total Price: AED" + proposal.getTotalPrice());
-                        contentStream.endText();
-
-                        // Table header
-                        contentStream.setFont(PDType1Font.HELVETICA_BOLD, 12);
-                        contentStream.beginText();
-                        contentStream.newLineAtOffset(margin, yPosition);
-                        contentStream.showText("Product");
-                        contentStream.newLineAtOffset(200, 0);
-                        contentStream.showText("Quantity");
-                        contentStream.newLineAtOffset(100, 0);
-                        contentStream.showText("Price");
-                        contentStream.newLineAtOffset(100, 0);
-                        contentStream.showText("Total");
-                        contentStream.endText();
-
-                        yPosition -= rowHeight;
-                    }
-
-                    // Table content
-                    contentStream.setFont(PDType1Font.HELVETICA, 12);
-                    for (ProposalProduct product : proposal.getProposalProducts()) {
-                        if (yPosition < bottomMargin) {
-                            break;
-                        }
-
-                        contentStream.beginText();
-                        contentStream.newLineAtOffset(margin, yPosition);
-                        contentStream.showText(product.getProduct().getName());
-                        contentStream.newLineAtOffset(200, 0);
-                        contentStream.showText(String.valueOf(product.getQuantity()));
-                        contentStream.newLineAtOffset(100, 0);
-                        contentStream.showText("AED " + product.getPrice());
-                        contentStream.newLineAtOffset(100, 0);
-                        contentStream.showText("AED " + product.getTotalPrice());
-                        contentStream.endText();
-
-                        yPosition -= rowHeight;
-                    }
-                }
-
-                if (yPosition >= bottomMargin) {
-                    break;
-                }
-
-                page = new PDPage();
-                document.addPage(page);
-                yPosition = yStart;
-            }
-
-            document.save(filePath);
-        }
-
-        return filePath;
-    }
 
-    private String generateExcel(Proposal proposal) throws IOException {
-        String fileName = "proposal_" + proposal.getId() + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ".xlsx";
-        String filePath = exportPath + File.separator + fileName;
-
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Proposal");
-
-            // Create cell styles
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-
-            // Proposal details
-            Row titleRow = sheet.createRow(0);
-            titleRow.createCell(0).setCellValue("Proposal: " + proposal.getName());
-            titleRow.getCell(0).setCellStyle(headerStyle);
-
-            Row detailsRow1 = sheet.createRow(1);
-            detailsRow1.createCell(0).setCellValue("Apartment Type: " + proposal.getApartmentType().getName());
-
-            Row detailsRow2 = sheet.createRow(2);
-            detailsRow2.createCell(0).setCellValue("Status: " + proposal.getStatus());
-
-            Row detailsRow3 = sheet.createRow(3);
-            detailsRow3.createCell(0).setCellValue("Total Price: AED " + proposal.getTotalPrice());
-
-            // Product table header
-            Row headerRow = sheet.createRow(5);
-            headerRow.createCell(0).setCellValue("Product");
-            headerRow.createCell(1).setCellValue("Quantity");
-            headerRow.createCell(2).setCellValue("Price");
-            headerRow.createCell(3).setCellValue("Total");
-            headerRow.forEach(cell -> cell.setCellStyle(headerStyle));
-
-            // Product table content
-            int rowNum = 6;
-            for (ProposalProduct product : proposal.getProposalProducts()) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(product.getProduct().getName());
-                row.createCell(1).setCellValue(product.getQuantity());
-                row.createCell(2).setCellValue(product.getPrice());
-                row.createCell(3).setCellValue(product.getTotalPrice());
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < 4; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Write the workbook to a file
-            try (FileOutputStream outputStream = new FileOutputStream(filePath)) {
-                workbook.write(outputStream);
-            }
-        }
-
-        return filePath;
+    private ProposalSnapshot loadSnapshot(Long id) {
+        Proposal proposal = proposalRepository.findForDocument(id)
+                .orElseThrow(() -> new ResourceNotFoundException(messageSource.getMessage("proposal.notFound", new Object[]{id}, Locale.getDefault())));
+        return ProposalSnapshot.from(proposal);
     }
 
     private void updateProposalProducts(List<ProposalProductDTO> productDTOs, Proposal proposal) {
@@ -1,24 +1,25 @@
 package com.qw.qwhomes.domains.supplier.controller;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.dto.PageableResponse;
-import com.qw.qwhomes.common.service.impl.ExcelExportService;
-import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
-import com.qw.qwhomes.domains.supplier.data.repository.SupplierRepository;
+import com.qw.qwhomes.common.service.ExportFormat;
+import com.qw.qwhomes.common.service.impl.StreamingExportService;
+import com.qw.qwhomes.common.web.StreamingExportSupport;
 import com.qw.qwhomes.domains.supplier.service.SupplierService;
 import com.qw.qwhomes.domains.supplier.service.dto.SupplierDashboardDTO;
 import com.qw.qwhomes.domains.supplier.service.dto.SupplierRequestDTO;
 import com.qw.qwhomes.domains.supplier.service.dto.SupplierResponseDTO;
+import com.qw.qwhomes.domains.supplier.service.export.SupplierTableExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -29,12 +30,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -44,14 +44,11 @@ import java.util.Map;
 public class SupplierController {
 
     private final SupplierService supplierService;
-    private final ExcelExportService excelExportService;
-    private final SupplierRepository supplierRepository;
+    private final StreamingExportService streamingExportService;
+    private final StreamingExportSupport streamingExportSupport;
+    private final SupplierTableExport supplierTableExport;
     private final MessageSource messageSource;
 
-    private static final String[] SUPPLIER_HEADERS = {
-            "ID", "Name", "Business Registration Number", "Primary Contact Name", "Phone Number", "Email"
-    };
-
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Create a new supplier")
@@ -77,6 +74,16 @@ public class SupplierController {
         return ResponseEntity.ok(new PageableResponse<>(supplierService.getAllSuppliers(pageable, queryParams)));
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get suppliers by cursor with search",
+            description = "Pass an empty cursor for the first page, then the nextCursor of the previous page")
+    public ResponseEntity<CursorResponse<SupplierResponseDTO>> getAllSuppliersByCursor(
+            Pageable pageable,
+            @RequestParam Map<String,String> queryParams) {
+        return ResponseEntity.ok(supplierService.getAllSuppliers(new CursorRequest(queryParams.get("cursor"), pageable), queryParams));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Update an existing supplier")
@@ -112,33 +119,21 @@ public class SupplierController {
         return ResponseEntity.ok(supplierService.getSuppliersMetaData());
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/export")
+    @Operation(summary = "Export suppliers as excel, csv or ndjson, streamed while they are read")
+    public ResponseEntity<StreamingResponseBody> exportSuppliers(
+            @RequestParam(value = "format", defaultValue = "excel") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = streamingExportSupport.formatOf(format);
+        return streamingExportSupport.attachment(exportFormat, supplierTableExport.getName(), acceptEncoding,
+                out -> streamingExportService.write(exportFormat, supplierTableExport, out));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/export/excel")
     @Operation(summary = "Export suppliers to Excel")
-    public ResponseEntity<InputStreamResource> exportToExcel() throws IOException {
-        List<Supplier> suppliers = supplierRepository.findAll();
-
-        ByteArrayInputStream in = excelExportService.exportToExcel(
-                suppliers,
-                SUPPLIER_HEADERS,
-                "Suppliers",
-                supplier -> new Object[]{
-                        supplier.getId(),
-                        supplier.getName(),
-                        supplier.getBusinessRegistrationNumber(),
-                        supplier.getPrimaryContactName(),
-                        supplier.getPhoneNumber(),
-                        supplier.getEmail()
-                }
-        );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Content-Disposition", "attachment; filename=suppliers.xlsx");
-
-        return ResponseEntity
-                .ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new InputStreamResource(in));
+    public ResponseEntity<StreamingResponseBody> exportToExcel() {
+        return exportSuppliers(ExportFormat.EXCEL.getValue(), null);
     }
-}
\ No newline at end of file
+}
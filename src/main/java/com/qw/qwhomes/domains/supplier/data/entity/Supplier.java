@@ -32,7 +32,7 @@ public class Supplier extends BaseEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "supplier_seq")
-    @SequenceGenerator(name = "supplier_seq", sequenceName = "supplier_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "supplier_seq", sequenceName = "supplier_id_seq", allocationSize = 50)
     @Column(name = "supplier_id")
     private Long id;
 
@@ -2,17 +2,26 @@ package com.qw.qwhomes.domains.supplier.data.repository;
 
 import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
 import com.qw.qwhomes.domains.supplier.service.dto.SupplierDashboardDTO;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long>, JpaSpecificationExecutor<Supplier> {
     Optional<Supplier> findByNameAndBusinessRegistrationNumber(String name, String businessRegistrationNumber);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select sp from Supplier sp order by sp.id")
+    Stream<Supplier> streamAllForExport();
+
     @Query("""
         select new com.qw.qwhomes.domains.supplier.service.dto.SupplierDashboardDTO(
        count(sp),
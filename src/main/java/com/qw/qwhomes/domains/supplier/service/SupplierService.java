@@ -1,5 +1,7 @@
 package com.qw.qwhomes.domains.supplier.service;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.domains.supplier.service.dto.SupplierDashboardDTO;
 import com.qw.qwhomes.domains.supplier.service.dto.SupplierRequestDTO;
 import com.qw.qwhomes.domains.supplier.service.dto.SupplierResponseDTO;
@@ -16,6 +18,8 @@ public interface SupplierService {
 
     Page<SupplierResponseDTO> getAllSuppliers(Pageable pageable, Map<String,String> queryParams);
 
+    CursorResponse<SupplierResponseDTO> getAllSuppliers(CursorRequest cursorRequest, Map<String,String> queryParams);
+
     SupplierResponseDTO updateSupplier(Long id, SupplierRequestDTO supplierRequestDTO);
 
     void deleteSupplier(Long id);
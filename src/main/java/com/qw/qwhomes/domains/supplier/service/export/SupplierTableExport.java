@@ -0,0 +1,57 @@
+package com.qw.qwhomes.domains.supplier.service.export;
+
+import com.qw.qwhomes.common.service.TableExport;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import com.qw.qwhomes.domains.supplier.data.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class SupplierTableExport implements TableExport<Supplier> {
+
+    private static final String[] SUPPLIER_HEADERS = {
+            "ID", "Name", "Business Registration Number", "Primary Contact Name", "Phone Number", "Email"
+    };
+
+    private final SupplierRepository supplierRepository;
+
+    @Override
+    public String getName() {
+        return "suppliers";
+    }
+
+    @Override
+    public String getTitle() {
+        return "Suppliers";
+    }
+
+    @Override
+    public String[] getHeaders() {
+        return SUPPLIER_HEADERS;
+    }
+
+    @Override
+    public Stream<Supplier> stream() {
+        return supplierRepository.streamAllForExport();
+    }
+
+    @Override
+    public long count() {
+        return supplierRepository.count();
+    }
+
+    @Override
+    public Object[] toRow(Supplier supplier) {
+        return new Object[]{
+                supplier.getId(),
+                supplier.getName(),
+                supplier.getBusinessRegistrationNumber(),
+                supplier.getPrimaryContactName(),
+                supplier.getPhoneNumber(),
+                supplier.getEmail()
+        };
+    }
+}
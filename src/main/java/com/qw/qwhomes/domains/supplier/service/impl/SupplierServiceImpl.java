@@ -1,8 +1,14 @@
 package com.qw.qwhomes.domains.supplier.service.impl;
 
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
 import com.qw.qwhomes.common.exceptions.ResourceDuplicateException;
 import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.common.pagination.KeysetPaginator;
+import com.qw.qwhomes.common.search.SearchDialect;
+import com.qw.qwhomes.common.search.SearchTarget;
 import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.product.service.event.FacetLabelsChangedEvent;
 import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
 import com.qw.qwhomes.domains.supplier.data.repository.SupplierRepository;
 import com.qw.qwhomes.domains.supplier.service.SupplierService;
@@ -14,6 +20,7 @@ import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -26,6 +33,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +42,9 @@ public class SupplierServiceImpl implements SupplierService {
     private final SupplierRepository supplierRepository;
     private final SupplierMapper supplierMapper;
     private final MessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchDialect searchDialect;
+    private final KeysetPaginator keysetPaginator;
 
     @Override
     @Transactional
@@ -66,7 +77,9 @@ public class SupplierServiceImpl implements SupplierService {
                 ));
         supplierMapper.updateSupplierFromDto(supplierRequestDTO, supplier);
         supplier.setUpdatedBy(QWContext.get().getUserId());
-        return supplierMapper.toDto(supplierRepository.save(supplier));
+        Supplier updatedSupplier = supplierRepository.save(supplier);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
+        return supplierMapper.toDto(updatedSupplier);
     }
 
     @Override
@@ -78,6 +91,7 @@ public class SupplierServiceImpl implements SupplierService {
             );
         }
         supplierRepository.deleteById(id);
+        eventPublisher.publishEvent(new FacetLabelsChangedEvent());
     }
 
     @Transactional
@@ -110,15 +124,30 @@ public class SupplierServiceImpl implements SupplierService {
     @Override
     @Transactional(readOnly = true)
     public Page<SupplierResponseDTO> getAllSuppliers(Pageable pageable, Map<String,String> queryParams) {
-        Specification<Supplier> spec = (root, query, cb) -> {
+        Specification<Supplier> spec = supplierSpecification(queryParams);
+        if (MapUtils.isNotEmpty(queryParams) && StringUtils.isNotEmpty(queryParams.get("search")) && pageable.getSort().isUnsorted()) {
+            spec = spec.and(searchDialect.orderByRelevance(SearchTarget.SUPPLIER, queryParams.get("search")));
+        }
+        return supplierRepository.findAll(spec, pageable).map(supplierMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResponse<SupplierResponseDTO> getAllSuppliers(CursorRequest cursorRequest, Map<String,String> queryParams) {
+        boolean filtered = MapUtils.isNotEmpty(queryParams)
+                && Stream.of("search", "status", "location", "category").anyMatch(key -> StringUtils.isNotEmpty(queryParams.get(key)));
+        return keysetPaginator.page(Supplier.class, filtered ? supplierSpecification(queryParams) : null, cursorRequest, supplierMapper::toDto);
+    }
+
+    private Specification<Supplier> supplierSpecification(Map<String,String> queryParams) {
+        Specification<Supplier> searchSpec = MapUtils.isNotEmpty(queryParams) && StringUtils.isNotEmpty(queryParams.get("search"))
+                ? searchDialect.matches(SearchTarget.SUPPLIER, queryParams.get("search"))
+                : null;
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             if (MapUtils.isNotEmpty(queryParams)) {
-                if (StringUtils.isNotEmpty(queryParams.get("search"))) {
-                    String searchLower = "%" + queryParams.get("search").toLowerCase() + "%";
-                    predicates.add(cb.or(
-                            cb.like(cb.lower(root.get("name")), searchLower),
-                            cb.like(cb.lower(root.get("primaryContactName")), searchLower)
-                    ));
+                if (searchSpec != null) {
+                    predicates.add(searchSpec.toPredicate(root, query, cb));
                 }
 
                 if (StringUtils.isNotEmpty(queryParams.get("status"))) {
@@ -141,6 +170,5 @@ public class SupplierServiceImpl implements SupplierService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-        return supplierRepository.findAll(spec, pageable).map(supplierMapper::toDto);
     }
 }
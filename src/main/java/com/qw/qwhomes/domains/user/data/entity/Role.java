@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 public class Role {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_id_seq")
-    @SequenceGenerator(name = "role_id_seq", sequenceName = "role_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "role_id_seq", sequenceName = "role_id_seq", allocationSize = 50)
     @Column(name = "role_id")
     private Long id;
 
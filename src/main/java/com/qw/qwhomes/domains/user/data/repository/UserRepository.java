@@ -2,6 +2,8 @@ package com.qw.qwhomes.domains.user.data.repository;
 
 import com.qw.qwhomes.domains.user.data.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -9,4 +11,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Holds the user's row until the transaction ends, so checks made on behalf of one user run one at a time
+    @Query(value = "SELECT user_id FROM users WHERE user_id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long id);
 }
@@ -0,0 +1,121 @@
+package com.qw.qwhomes.common.unit_tests;
+
+import com.qw.qwhomes.common.web.CachedResourceSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CachedResourceSupportUnitTests {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes();
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-05-01T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.write(directory.resolve(HASH + ".png"), CONTENT);
+        Files.setLastModifiedTime(file, FileTime.from(LAST_MODIFIED));
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileController(new CachedResourceSupport(), new FileSystemResource(file))).build();
+    }
+
+    @Test
+    void contentAddressed_ShouldAnswerAMatchingIfNoneMatchWithNotModified() throws Exception {
+        mockMvc.perform(get("/image").header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void download_ShouldAnswerIfModifiedSinceWithNotModified() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(LAST_MODIFIED);
+
+        mockMvc.perform(get("/download").headers(headers))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void download_ShouldReturnTheFileWhenModifiedSince() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(LAST_MODIFIED.minusSeconds(60));
+
+        mockMvc.perform(get("/download").headers(headers))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void contentAddressed_ShouldServeARangeAsPartialContent() throws Exception {
+        mockMvc.perform(get("/image").header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/" + CONTENT.length))
+                .andExpect(content().bytes("0123456789".getBytes()));
+    }
+
+    @Test
+    void contentAddressed_ShouldMarkVersionedUrlsImmutable() throws Exception {
+        mockMvc.perform(get("/image").param("v", HASH))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")));
+    }
+
+    @Test
+    void contentAddressed_ShouldRevalidateUnversionedUrls() throws Exception {
+        mockMvc.perform(get("/image"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))));
+    }
+
+    // Calls the support the way ProductController and ProposalController do
+    @RestController
+    static class FileController {
+
+        private final CachedResourceSupport cachedResourceSupport;
+        private final Resource resource;
+
+        FileController(CachedResourceSupport cachedResourceSupport, Resource resource) {
+            this.cachedResourceSupport = cachedResourceSupport;
+            this.resource = resource;
+        }
+
+        @GetMapping("/image")
+        ResponseEntity<Resource> image(@RequestParam(required = false) String v) {
+            return cachedResourceSupport.contentAddressed(resource, HASH, HASH.equals(v));
+        }
+
+        @GetMapping("/download")
+        ResponseEntity<Resource> download() throws IOException {
+            return cachedResourceSupport.download(resource, MediaType.APPLICATION_PDF, "proposal.pdf");
+        }
+    }
+}
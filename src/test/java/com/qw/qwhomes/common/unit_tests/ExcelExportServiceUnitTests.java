@@ -0,0 +1,112 @@
+package com.qw.qwhomes.common.unit_tests;
+
+import com.qw.qwhomes.common.service.impl.ExcelExportService;
+import com.qw.qwhomes.common.service.impl.ExportRowReader;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ExcelExportServiceUnitTests {
+
+    // Well past the 100 rows SXSSF keeps in memory, so most rows go through its temp file
+    private static final int ROWS = 1_050;
+    private static final String[] HEADERS = {"ID", "Name", "Price", "Active"};
+
+    @TempDir
+    Path poiTempDir;
+
+    private ExcelExportService excelExportService;
+
+    @BeforeEach
+    void setUp() {
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(poiTempDir.toFile()));
+        excelExportService = new ExcelExportService(new ExportRowReader(mock(EntityManager.class)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+    }
+
+    @Test
+    void writeExcel_ShouldStreamEveryRowPastTheWindow() throws IOException {
+        AtomicLong tempFilesWhileWriting = new AtomicLong();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        excelExportService.writeExcel(() -> IntStream.rangeClosed(1, ROWS).boxed(), HEADERS, "Products", id -> {
+            if (id == ROWS) {
+                tempFilesWhileWriting.set(countTempFiles());
+            }
+            return new Object[]{id, "Product \"" + id + "\", oak", id * 1.5, id % 2 == 0};
+        }, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Products");
+            Row header = sheet.getRow(0);
+            for (int col = 0; col < HEADERS.length; col++) {
+                assertEquals(HEADERS[col], header.getCell(col).getStringCellValue());
+            }
+            assertEquals(ROWS, sheet.getLastRowNum());
+            assertEquals(ROWS + 1, sheet.getPhysicalNumberOfRows());
+
+            Row first = sheet.getRow(1);
+            assertEquals(1.0, first.getCell(0).getNumericCellValue());
+            assertEquals("Product \"1\", oak", first.getCell(1).getStringCellValue());
+            assertEquals(1.5, first.getCell(2).getNumericCellValue());
+            assertFalse(first.getCell(3).getBooleanCellValue());
+
+            Row last = sheet.getRow(ROWS);
+            assertEquals(ROWS, last.getCell(0).getNumericCellValue());
+            assertEquals("Product \"" + ROWS + "\", oak", last.getCell(1).getStringCellValue());
+            assertEquals(ROWS * 1.5, last.getCell(2).getNumericCellValue());
+            assertTrue(last.getCell(3).getBooleanCellValue());
+        }
+        assertTrue(tempFilesWhileWriting.get() > 0, "Rows past the window should be flushed to a temp file");
+        assertEquals(0, countTempFiles(), "Temp files should be disposed once the workbook is written");
+    }
+
+    @Test
+    void writeExcel_ShouldDisposeTempFilesWhenTheRowsFail() {
+        Stream<Integer> failing = IntStream.rangeClosed(1, ROWS).boxed().peek(id -> {
+            if (id == ROWS) {
+                throw new IllegalStateException("connection lost");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () ->
+                excelExportService.writeExcel(() -> failing, HEADERS, "Products", id -> new Object[]{id}, new ByteArrayOutputStream()));
+
+        assertEquals(0, countTempFiles());
+    }
+
+    private long countTempFiles() {
+        try (Stream<Path> files = Files.walk(poiTempDir)) {
+            return files.filter(Files::isRegularFile).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.qw.qwhomes.common.unit_tests;
+
+import com.qw.qwhomes.common.service.StoredImage;
+import com.qw.qwhomes.common.service.impl.ImageStoreImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageStoreSweepUnitTests {
+
+    private static final Duration GRACE_PERIOD = Duration.ofHours(1);
+
+    @TempDir
+    Path uploadPath;
+
+    private ImageStoreImpl imageStore;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new ImageStoreImpl();
+        ReflectionTestUtils.setField(imageStore, "uploadPath", uploadPath.toString());
+    }
+
+    @Test
+    void sweep_ShouldDeleteUnreferencedBlobPastGracePeriod() throws IOException {
+        StoredImage image = store("orphan");
+        age(image);
+
+        List<String> deleted = imageStore.sweep(cutoff(), hashes -> List.of());
+
+        assertEquals(List.of(image.path()), deleted);
+        assertFalse(Files.exists(uploadPath.resolve(image.path())));
+    }
+
+    @Test
+    void sweep_ShouldKeepReferencedBlob() throws IOException {
+        StoredImage image = store("referenced");
+        age(image);
+
+        List<String> deleted = imageStore.sweep(cutoff(), hashes -> hashes);
+
+        assertTrue(deleted.isEmpty());
+        assertTrue(Files.exists(uploadPath.resolve(image.path())));
+    }
+
+    @Test
+    void sweep_ShouldKeepBlobStoredAgainWhileItsRowIsNotCommitted() throws IOException {
+        StoredImage image = store("shared");
+        age(image);
+
+        // Same bytes uploaded again, its row is not committed yet
+        store("shared");
+        List<String> deleted = imageStore.sweep(cutoff(), hashes -> List.of());
+
+        assertTrue(deleted.isEmpty());
+        assertTrue(Files.exists(uploadPath.resolve(image.path())));
+    }
+
+    private StoredImage store(String content) {
+        return imageStore.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "image/png");
+    }
+
+    private void age(StoredImage image) throws IOException {
+        Files.setLastModifiedTime(uploadPath.resolve(image.path()), FileTime.from(Instant.now().minus(GRACE_PERIOD.multipliedBy(2))));
+    }
+
+    private static Instant cutoff() {
+        return Instant.now().minus(GRACE_PERIOD);
+    }
+}
@@ -0,0 +1,102 @@
+package com.qw.qwhomes.common.unit_tests;
+
+import com.qw.qwhomes.common.search.PostgresSearchDialect;
+import com.qw.qwhomes.common.search.SearchTarget;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Renders the search functions with the PostgreSQL dialect. The statement runs against H2, which has no full text
+// search and rejects it, but only after the SQL was rendered and inspected
+public class PostgresSearchDialectUnitTests {
+
+    private final List<String> statements = new ArrayList<>();
+    private final PostgresSearchDialect searchDialect = new PostgresSearchDialect();
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", false)
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:search-dialect")
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .applySetting(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .build();
+        sessionFactory = new MetadataSources(registry).addAnnotatedClass(SearchedProduct.class).buildMetadata().buildSessionFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void matches_ShouldRenderMatchConditionAgainstTheTargetTable() {
+        String sql = render(false);
+
+        assertTrue(sql.contains("in (select m.product_id from product m where "
+                + "m.search_vector @@ websearch_to_tsquery('simple', ?) OR m.search_text LIKE ?)"), sql);
+        assertFalse(sql.contains(" order by "), sql);
+    }
+
+    @Test
+    void orderByRelevance_ShouldRankByTextRankAndSimilarityThenId() {
+        String sql = render(true);
+
+        String orderBy = sql.substring(sql.indexOf(" order by "));
+        assertTrue(orderBy.contains("(select ts_rank(r.search_vector, websearch_to_tsquery('simple', ?)) "
+                + "+ similarity(r.search_text, ?) from product r where r.product_id = "), orderBy);
+        assertTrue(orderBy.matches("(?s).*\\) desc\\s*,\\s*\\w+\\.product_id(\\s+asc)?\\s*"), orderBy);
+    }
+
+    private String render(boolean ranked) {
+        try (Session session = sessionFactory.openSession()) {
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<SearchedProduct> query = cb.createQuery(SearchedProduct.class);
+            Root<SearchedProduct> root = query.from(SearchedProduct.class);
+            query.where(searchDialect.<SearchedProduct>matches(SearchTarget.PRODUCT, "Oak Table").toPredicate(root, query, cb));
+            if (ranked) {
+                searchDialect.<SearchedProduct>orderByRelevance(SearchTarget.PRODUCT, "Oak Table").toPredicate(root, query, cb);
+            }
+
+            assertThrows(RuntimeException.class, () -> session.createQuery(query).getResultList());
+        }
+        assertEquals(1, statements.size());
+        return statements.get(0);
+    }
+
+    @Entity
+    @Table(name = "product")
+    static class SearchedProduct {
+        @Id
+        @Column(name = "product_id")
+        Long productId;
+    }
+}
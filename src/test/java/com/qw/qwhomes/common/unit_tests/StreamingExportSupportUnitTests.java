@@ -0,0 +1,230 @@
+package com.qw.qwhomes.common.unit_tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qw.qwhomes.common.service.ExportFormat;
+import com.qw.qwhomes.common.service.TableExport;
+import com.qw.qwhomes.common.service.impl.ExcelExportService;
+import com.qw.qwhomes.common.service.impl.ExportRowReader;
+import com.qw.qwhomes.common.service.impl.StreamingExportService;
+import com.qw.qwhomes.common.web.StreamingExportSupport;
+import jakarta.persistence.EntityManager;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StreamingExportSupportUnitTests {
+
+    private static final String[] HEADERS = {"ID", "Name", "Unit Price"};
+    private static final List<Item> ITEMS = List.of(
+            new Item(1L, "Plain Lamp", 120.5),
+            new Item(2L, "Sofa, three \"seater\"", 899.0),
+            new Item(3L, "Shelf\nwith a back\\panel", null),
+            new Item(4L, "Café table ☕", 45.0));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ExportRowReader exportRowReader = new ExportRowReader(mock(EntityManager.class));
+        StreamingExportService streamingExportService =
+                new StreamingExportService(exportRowReader, new ExcelExportService(exportRowReader), objectMapper);
+        StreamingExportSupport streamingExportSupport = new StreamingExportSupport(new StaticMessageSource());
+        mockMvc = MockMvcBuilders.standaloneSetup(new ExportController(streamingExportService, streamingExportSupport)).build();
+    }
+
+    @Test
+    void csv_ShouldStreamAQuotedAttachment() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(start(get("/export").param("format", "csv"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportFormat.CSV.getMediaType()))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items.csv"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse();
+
+        assertCsv(new ByteArrayInputStream(response.getContentAsByteArray()));
+    }
+
+    @Test
+    void csv_ShouldBeGzippedWhenTheClientAcceptsIt() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(start(get("/export").param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, GZIP;q=0.8"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportFormat.CSV.getMediaType()))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items.csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        assertCsv(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())));
+    }
+
+    @Test
+    void ndjson_ShouldStreamOneEscapedObjectPerLine() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(start(get("/export").param("format", "ndjson"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportFormat.NDJSON.getMediaType()))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items.ndjson"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse();
+
+        assertNdjson(new ByteArrayInputStream(response.getContentAsByteArray()));
+    }
+
+    @Test
+    void ndjson_ShouldBeGzippedWhenTheClientAcceptsIt() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(start(get("/export").param("format", "ndjson")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportFormat.NDJSON.getMediaType()))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        assertNdjson(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())));
+    }
+
+    @Test
+    void excel_ShouldNotBeGzippedAgain() throws Exception {
+        mockMvc.perform(asyncDispatch(start(get("/export").param("format", "excel")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportFormat.EXCEL.getMediaType()))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items.xlsx"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().doesNotExist(HttpHeaders.VARY));
+    }
+
+    private MvcResult start(MockHttpServletRequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static void assertCsv(InputStream body) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = format.parse(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            assertEquals(List.of(HEADERS), parser.getHeaderNames());
+            List<CSVRecord> records = parser.getRecords();
+            assertEquals(ITEMS.size(), records.size());
+            for (int i = 0; i < ITEMS.size(); i++) {
+                Item item = ITEMS.get(i);
+                assertEquals(String.valueOf(item.id()), records.get(i).get("ID"));
+                assertEquals(item.name(), records.get(i).get("Name"));
+                assertEquals(item.price() == null ? "" : String.valueOf(item.price()), records.get(i).get("Unit Price"));
+            }
+        }
+    }
+
+    private void assertNdjson(InputStream body) throws IOException {
+        String text = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"));
+        List<String> lines = text.lines().toList();
+        assertEquals(ITEMS.size(), lines.size());
+        for (int i = 0; i < ITEMS.size(); i++) {
+            Item item = ITEMS.get(i);
+            JsonNode row = objectMapper.readTree(lines.get(i));
+            assertEquals(3, row.size());
+            assertEquals(item.id(), row.get("id").asLong());
+            assertEquals(item.name(), row.get("name").asText());
+            if (item.price() == null) {
+                assertTrue(row.get("unitPrice").isNull());
+            } else {
+                assertEquals(item.price(), row.get("unitPrice").asDouble());
+            }
+        }
+    }
+
+    record Item(Long id, String name, Double price) {
+    }
+
+    static class ItemTableExport implements TableExport<Item> {
+
+        @Override
+        public String getName() {
+            return "items";
+        }
+
+        @Override
+        public String getTitle() {
+            return "Items";
+        }
+
+        @Override
+        public String[] getHeaders() {
+            return HEADERS;
+        }
+
+        @Override
+        public Stream<Item> stream() {
+            return ITEMS.stream();
+        }
+
+        @Override
+        public long count() {
+            return ITEMS.size();
+        }
+
+        @Override
+        public Object[] toRow(Item item) {
+            return new Object[]{item.id(), item.name(), item.price()};
+        }
+    }
+
+    // Calls the support the way the product, supplier and proposal export endpoints do
+    @RestController
+    static class ExportController {
+
+        private final StreamingExportService streamingExportService;
+        private final StreamingExportSupport streamingExportSupport;
+        private final ItemTableExport itemTableExport = new ItemTableExport();
+
+        ExportController(StreamingExportService streamingExportService, StreamingExportSupport streamingExportSupport) {
+            this.streamingExportService = streamingExportService;
+            this.streamingExportSupport = streamingExportSupport;
+        }
+
+        @GetMapping("/export")
+        ResponseEntity<StreamingResponseBody> export(@RequestParam("format") String format,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+            ExportFormat exportFormat = streamingExportSupport.formatOf(format);
+            return streamingExportSupport.attachment(exportFormat, itemTableExport.getName(), acceptEncoding,
+                    out -> streamingExportService.write(exportFormat, itemTableExport, out));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.qw.qwhomes.domains.cache.integration_tests;
+
+import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.config.CacheNames;
+import com.qw.qwhomes.domains.cache.service.CacheAdminService;
+import com.qw.qwhomes.domains.cache.service.dto.CacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheAdminIntegrationTests {
+
+    @Autowired
+    private CacheAdminService cacheAdminService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache logoutTokens;
+
+    @BeforeEach
+    void setUp() {
+        logoutTokens = cacheManager.getCache(CacheNames.LOGOUT_TOKENS);
+        logoutTokens.clear();
+    }
+
+    @Test
+    void shouldApplyPerCacheSpecs() {
+        List<CacheStatsDTO> caches = cacheAdminService.getCaches();
+
+        assertEquals(100000L, find(caches, CacheNames.LOGOUT_TOKENS).getMaximum());
+        assertEquals(1000L, find(caches, CacheNames.PRODUCT_FACETS).getMaximum());
+        CacheStatsDTO colours = find(caches, "colour");
+        assertEquals(CacheStatsDTO.CacheKind.ENTITY, colours.getKind());
+        assertEquals(2000L, colours.getMaximum());
+    }
+
+    @Test
+    void shouldRecordHitsAndMisses() {
+        CacheStatsDTO before = cacheAdminService.getCache(CacheNames.LOGOUT_TOKENS);
+
+        logoutTokens.put("token", true);
+        logoutTokens.get("token");
+        logoutTokens.get("other");
+
+        CacheStatsDTO after = cacheAdminService.getCache(CacheNames.LOGOUT_TOKENS);
+        assertEquals(before.getHitCount() + 1, after.getHitCount());
+        assertEquals(before.getMissCount() + 1, after.getMissCount());
+        assertEquals(1, after.getSize());
+    }
+
+    @Test
+    void shouldEvictKeyAndClearCache() {
+        logoutTokens.put("first", true);
+        logoutTokens.put("second", true);
+
+        cacheAdminService.evict(CacheNames.LOGOUT_TOKENS, "first");
+        assertNull(logoutTokens.get("first"));
+        assertTrue(logoutTokens.get("second") != null);
+
+        cacheAdminService.clear(CacheNames.LOGOUT_TOKENS);
+        assertNull(logoutTokens.get("second"));
+    }
+
+    @Test
+    void shouldRejectUnknownCache() {
+        assertThrows(ResourceNotFoundException.class, () -> cacheAdminService.getCache("missing"));
+        assertThrows(ResourceNotFoundException.class, () -> cacheAdminService.clear("missing"));
+    }
+
+    private static CacheStatsDTO find(List<CacheStatsDTO> caches, String name) {
+        return caches.stream().filter(cache -> cache.getName().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,177 @@
+package com.qw.qwhomes.domains.cache.integration_tests;
+
+import com.qw.qwhomes.domains.apartmenttype.data.entity.ApartmentType;
+import com.qw.qwhomes.domains.apartmenttype.data.repository.ApartmentTypeRepository;
+import com.qw.qwhomes.domains.category.data.entity.Category;
+import com.qw.qwhomes.domains.category.data.repository.CategoryRepository;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.colour.data.repository.ColourRepository;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.repository.FurnitureFamilyRepository;
+import com.qw.qwhomes.domains.furniturefamily.data.repository.FurnitureSubFamilyRepository;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.material.data.repository.MaterialRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: the second-level cache is only filled and read across committed transactions
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class ReferenceDataCacheIntegrationTests {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ColourRepository colourRepository;
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Autowired
+    private FurnitureFamilyRepository furnitureFamilyRepository;
+
+    @Autowired
+    private FurnitureSubFamilyRepository furnitureSubFamilyRepository;
+
+    @Autowired
+    private ApartmentTypeRepository apartmentTypeRepository;
+
+    private Statistics statistics;
+    private Category category;
+    private Colour colour;
+    private Material material;
+    private FurnitureFamily family;
+    private FurnitureSubFamily subFamily;
+    private ApartmentType apartmentType;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            category = new Category();
+            category.setName("Cached Category");
+            category.setType(Category.CategoryType.Other);
+            category = categoryRepository.save(category);
+
+            colour = new Colour();
+            colour.setName("Cached Colour");
+            colour = colourRepository.save(colour);
+
+            material = new Material();
+            material.setName("Cached Material");
+            material = materialRepository.save(material);
+
+            family = new FurnitureFamily();
+            family.setName("Cached Family");
+            family = furnitureFamilyRepository.save(family);
+
+            subFamily = new FurnitureSubFamily();
+            subFamily.setName("Cached Sub Family");
+            subFamily.setFamily(family);
+            subFamily = furnitureSubFamilyRepository.save(subFamily);
+
+            apartmentType = new ApartmentType();
+            apartmentType.setName("Cached Apartment");
+            apartmentType.setNumberOfBedrooms(2);
+            apartmentType.setCategory(category);
+            apartmentType = apartmentTypeRepository.save(apartmentType);
+        });
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            apartmentTypeRepository.deleteById(apartmentType.getApartmentId());
+            furnitureSubFamilyRepository.deleteById(subFamily.getSubFamilyId());
+            furnitureFamilyRepository.deleteById(family.getFamilyId());
+            materialRepository.deleteById(material.getMaterialId());
+            colourRepository.deleteById(colour.getColourId());
+            categoryRepository.deleteById(category.getId());
+        });
+    }
+
+    @Test
+    void shouldServeReferenceEntitiesFromSecondLevelCache() {
+        transactionTemplate.executeWithoutResult(status -> loadReferences());
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> loadReferences());
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "Reference lookups should not reach the database once cached");
+        assertEquals(6, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void shouldInvalidateCachedEntityOnUpdate() {
+        transactionTemplate.executeWithoutResult(status -> colourRepository.findById(colour.getColourId()).orElseThrow());
+        transactionTemplate.executeWithoutResult(status ->
+                colourRepository.findById(colour.getColourId()).orElseThrow().setName("Renamed Colour"));
+
+        statistics.clear();
+        String name = transactionTemplate.execute(status -> colourRepository.findById(colour.getColourId()).orElseThrow().getName());
+
+        assertEquals("Renamed Colour", name);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldServeSmallLookupsFromQueryCache() {
+        transactionTemplate.executeWithoutResult(status -> runLookups());
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> runLookups());
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "Cached lookups should not reach the database");
+        assertTrue(statistics.getQueryCacheHitCount() >= 3);
+    }
+
+    @Test
+    void shouldInvalidateQueryCacheOnWrite() {
+        transactionTemplate.executeWithoutResult(status -> assertTrue(colourRepository.existsByNameIgnoreCase("cached colour")));
+        transactionTemplate.executeWithoutResult(status ->
+                colourRepository.findById(colour.getColourId()).orElseThrow().setName("Renamed Colour"));
+
+        Boolean exists = transactionTemplate.execute(status -> colourRepository.existsByNameIgnoreCase("cached colour"));
+
+        assertEquals(Boolean.FALSE, exists);
+    }
+
+    private void loadReferences() {
+        categoryRepository.findById(category.getId()).orElseThrow();
+        colourRepository.findById(colour.getColourId()).orElseThrow();
+        materialRepository.findById(material.getMaterialId()).orElseThrow();
+        furnitureFamilyRepository.findById(family.getFamilyId()).orElseThrow();
+        furnitureSubFamilyRepository.findById(subFamily.getSubFamilyId()).orElseThrow();
+        apartmentTypeRepository.findById(apartmentType.getApartmentId()).orElseThrow();
+    }
+
+    private void runLookups() {
+        List<Category> categories = categoryRepository.getCategoriesByType(Category.CategoryType.Other);
+        assertTrue(categories.stream().anyMatch(found -> found.getId().equals(category.getId())));
+        assertTrue(colourRepository.existsByNameIgnoreCase("cached colour"));
+        assertTrue(materialRepository.existsByNameIgnoreCase("cached material"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.qw.qwhomes.domains.export.integration_tests;
+
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.export.data.entity.ExportJob;
+import com.qw.qwhomes.domains.export.data.entity.ExportJobStatus;
+import com.qw.qwhomes.domains.export.data.entity.ExportJobType;
+import com.qw.qwhomes.domains.export.data.repository.ExportJobRepository;
+import com.qw.qwhomes.domains.export.service.ExportJobService;
+import com.qw.qwhomes.domains.export.service.dto.ExportArtifact;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobDTO;
+import com.qw.qwhomes.domains.export.service.dto.ExportJobRequestDTO;
+import com.qw.qwhomes.domains.export.service.runner.ExportJobExecutor;
+import com.qw.qwhomes.domains.user.data.entity.User;
+import com.qw.qwhomes.domains.user.data.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+// Not @Transactional: jobs are committed before they run and concurrent requests each commit their own
+@SpringBootTest(properties = "application.exports.max-active-per-user=" + ExportJobIntegrationTests.MAX_ACTIVE)
+@ActiveProfiles("test")
+public class ExportJobIntegrationTests {
+
+    static final int MAX_ACTIVE = 2;
+
+    @TempDir
+    static Path exportPath;
+
+    @DynamicPropertySource
+    static void exportPath(DynamicPropertyRegistry registry) {
+        registry.add("proposal.export.path", () -> exportPath.toString());
+    }
+
+    // Jobs only run when a test runs them, the others stay queued
+    @MockBean
+    private ExportJobExecutor exportJobExecutor;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("export-user");
+        user.setEmail("export-user@test.com");
+        user.setPasswordHash("hash");
+        user.setStatus("ACTIVE");
+        user = userRepository.save(user);
+        QWContext.set(new QWContext().setUserId(user.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportJobRepository.deleteAll(jobs());
+        userRepository.delete(user);
+        QWContext.clear();
+    }
+
+    @Test
+    void createJob_ShouldRunTableExportToDownloadableFile() {
+        doAnswer(invocation -> {
+            Thread worker = Thread.ofVirtual().start(invocation.<Runnable>getArgument(1));
+            worker.join();
+            return null;
+        }).when(exportJobExecutor).submit(anyInt(), any());
+
+        ExportJobDTO created = exportJobService.createJob(request());
+        ExportJobDTO job = exportJobService.getJob(created.getId());
+        ExportArtifact artifact = exportJobService.download(created.getId());
+
+        assertEquals(ExportJobStatus.QUEUED, created.getStatus());
+        assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(100, job.getProgress());
+        assertEquals("/api/v1/exports/" + created.getId() + "/download", job.getDownloadUrl());
+        assertTrue(artifact.resource().exists());
+        assertEquals("products.csv", artifact.fileName());
+    }
+
+    @Test
+    void createJob_ShouldAllowOnlyMaxActiveJobsForConcurrentRequests() throws Exception {
+        Callable<Boolean> create = () -> {
+            QWContext.set(new QWContext().setUserId(user.getId()));
+            try {
+                exportJobService.createJob(request());
+                return true;
+            } catch (BusinessException e) {
+                return false;
+            } finally {
+                QWContext.clear();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> requests = executor.invokeAll(IntStream.range(0, 8).mapToObj(i -> create).toList());
+            long accepted = 0;
+            for (Future<Boolean> request : requests) {
+                accepted += request.get() ? 1 : 0;
+            }
+
+            assertEquals(MAX_ACTIVE, accepted);
+            assertEquals(MAX_ACTIVE, jobs().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExportJobRequestDTO request() {
+        ExportJobRequestDTO request = new ExportJobRequestDTO();
+        request.setType(ExportJobType.PRODUCTS);
+        request.setFormat("csv");
+        return request;
+    }
+
+    private List<ExportJob> jobs() {
+        return exportJobRepository.findByCreatedByOrderByIdDesc(user.getId(), Pageable.unpaged()).getContent();
+    }
+}
@@ -0,0 +1,92 @@
+package com.qw.qwhomes.domains.furniturefamily.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.service.FurnitureFamilyService;
+import com.qw.qwhomes.domains.furniturefamily.service.dto.FurnitureSubFamilyDTO;
+import com.qw.qwhomes.domains.furniturefamily.service.dto.FurnitureSubFamilyResponseDTO;
+import com.qw.qwhomes.domains.user.data.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class FurnitureSubFamilyCreateStatementCountIntegrationTests {
+
+    private static final int SUB_FAMILIES = 200;
+    // Family, existing names and current subfamilies, then per 50 subfamilies one sequence call and one insert
+    // batch, plus a version bump on the family
+    private static final long MAX_STATEMENTS = 3 + 2 * (SUB_FAMILIES / 50) + 1;
+
+    @Autowired
+    private FurnitureFamilyService furnitureFamilyService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long familyId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("subfamily-user");
+        user.setEmail("subfamily-user@test.com");
+        user.setPasswordHash("hash");
+        user.setStatus("ACTIVE");
+        entityManager.persist(user);
+        QWContext.set(new QWContext().setUserId(user.getId()));
+
+        FurnitureFamily family = new FurnitureFamily();
+        family.setName("Family");
+        entityManager.persist(family);
+        entityManager.flush();
+        entityManager.clear();
+        familyId = family.getFamilyId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void createFurnitureSubFamily_ShouldBatchInserts() {
+        List<FurnitureSubFamilyDTO> subFamilies = new ArrayList<>();
+        for (int i = 0; i < SUB_FAMILIES; i++) {
+            FurnitureSubFamilyDTO subFamily = new FurnitureSubFamilyDTO();
+            subFamily.setName("Sub Family " + i);
+            subFamilies.add(subFamily);
+        }
+
+        FurnitureSubFamilyResponseDTO response = furnitureFamilyService.createFurnitureSubFamily(familyId, subFamilies);
+        entityManager.flush();
+
+        assertEquals(SUB_FAMILIES, response.getFurnitureSubFamilies().size());
+        assertEquals(SUB_FAMILIES, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Expected at most " + MAX_STATEMENTS + " statements but was " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,171 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.ProductBatchUpdateDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import com.qw.qwhomes.domains.user.data.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ProductBatchUpdateStatementCountIntegrationTests {
+
+    private static final int PRODUCTS = 100;
+    // Products, one lookup per reference type, colour and material collections in batches of 50, then one batched
+    // statement each for product updates, removed colour rows, the version bump of the added rows and added colour
+    // rows. A batched statement is prepared once however many batches it runs
+    private static final long MAX_STATEMENTS = 1 + 5 + 2 * (PRODUCTS / 50) + 4;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private FurnitureFamily family;
+    private FurnitureSubFamily subFamily;
+    private Supplier supplier;
+    private Colour red;
+    private Colour blue;
+    private Colour green;
+    private Material oak;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("batch-user");
+        user.setEmail("batch-user@test.com");
+        user.setPasswordHash("hash");
+        user.setStatus("ACTIVE");
+        entityManager.persist(user);
+        QWContext.set(new QWContext().setUserId(user.getId()));
+
+        family = new FurnitureFamily();
+        family.setName("Family");
+        entityManager.persist(family);
+
+        subFamily = new FurnitureSubFamily();
+        subFamily.setName("Sub Family");
+        subFamily.setFamily(family);
+        entityManager.persist(subFamily);
+
+        supplier = new Supplier();
+        supplier.setName("Supplier");
+        supplier.setPhoneNumber("+1234567890");
+        supplier.setEmail("supplier@test.com");
+        entityManager.persist(supplier);
+
+        red = colour("Batch Red");
+        blue = colour("Batch Blue");
+        green = colour("Batch Green");
+
+        oak = new Material();
+        oak.setName("Batch Oak");
+        entityManager.persist(oak);
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("BATCH-" + i);
+            product.setPrice(100.0 + i);
+            product.setStatus(ProductStatus.Active);
+            product.setFamily(family);
+            product.setSubFamily(subFamily);
+            product.setSupplier(supplier);
+            product.setColours(Set.of(red, blue));
+            product.setMaterials(Set.of(oak));
+            entityManager.persist(product);
+            productIds.add(product.getProductId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Reference lookups would otherwise depend on what earlier tests left in the second-level cache
+        entityManagerFactory.getCache().evictAll();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void updateProducts_ShouldResolveReferencesOnceAndWriteOnlyChangedJoinRows() {
+        List<ProductBatchUpdateDTO> updates = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            // PUT /batch replaces whole records, so every update carries the full, valid product
+            ProductDTO product = new ProductDTO();
+            product.setName("Renamed " + i);
+            product.setSku("BATCH-" + i);
+            product.setPrice(100.0 + i);
+            product.setHeight(80.0);
+            product.setLength(200.0);
+            product.setWidth(90.0);
+            product.setStatus(ProductStatus.Active);
+            product.setFamilyId(family.getFamilyId());
+            product.setSubFamilyId(subFamily.getSubFamilyId());
+            product.setSupplierId(supplier.getId());
+            // Blue stays, red is swapped for green, materials are unchanged
+            product.setColourIds(List.of(blue.getColourId(), green.getColourId()));
+            product.setMaterialIds(List.of(oak.getMaterialId()));
+
+            ProductBatchUpdateDTO update = new ProductBatchUpdateDTO();
+            update.setProductId(productIds.get(i));
+            update.setProduct(product);
+            updates.add(update);
+        }
+
+        List<ProductDTO> updated = productService.updateProducts(updates);
+        entityManager.flush();
+
+        assertEquals(PRODUCTS, updated.size());
+        updated.forEach(product -> {
+            assertTrue(product.getName().startsWith("Renamed"));
+            assertEquals(Set.of("Batch Blue", "Batch Green"),
+                    Set.copyOf(product.getColours().stream().map(colour -> colour.getName()).toList()));
+        });
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Expected at most " + MAX_STATEMENTS + " statements but was " + statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionRecreateCount(), "Join rows should be diffed, not rewritten");
+    }
+
+    private Colour colour(String name) {
+        Colour colour = new Colour();
+        colour.setName(name);
+        entityManager.persist(colour);
+        return colour;
+    }
+}
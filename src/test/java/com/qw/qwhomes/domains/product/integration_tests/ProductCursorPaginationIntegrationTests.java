@@ -0,0 +1,107 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.common.dto.CursorRequest;
+import com.qw.qwhomes.common.dto.CursorResponse;
+import com.qw.qwhomes.common.exceptions.BusinessException;
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ProductCursorPaginationIntegrationTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private ProductFilterDto filter;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+
+        FurnitureFamily family = new FurnitureFamily();
+        family.setName("Cursor Family");
+        entityManager.persist(family);
+
+        // Persisted out of name order, with a duplicate name so the id tie-breaker is exercised
+        for (String name : List.of("Cursor Desk", "Cursor Bed", "Cursor Lamp", "Cursor Bed", "Cursor Armchair")) {
+            Product product = new Product();
+            product.setName(name);
+            product.setSku("CURSOR-" + System.nanoTime());
+            product.setPrice(100.0);
+            product.setStatus(ProductStatus.Active);
+            product.setFamily(family);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+
+        filter = new ProductFilterDto();
+        filter.setFamilyIds(List.of(family.getFamilyId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void getAllProducts_ShouldWalkEveryRowOnceWhenSortedByName() {
+        List<String> names = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorResponse<ProductDTO> page = productService.getAllProducts(new CursorRequest(cursor, 2, Sort.by("name")), null, filter);
+            page.getData().forEach(product -> {
+                names.add(product.getName());
+                ids.add(product.getProductId());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("Cursor Armchair", "Cursor Bed", "Cursor Bed", "Cursor Desk", "Cursor Lamp"), names);
+        assertEquals(5, ids.stream().distinct().count());
+    }
+
+    @Test
+    void getAllProducts_ShouldRejectSortingByANullableColumn() {
+        CursorRequest request = new CursorRequest("", 2, Sort.by("description"));
+
+        assertThrows(BusinessException.class, () -> productService.getAllProducts(request, null, filter));
+    }
+
+    @Test
+    void getAllProducts_ShouldEndOnTheLastPage() {
+        CursorResponse<ProductDTO> page = productService.getAllProducts(new CursorRequest("", 10, Sort.by("name")), null, filter);
+
+        assertEquals(5, page.getData().size());
+        assertNull(page.getNextCursor());
+    }
+}
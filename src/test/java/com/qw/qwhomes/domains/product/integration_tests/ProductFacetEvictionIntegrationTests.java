@@ -0,0 +1,130 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.colour.data.repository.ColourRepository;
+import com.qw.qwhomes.domains.colour.service.ColourService;
+import com.qw.qwhomes.domains.colour.service.dto.ColourDTO;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.repository.FurnitureFamilyRepository;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.FacetCountDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Not @Transactional: cached facets are only evicted once the rename commits
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductFacetEvictionIntegrationTests {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ColourService colourService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ColourRepository colourRepository;
+
+    @Autowired
+    private FurnitureFamilyRepository furnitureFamilyRepository;
+
+    private FurnitureFamily family;
+    private Colour colour;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+        transactionTemplate.executeWithoutResult(status -> {
+            family = new FurnitureFamily();
+            family.setName("Eviction Family");
+            family = furnitureFamilyRepository.save(family);
+
+            colour = new Colour();
+            colour.setName("Eviction Blue");
+            colour = colourRepository.save(colour);
+
+            product = new Product();
+            product.setName("Eviction Lamp");
+            product.setSku("EVICTION-1");
+            product.setPrice(100.0);
+            product.setStatus(ProductStatus.Active);
+            product.setFamily(family);
+            product.setColours(Set.of(colour));
+            product = productRepository.save(product);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.deleteById(product.getProductId());
+            colourRepository.deleteById(colour.getColourId());
+            furnitureFamilyRepository.deleteById(family.getFamilyId());
+        });
+        QWContext.clear();
+    }
+
+    @Test
+    void getProductFacets_ShouldShowColourRenamedAfterTheCountsWereCached() {
+        ProductFilterDto filter = filter();
+        assertEquals(List.of("Eviction Blue"), colourNames(productService.getProductFacets(null, filter)));
+
+        rename("Eviction Navy");
+
+        assertEquals(List.of("Eviction Navy"), colourNames(productService.getProductFacets(null, filter)));
+    }
+
+    @Test
+    void getProductFacets_ShouldNotKeepLabelsCachedWhileTheRenameWasUncommitted() {
+        ProductFilterDto filter = filter();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            rename("Eviction Navy");
+            // A request on another connection still reads the committed name and caches it
+            List<String> concurrent = CompletableFuture.supplyAsync(() -> colourNames(productService.getProductFacets(null, filter))).join();
+            assertEquals(List.of("Eviction Blue"), concurrent);
+        });
+
+        assertEquals(List.of("Eviction Navy"), colourNames(productService.getProductFacets(null, filter)));
+    }
+
+    private void rename(String name) {
+        ColourDTO renamed = new ColourDTO();
+        renamed.setName(name);
+        colourService.updateColour(colour.getColourId(), renamed);
+    }
+
+    private ProductFilterDto filter() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setFamilyIds(List.of(family.getFamilyId()));
+        return filter;
+    }
+
+    private static List<String> colourNames(ProductFacetsDTO facets) {
+        return facets.getColours().stream().map(FacetCountDTO::getName).toList();
+    }
+}
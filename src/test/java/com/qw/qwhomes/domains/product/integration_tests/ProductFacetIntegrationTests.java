@@ -0,0 +1,104 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.FacetCountDTO;
+import com.qw.qwhomes.domains.product.service.dto.PriceRangeFacetDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ProductFacetIntegrationTests {
+
+    // Too short for the search index, so list and facets both go through the search dialect
+    private static final String SEARCH = "zq";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private FurnitureFamily family;
+    private Colour colour;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+
+        family = new FurnitureFamily();
+        family.setName("Facet Family");
+        entityManager.persist(family);
+
+        colour = new Colour();
+        colour.setName("Facet Blue");
+        entityManager.persist(colour);
+
+        product("Zq Lamp", "FACET-1", 100.0);
+        product("Zq Table", "FACET-2", 300.0);
+        product("Other Chair", "FACET-3", 2000.0);
+        entityManager.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void getProductFacets_ShouldCountTheRowsTheListReturns() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setFamilyIds(List.of(family.getFamilyId()));
+
+        ProductFacetsDTO facets = productService.getProductFacets(SEARCH, filter);
+        long listed = productService.getAllProducts(PageRequest.of(0, 20), SEARCH, filter).getTotalElements();
+
+        FacetCountDTO familyCount = facets.getFamilies().stream()
+                .filter(facet -> facet.getId().equals(family.getFamilyId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, listed);
+        assertEquals(listed, familyCount.getCount());
+    }
+
+    @Test
+    void getProductFacets_ShouldBucketMatchingPrices() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setFamilyIds(List.of(family.getFamilyId()));
+
+        ProductFacetsDTO facets = productService.getProductFacets(SEARCH, filter);
+
+        assertEquals(List.of(new PriceRangeFacetDTO(0.0, 500.0, 2L)), facets.getPriceRanges());
+    }
+
+    private void product(String name, String sku, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setSku(sku);
+        product.setPrice(price);
+        product.setStatus(ProductStatus.Active);
+        product.setFamily(family);
+        product.setColours(Set.of(colour));
+        entityManager.persist(product);
+    }
+}
@@ -0,0 +1,250 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.colour.service.dto.ColourDTO;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.material.service.dto.MaterialDTO;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.FacetCountDTO;
+import com.qw.qwhomes.domains.product.service.dto.PriceRangeFacetDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The facet counts are built in SQL apart from the list specification, every filter has to select the same products in both
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ProductFacetListConsistencyIntegrationTests {
+
+    // Too short for the search index, so list and facets both go through the search dialect
+    private static final String SEARCH = "zq";
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private FurnitureFamily alpha;
+    private FurnitureFamily beta;
+    private FurnitureSubFamily alphaSofas;
+    private FurnitureSubFamily betaTables;
+    private Supplier north;
+    private Supplier south;
+    private Colour red;
+    private Colour blue;
+    private Colour green;
+    private Material oak;
+    private Material steel;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+
+        alpha = family("Consistency Alpha");
+        beta = family("Consistency Beta");
+        alphaSofas = subFamily("Consistency Sofas", alpha);
+        betaTables = subFamily("Consistency Tables", beta);
+        north = supplier("Consistency North", "north");
+        south = supplier("Consistency South", "south");
+        red = colour("Consistency Red");
+        blue = colour("Consistency Blue");
+        green = colour("Consistency Green");
+        oak = material("Consistency Oak");
+        steel = material("Consistency Steel");
+
+        product("Zq Sofa", "CONSISTENCY-1", 300.0, 80.0, 200.0, 90.0, alphaSofas, north, Set.of(red, blue), Set.of(oak));
+        product("Zq Armchair", "CONSISTENCY-2", 800.0, 90.0, 100.0, 80.0, alphaSofas, south, Set.of(red), Set.of(oak, steel));
+        product("Zq Table", "CONSISTENCY-3", 1500.0, 75.0, 180.0, 100.0, betaTables, north, Set.of(blue, green), Set.of(steel));
+        product("Side Table", "CONSISTENCY-4", 4500.0, 60.0, 60.0, 60.0, betaTables, south, Set.of(green), Set.of());
+        product("Dining Table", "CONSISTENCY-5", 12000.0, 76.0, 240.0, 110.0, betaTables, north, Set.of(red, blue, green), Set.of(oak, steel));
+        product("Bench", "CONSISTENCY-6", 200.0, 45.0, 150.0, 40.0, alphaSofas, south, Set.of(), Set.of(oak));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void getProductFacets_ShouldCountTheProductsTheListReturnsForEveryFilter() {
+        Map<String, ProductFilterDto> filters = new LinkedHashMap<>();
+        filters.put("no filter", filter(f -> { }));
+        filters.put("family ids", filter(f -> f.setFamilyIds(List.of(alpha.getFamilyId()))));
+        filters.put("family name", filter(f -> f.setFamilyFilter("Consistency Be")));
+        filters.put("sub family ids", filter(f -> f.setSubFamilyIds(List.of(betaTables.getSubFamilyId()))));
+        filters.put("sub family name", filter(f -> f.setSubFamilyFilter("Consistency Sof")));
+        filters.put("supplier ids", filter(f -> f.setSupplierIds(List.of(north.getId()))));
+        filters.put("supplier name", filter(f -> f.setSupplierFilter("Consistency Sou")));
+        filters.put("price range", filter(f -> {
+            f.setPriceMin(300L);
+            f.setPriceMax(4500L);
+        }));
+        filters.put("any colour", filter(f -> f.setColourIds(List.of(red.getColourId(), green.getColourId()))));
+        filters.put("all colours", filter(f -> {
+            f.setColourIds(List.of(red.getColourId(), blue.getColourId()));
+            f.setColourMatch(ProductFilterDto.Match.ALL);
+        }));
+        filters.put("colour name", filter(f -> f.setColourFilter("Consistency Gr")));
+        filters.put("any material", filter(f -> f.setMaterialIds(List.of(steel.getMaterialId()))));
+        filters.put("all materials", filter(f -> {
+            f.setMaterialIds(List.of(oak.getMaterialId(), steel.getMaterialId()));
+            f.setMaterialMatch(ProductFilterDto.Match.ALL);
+        }));
+        filters.put("material name", filter(f -> f.setMaterialFilter("Consistency Oa")));
+        filters.put("dimensions", filter(f -> {
+            f.setDimensionHeight(70.0);
+            f.setDimensionWidth(85.0);
+            f.setDimensionLength(200.0);
+        }));
+        filters.put("ids take precedence over names", filter(f -> {
+            f.setFamilyIds(List.of(beta.getFamilyId()));
+            f.setFamilyFilter("Consistency Alpha");
+        }));
+        filters.put("combined", filter(f -> {
+            f.setFamilyIds(List.of(alpha.getFamilyId(), beta.getFamilyId()));
+            f.setColourIds(List.of(blue.getColourId()));
+            f.setMaterialFilter("Consistency St");
+            f.setPriceMax(5000L);
+        }));
+
+        List<Executable> checks = new ArrayList<>();
+        filters.forEach((name, filter) -> {
+            checks.add(() -> assertConsistent(name, null, filter));
+            checks.add(() -> assertConsistent(name + " with search", SEARCH, filter));
+        });
+        assertAll(checks);
+    }
+
+    private void assertConsistent(String name, String search, ProductFilterDto filter) {
+        Page<ProductDTO> page = productService.getAllProducts(PageRequest.of(0, PAGE_SIZE), search, filter);
+        assertTrue(page.getTotalElements() <= PAGE_SIZE, name);
+        List<ProductDTO> listed = page.getContent();
+        ProductFacetsDTO facets = productService.getProductFacets(search, filter);
+
+        assertEquals(countBy(listed, product -> List.of(product.getFamilyId())), counts(facets.getFamilies()), name + ": families");
+        assertEquals(countBy(listed, product -> List.of(product.getSubFamilyId())), counts(facets.getSubFamilies()), name + ": sub families");
+        assertEquals(countBy(listed, product -> List.of(product.getSupplierId())), counts(facets.getSuppliers()), name + ": suppliers");
+        assertEquals(countBy(listed, product -> product.getColours().stream().map(ColourDTO::getColourId).toList()),
+                counts(facets.getColours()), name + ": colours");
+        assertEquals(countBy(listed, product -> product.getMaterials().stream().map(MaterialDTO::getMaterialId).toList()),
+                counts(facets.getMaterials()), name + ": materials");
+        List<ProductDTO> priced = listed.stream().filter(product -> product.getPrice() != null).toList();
+        for (PriceRangeFacetDTO range : facets.getPriceRanges()) {
+            long inRange = priced.stream()
+                    .filter(product -> product.getPrice() >= range.getMin() && (range.getMax() == null || product.getPrice() < range.getMax()))
+                    .count();
+            assertEquals(inRange, range.getCount(), name + ": prices from " + range.getMin());
+        }
+        assertEquals(priced.size(), facets.getPriceRanges().stream().mapToLong(PriceRangeFacetDTO::getCount).sum(), name + ": priced products");
+    }
+
+    private static Map<Long, Long> countBy(List<ProductDTO> products, Function<ProductDTO, List<Long>> ids) {
+        return products.stream()
+                .flatMap(product -> ids.apply(product).stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    private static Map<Long, Long> counts(List<FacetCountDTO> facets) {
+        return facets.stream().collect(Collectors.toMap(FacetCountDTO::getId, FacetCountDTO::getCount));
+    }
+
+    private static ProductFilterDto filter(Consumer<ProductFilterDto> configure) {
+        ProductFilterDto filter = new ProductFilterDto();
+        configure.accept(filter);
+        return filter;
+    }
+
+    private FurnitureFamily family(String name) {
+        FurnitureFamily family = new FurnitureFamily();
+        family.setName(name);
+        entityManager.persist(family);
+        return family;
+    }
+
+    private FurnitureSubFamily subFamily(String name, FurnitureFamily family) {
+        FurnitureSubFamily subFamily = new FurnitureSubFamily();
+        subFamily.setName(name);
+        subFamily.setFamily(family);
+        entityManager.persist(subFamily);
+        return subFamily;
+    }
+
+    private Supplier supplier(String name, String key) {
+        Supplier supplier = new Supplier();
+        supplier.setName(name);
+        supplier.setBusinessRegistrationNumber("BR-CONSISTENCY-" + key);
+        supplier.setEmail(key + "-consistency@test.com");
+        supplier.setPhoneNumber("+1234567890");
+        entityManager.persist(supplier);
+        return supplier;
+    }
+
+    private Colour colour(String name) {
+        Colour colour = new Colour();
+        colour.setName(name);
+        entityManager.persist(colour);
+        return colour;
+    }
+
+    private Material material(String name) {
+        Material material = new Material();
+        material.setName(name);
+        entityManager.persist(material);
+        return material;
+    }
+
+    private void product(String name, String sku, double price, double height, double length, double width,
+                         FurnitureSubFamily subFamily, Supplier supplier, Set<Colour> colours, Set<Material> materials) {
+        Product product = new Product();
+        product.setName(name);
+        product.setSku(sku);
+        product.setPrice(price);
+        product.setHeight(height);
+        product.setLength(length);
+        product.setWidth(width);
+        product.setStatus(ProductStatus.Active);
+        product.setFamily(subFamily.getFamily());
+        product.setSubFamily(subFamily);
+        product.setSupplier(supplier);
+        product.setColours(Set.copyOf(colours));
+        product.setMaterials(Set.copyOf(materials));
+        entityManager.persist(product);
+    }
+}
@@ -0,0 +1,160 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductImage;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.migration.LegacyProductImageMigration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ProductImageStoreIntegrationTests {
+
+    @TempDir
+    static Path uploadPath;
+
+    @DynamicPropertySource
+    static void uploadPath(DynamicPropertyRegistry registry) {
+        registry.add("application.upload.upload-path", () -> uploadPath.toString());
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private LegacyProductImageMigration legacyProductImageMigration;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+
+        product = new Product();
+        product.setName("Image Store Lamp");
+        product.setSku("IMAGE-STORE-" + System.nanoTime());
+        product.setPrice(100.0);
+        product.setStatus(ProductStatus.Active);
+        entityManager.persist(product);
+        entityManager.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void updateProductImages_ShouldShareOneBlobBetweenIdenticalUploads() throws IOException {
+        byte[] png = image("png", Color.RED);
+        List<String> blobsBefore = blobNames();
+
+        productService.updateProductImages(product.getProductId(), List.of(
+                new MockMultipartFile("images", "front.png", "image/png", png),
+                new MockMultipartFile("images", "front-copy.png", "image/png", png)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ProductImage> images = reload().getImages();
+        assertEquals(2, images.size());
+        assertEquals(sha256(png), images.get(0).getHash());
+        assertEquals(sha256(png), images.get(1).getHash());
+        List<String> added = blobNames().stream().filter(name -> !blobsBefore.contains(name)).toList();
+        assertEquals(List.of(sha256(png) + ".png"), added);
+    }
+
+    @Test
+    void migrate_ShouldMoveLegacyImagesInOrderAndRemoveTheOldFiles() throws IOException {
+        byte[] png = image("png", Color.GREEN);
+        byte[] jpeg = image("jpg", Color.BLUE);
+        Path first = write("products/legacy-front.png", png);
+        // Saved under the wrong extension, the type has to come from the content
+        Path second = write("products/legacy-side.png", jpeg);
+        product.setLegacyImages("products/legacy-front.png, products/legacy-side.png,products/legacy-missing.png");
+        entityManager.flush();
+
+        legacyProductImageMigration.migrate();
+        entityManager.flush();
+        entityManager.clear();
+
+        Product migrated = reload();
+        assertNull(migrated.getLegacyImages());
+        assertEquals(List.of(0, 1), migrated.getImages().stream().map(ProductImage::getPosition).toList());
+        assertEquals(List.of(sha256(png), sha256(jpeg)), migrated.getImages().stream().map(ProductImage::getHash).toList());
+        assertEquals(List.of("image/png", "image/jpeg"), migrated.getImages().stream().map(ProductImage::getMimeType).toList());
+        assertFalse(Files.exists(first));
+        assertFalse(Files.exists(second));
+    }
+
+    private Product reload() {
+        return entityManager.find(Product.class, product.getProductId());
+    }
+
+    private Path write(String relativePath, byte[] content) throws IOException {
+        Path file = uploadPath.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content);
+    }
+
+    private List<String> blobNames() throws IOException {
+        if (!Files.isDirectory(uploadPath.resolve("blobs"))) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(uploadPath.resolve("blobs"))) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    .filter(name -> name.matches("[0-9a-f]{64}\\.(png|jpg)"))
+                    .toList();
+        }
+    }
+
+    private static byte[] image(String format, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, color.getRGB());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
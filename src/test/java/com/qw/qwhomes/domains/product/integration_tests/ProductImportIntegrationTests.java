@@ -0,0 +1,217 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.ProductImportService;
+import com.qw.qwhomes.domains.product.service.dto.ProductImportErrorDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductImportReportDTO;
+import com.qw.qwhomes.domains.product.service.event.ProductsImportedEvent;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import com.qw.qwhomes.domains.user.data.entity.User;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "application.products.import.batch-size=" + ProductImportIntegrationTests.BATCH_SIZE)
+@ActiveProfiles("test")
+@Transactional
+@RecordApplicationEvents
+public class ProductImportIntegrationTests {
+
+    static final int BATCH_SIZE = 2;
+
+    private static final String[] HEADERS = {"SKU", "Name", "Family", "Sub Family", "Supplier", "Price", "Height", "Length", "Width", "Colours", "Materials"};
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("import-user");
+        user.setEmail("import-user@test.com");
+        user.setPasswordHash("hash");
+        user.setStatus("ACTIVE");
+        entityManager.persist(user);
+        QWContext.set(new QWContext().setUserId(user.getId()));
+
+        FurnitureFamily family = new FurnitureFamily();
+        family.setName("Import Family");
+        entityManager.persist(family);
+
+        FurnitureSubFamily subFamily = new FurnitureSubFamily();
+        subFamily.setName("Import Sofas");
+        subFamily.setFamily(family);
+        entityManager.persist(subFamily);
+
+        Supplier supplier = new Supplier();
+        supplier.setName("Import Supplier");
+        supplier.setBusinessRegistrationNumber("BR-IMPORT");
+        supplier.setEmail("import-supplier@test.com");
+        supplier.setPhoneNumber("+1234567890");
+        entityManager.persist(supplier);
+
+        Colour colour = new Colour();
+        colour.setName("Import Blue");
+        entityManager.persist(colour);
+
+        Material material = new Material();
+        material.setName("Import Oak");
+        entityManager.persist(material);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void importProducts_ShouldWriteValidCsvRowsAndReportTheBadOne() {
+        String csv = String.join(",", HEADERS) + "\n"
+                + row("IMP-CSV-1", "Csv Sofa", "Import Family", "1200") + "\n"
+                + row("IMP-CSV-2", "Csv Chair", "Import Family", "-5") + "\n"
+                + row("IMP-CSV-3", "Csv Bench", "Import Family", "300") + "\n";
+
+        ProductImportReportDTO report = productImportService.importProducts(
+                new MockMultipartFile("file", "products.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertReport(report, new ProductImportErrorDTO(3, "IMP-CSV-2", message("product.import.invalidNumber", "Price", "-5")));
+        assertImported("IMP-CSV-1", "Csv Sofa", 1200.0);
+        assertImported("IMP-CSV-3", "Csv Bench", 300.0);
+        assertTrue(productRepository.findBySku("IMP-CSV-2").isEmpty());
+    }
+
+    @Test
+    void importProducts_ShouldWriteValidXlsxRowsAndReportTheBadOne() throws IOException {
+        byte[] xlsx = workbook(
+                HEADERS,
+                row("IMP-XLSX-1", "Xlsx Sofa", "Import Family", "800").split(","),
+                row("IMP-XLSX-2", "Xlsx Chair", "Nowhere", "150").split(","),
+                row("IMP-XLSX-3", "Xlsx Bench", "Import Family", "250").split(","));
+
+        ProductImportReportDTO report = productImportService.importProducts(new MockMultipartFile("file", "products.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", xlsx));
+
+        assertReport(report, new ProductImportErrorDTO(3, "IMP-XLSX-2", message("product.import.unknownReference", "family", "Nowhere")));
+        assertImported("IMP-XLSX-1", "Xlsx Sofa", 800.0);
+        assertImported("IMP-XLSX-3", "Xlsx Bench", 250.0);
+        assertTrue(productRepository.findBySku("IMP-XLSX-2").isEmpty());
+    }
+
+    @Test
+    void importProducts_ShouldKeepWrittenBatchesAndReportAFileTruncatedMidway() {
+        // The last line opens a quoted field that never closes, so the reader fails after the first batch was written
+        String csv = String.join(",", HEADERS) + "\n"
+                + row("IMP-CUT-1", "Cut Sofa", "Import Family", "1200") + "\n"
+                + row("IMP-CUT-2", "Cut Chair", "Import Family", "150") + "\n"
+                + row("IMP-CUT-3", "Cut Bench", "Import Family", "300") + "\n"
+                + "\"IMP-CUT-4,Cut Stool";
+
+        ProductImportReportDTO report = productImportService.importProducts(
+                new MockMultipartFile("file", "products.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(3, report.getCreated());
+        assertEquals(0, report.getFailed());
+        assertEquals(1, report.getErrors().size());
+        ProductImportErrorDTO error = report.getErrors().get(0);
+        assertNull(error.getRow());
+        assertTrue(error.getMessage().startsWith(message("product.import.unreadable", "")));
+
+        assertImported("IMP-CUT-1", "Cut Sofa", 1200.0);
+        assertImported("IMP-CUT-2", "Cut Chair", 150.0);
+        assertImported("IMP-CUT-3", "Cut Bench", 300.0);
+
+        List<ProductsImportedEvent> imported = events.stream(ProductsImportedEvent.class).toList();
+        assertEquals(1, imported.size());
+        assertEquals(3, imported.get(0).getWritten());
+    }
+
+    private void assertReport(ProductImportReportDTO report, ProductImportErrorDTO error) {
+        assertEquals(3, report.getTotalRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(0, report.getUpdated());
+        assertEquals(1, report.getFailed());
+        assertEquals(List.of(error), report.getErrors());
+
+        List<ProductsImportedEvent> imported = events.stream(ProductsImportedEvent.class).toList();
+        assertEquals(1, imported.size());
+        assertEquals(2, imported.get(0).getWritten());
+    }
+
+    private void assertImported(String sku, String name, double price) {
+        Product product = productRepository.findBySku(sku).orElseThrow();
+        assertEquals(name, product.getName());
+        assertEquals(price, product.getPrice());
+        assertEquals(ProductStatus.Active, product.getStatus());
+        assertEquals("Import Sofas", product.getSubFamily().getName());
+        assertEquals("Import Supplier", product.getSupplier().getName());
+        assertEquals(List.of("Import Blue"), product.getColours().stream().map(Colour::getName).toList());
+        assertEquals(List.of("Import Oak"), product.getMaterials().stream().map(Material::getName).toList());
+    }
+
+    private static String row(String sku, String name, String family, String price) {
+        return String.join(",", sku, name, family, "Import Sofas", "Import Supplier", price, "80", "200", "90", "Import Blue", "Import Oak");
+    }
+
+    private static byte[] workbook(String[]... rows) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Products");
+            for (int i = 0; i < rows.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < rows[i].length; j++) {
+                    row.createCell(j).setCellValue(rows[i][j]);
+                }
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private String message(String key, Object... args) {
+        return messageSource.getMessage(key, args, LocaleContextHolder.getLocale());
+    }
+}
@@ -0,0 +1,110 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ProductListQueryCountIntegrationTests {
+
+    private static final int PAGE_SIZE = 50;
+    // Page select, count, one batch for colours and one for materials
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            FurnitureFamily family = new FurnitureFamily();
+            family.setName("Family " + i);
+            entityManager.persist(family);
+
+            FurnitureSubFamily subFamily = new FurnitureSubFamily();
+            subFamily.setName("Sub Family " + i);
+            subFamily.setFamily(family);
+            entityManager.persist(subFamily);
+
+            Supplier supplier = new Supplier();
+            supplier.setName("Supplier " + i);
+            supplier.setPhoneNumber("+1234567890");
+            supplier.setEmail("supplier" + i + "@test.com");
+            entityManager.persist(supplier);
+
+            Colour colour = new Colour();
+            colour.setName("Colour " + i);
+            entityManager.persist(colour);
+
+            Material material = new Material();
+            material.setName("Material " + i);
+            entityManager.persist(material);
+
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("SKU-" + i);
+            product.setPrice(100.0 + i);
+            product.setStatus(ProductStatus.Active);
+            product.setFamily(family);
+            product.setSubFamily(subFamily);
+            product.setSupplier(supplier);
+            product.setColours(Set.of(colour));
+            product.setMaterials(Set.of(material));
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadProductPageWithBoundedStatementCount() {
+        Page<ProductDTO> products = productService.getAllProducts(PageRequest.of(0, PAGE_SIZE), null, new ProductFilterDto());
+
+        assertEquals(PAGE_SIZE, products.getContent().size());
+        products.getContent().forEach(product -> {
+            assertEquals(1, product.getColours().size());
+            assertEquals(1, product.getMaterials().size());
+            assertTrue(product.getFamilyName().startsWith("Family"));
+            assertTrue(product.getSupplierName().startsWith("Supplier"));
+        });
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Expected at most " + MAX_STATEMENTS_PER_PAGE + " statements but was " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,213 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.colour.data.entity.Colour;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.material.data.entity.Material;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.FacetCountDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFacetsDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ProductRelatedIdFilterIntegrationTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private FurnitureFamily family;
+    private Colour red;
+    private Colour blue;
+    private Colour green;
+    private Material oak;
+    private Material steel;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+
+        family = new FurnitureFamily();
+        family.setName("Related Filter Family");
+        entityManager.persist(family);
+
+        red = colour("Related Red");
+        blue = colour("Related Blue");
+        green = colour("Related Green");
+        oak = material("Related Oak");
+        steel = material("Related Steel");
+
+        product("RELATED-1", Set.of(red, blue), Set.of(oak));
+        product("RELATED-2", Set.of(red), Set.of(oak, steel));
+        product("RELATED-3", Set.of(blue), Set.of(steel));
+        product("RELATED-4", Set.of(green), Set.of());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void getAllProducts_ShouldMatchAnyRequestedColour() {
+        ProductFilterDto filter = filter();
+        filter.setColourIds(List.of(red.getColourId(), blue.getColourId()));
+
+        assertEquals(List.of("RELATED-1", "RELATED-2", "RELATED-3"), skus(filter));
+    }
+
+    @Test
+    void getAllProducts_ShouldMatchAllRequestedColours() {
+        ProductFilterDto filter = filter();
+        filter.setColourIds(List.of(red.getColourId(), blue.getColourId()));
+        filter.setColourMatch(ProductFilterDto.Match.ALL);
+
+        assertEquals(List.of("RELATED-1"), skus(filter));
+    }
+
+    @Test
+    void getAllProducts_ShouldMatchAllRequestedMaterials() {
+        ProductFilterDto filter = filter();
+        filter.setMaterialIds(List.of(oak.getMaterialId(), steel.getMaterialId()));
+        filter.setMaterialMatch(ProductFilterDto.Match.ALL);
+
+        assertEquals(List.of("RELATED-2"), skus(filter));
+    }
+
+    @Test
+    void getAllProducts_ShouldIgnoreDuplicateIds() {
+        ProductFilterDto any = filter();
+        any.setColourIds(List.of(red.getColourId(), red.getColourId()));
+
+        ProductFilterDto all = filter();
+        all.setColourIds(List.of(red.getColourId(), blue.getColourId(), red.getColourId()));
+        all.setColourMatch(ProductFilterDto.Match.ALL);
+
+        assertEquals(List.of("RELATED-1", "RELATED-2"), skus(any));
+        assertEquals(List.of("RELATED-1"), skus(all));
+    }
+
+    @Test
+    void getAllProducts_ShouldCombineColourAndMaterialFilters() {
+        ProductFilterDto filter = filter();
+        filter.setColourIds(List.of(red.getColourId(), blue.getColourId()));
+        filter.setMaterialIds(List.of(steel.getMaterialId()));
+
+        assertEquals(List.of("RELATED-2", "RELATED-3"), skus(filter));
+    }
+
+    @Test
+    void getAllProducts_ShouldPageEachProductOnceWhenItMatchesSeveralIds() {
+        ProductFilterDto filter = filter();
+        filter.setColourIds(List.of(red.getColourId(), blue.getColourId()));
+        filter.setMaterialIds(List.of(oak.getMaterialId(), steel.getMaterialId()));
+
+        List<String> paged = new ArrayList<>();
+        Page<ProductDTO> page = productService.getAllProducts(PageRequest.of(0, 2, Sort.by("sku")), null, filter);
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        page.forEach(product -> paged.add(product.getSku()));
+        productService.getAllProducts(PageRequest.of(1, 2, Sort.by("sku")), null, filter)
+                .forEach(product -> paged.add(product.getSku()));
+
+        assertEquals(List.of("RELATED-1", "RELATED-2", "RELATED-3"), paged);
+    }
+
+    @Test
+    void getProductFacets_ShouldCountTheRowsTheFilteredListReturns() {
+        ProductFilterDto any = filter();
+        any.setColourIds(List.of(red.getColourId(), blue.getColourId()));
+
+        ProductFacetsDTO facets = productService.getProductFacets(null, any);
+
+        assertEquals(Map.of(family.getFamilyId(), 3L), counts(facets.getFamilies()));
+        assertEquals(Map.of(red.getColourId(), 2L, blue.getColourId(), 2L), counts(facets.getColours()));
+        assertEquals(Map.of(oak.getMaterialId(), 2L, steel.getMaterialId(), 2L), counts(facets.getMaterials()));
+        assertEquals(skus(any).size(), facets.getFamilies().get(0).getCount());
+    }
+
+    @Test
+    void getProductFacets_ShouldCountOnlyProductsWithAllRequestedIds() {
+        ProductFilterDto all = filter();
+        all.setColourIds(List.of(red.getColourId(), blue.getColourId(), blue.getColourId()));
+        all.setColourMatch(ProductFilterDto.Match.ALL);
+
+        ProductFacetsDTO facets = productService.getProductFacets(null, all);
+
+        assertEquals(Map.of(family.getFamilyId(), 1L), counts(facets.getFamilies()));
+        assertEquals(Map.of(red.getColourId(), 1L, blue.getColourId(), 1L), counts(facets.getColours()));
+        assertEquals(Map.of(oak.getMaterialId(), 1L), counts(facets.getMaterials()));
+        assertEquals(skus(all).size(), facets.getFamilies().get(0).getCount());
+    }
+
+    // Every filter is narrowed to this test's family, so seeded products never match
+    private ProductFilterDto filter() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setFamilyIds(List.of(family.getFamilyId()));
+        return filter;
+    }
+
+    private List<String> skus(ProductFilterDto filter) {
+        return productService.getAllProducts(PageRequest.of(0, 20, Sort.by("sku")), null, filter)
+                .map(ProductDTO::getSku)
+                .getContent();
+    }
+
+    private static Map<Long, Long> counts(List<FacetCountDTO> facets) {
+        return facets.stream().collect(Collectors.toMap(FacetCountDTO::getId, FacetCountDTO::getCount));
+    }
+
+    private Colour colour(String name) {
+        Colour colour = new Colour();
+        colour.setName(name);
+        entityManager.persist(colour);
+        return colour;
+    }
+
+    private Material material(String name) {
+        Material material = new Material();
+        material.setName(name);
+        entityManager.persist(material);
+        return material;
+    }
+
+    private void product(String sku, Set<Colour> colours, Set<Material> materials) {
+        Product product = new Product();
+        product.setName("Related " + sku);
+        product.setSku(sku);
+        product.setPrice(100.0);
+        product.setStatus(ProductStatus.Active);
+        product.setFamily(family);
+        product.setColours(colours);
+        product.setMaterials(materials);
+        entityManager.persist(product);
+    }
+}
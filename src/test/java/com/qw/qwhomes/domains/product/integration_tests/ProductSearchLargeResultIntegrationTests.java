@@ -0,0 +1,115 @@
+package com.qw.qwhomes.domains.product.integration_tests;
+
+import com.qw.qwhomes.common.search.SearchDialect;
+import com.qw.qwhomes.common.search.SearchTarget;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.ProductService;
+import com.qw.qwhomes.domains.product.service.dto.ProductDTO;
+import com.qw.qwhomes.domains.product.service.dto.ProductFilterDto;
+import com.qw.qwhomes.domains.product.service.search.ProductSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Searches matching more rows than the search index hands over as an id filter
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ProductSearchLargeResultIntegrationTests {
+
+    private static final int MATCHES = 1200;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private SearchDialect searchDialect;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private FurnitureFamily family;
+
+    @BeforeEach
+    void setUp() {
+        family = new FurnitureFamily();
+        family.setName("Bulk Family");
+        entityManager.persist(family);
+
+        for (int i = 0; i < MATCHES; i++) {
+            Product product = new Product();
+            product.setName("Bulkmatch Chair " + i);
+            product.setSku("BULK-" + i);
+            product.setPrice(100.0 + i);
+            product.setStatus(ProductStatus.Active);
+            // Every other product is in the family, so filtered pages reach past the first 1000 matches
+            if (i % 2 == 0) {
+                product.setFamily(family);
+            }
+            entityManager.persist(product);
+            productIds.add(product.getProductId());
+            productSearchIndex.index(product.getProductId(), product.getName(), product.getSku(), null);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productIds.forEach(productSearchIndex::remove);
+    }
+
+    @Test
+    void getAllProducts_ShouldCountEveryMatch() {
+        Page<ProductDTO> page = productService.getAllProducts(PageRequest.of(0, PAGE_SIZE), "bulkmatch", new ProductFilterDto());
+
+        assertEquals(MATCHES, page.getTotalElements());
+        assertEquals(PAGE_SIZE, page.getContent().size());
+    }
+
+    @Test
+    void getAllProducts_ShouldFillLastFilteredPage() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setFamilyIds(List.of(family.getFamilyId()));
+        int lastPage = MATCHES / 2 / PAGE_SIZE - 1;
+
+        Page<ProductDTO> page = productService.getAllProducts(PageRequest.of(lastPage, PAGE_SIZE), "bulkmatch", filter);
+
+        assertEquals(MATCHES / 2, page.getTotalElements());
+        assertEquals(PAGE_SIZE, page.getContent().size());
+    }
+
+    @Test
+    void matches_ShouldNotCapMatchesBeforeOtherFilters() {
+        Specification<Product> inFamily = (root, query, cb) -> cb.equal(root.get("family").get("familyId"), family.getFamilyId());
+
+        Page<Product> page = productRepository.findAll(
+                searchDialect.<Product>matches(SearchTarget.PRODUCT, "bulkmatch").and(inFamily), PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(MATCHES / 2, page.getTotalElements());
+    }
+}
@@ -0,0 +1,144 @@
+package com.qw.qwhomes.domains.product.unit_tests;
+
+import com.qw.qwhomes.domains.product.data.repository.ProductCatalogProjection;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.dto.CatalogProductDTO;
+import com.qw.qwhomes.domains.product.service.search.CatalogIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogIndexUnitTests {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private CatalogIndex catalogIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAllForCatalogIndex()).thenReturn(Collections.emptyList());
+        catalogIndex.load();
+    }
+
+    @Test
+    void candidates_ShouldListProductsOfPairOrderedByName() {
+        catalogIndex.index(1L, 10L, product(1L, "Sofa"));
+        catalogIndex.index(1L, 10L, product(2L, "Armchair"));
+        catalogIndex.index(1L, 11L, product(3L, "Bed"));
+        catalogIndex.index(2L, 10L, product(4L, "Lamp"));
+
+        assertEquals(List.of(2L, 1L), ids(catalogIndex.candidates(1L, 10L)));
+        assertEquals(List.of(3L), ids(catalogIndex.candidates(1L, 11L)));
+        assertEquals(List.of(), ids(catalogIndex.candidates(3L, 10L)));
+    }
+
+    @Test
+    void index_ShouldMoveProductWhenItsSubFamilyChanges() {
+        catalogIndex.index(1L, 10L, product(1L, "Sofa"));
+        catalogIndex.index(1L, 11L, product(1L, "Sofa bed"));
+
+        assertEquals(List.of(), ids(catalogIndex.candidates(1L, 10L)));
+        assertEquals("Sofa bed", catalogIndex.candidates(1L, 11L).get(0).name());
+    }
+
+    @Test
+    void remove_ShouldDropProductAndBumpVersion() {
+        catalogIndex.index(1L, 10L, product(1L, "Sofa"));
+        long version = catalogIndex.getVersion();
+
+        catalogIndex.remove(1L);
+        catalogIndex.remove(1L);
+
+        assertEquals(List.of(), ids(catalogIndex.candidates(1L, 10L)));
+        assertEquals(version + 1, catalogIndex.getVersion());
+    }
+
+    @Test
+    void candidates_ShouldReadAllPairsAtOneVersion() {
+        catalogIndex.index(1L, 10L, product(1L, "Sofa"));
+        catalogIndex.index(2L, 20L, product(2L, "Bed"));
+
+        CatalogIndex.Candidates candidates = catalogIndex.candidates(new long[]{2L, 1L, 1L}, new long[]{20L, 10L, 11L});
+
+        assertEquals(catalogIndex.getVersion(), candidates.version());
+        assertEquals(List.of(2L), ids(candidates.products().get(0)));
+        assertEquals(List.of(1L), ids(candidates.products().get(1)));
+        assertEquals(List.of(), ids(candidates.products().get(2)));
+    }
+
+    @Test
+    void load_ShouldKeepChangesAppliedWhileProductsAreRead() {
+        catalogIndex.index(1L, 10L, product(1L, "Sofa"));
+        // The rows were read before these changes committed
+        when(productRepository.findAllForCatalogIndex()).thenAnswer(invocation -> {
+            catalogIndex.index(1L, 10L, product(2L, "Armchair"));
+            catalogIndex.remove(1L);
+            return List.of(row(1L, "Sofa", 1L, 10L));
+        });
+
+        catalogIndex.load();
+
+        assertEquals(List.of(2L), ids(catalogIndex.candidates(1L, 10L)));
+    }
+
+    @Test
+    void index_ShouldStayConsistentAcrossManyWritesAndRemovals() {
+        Random random = new Random(42);
+        int products = 5000;
+        long[] subFamilies = new long[products];
+        for (int i = 0; i < products; i++) {
+            subFamilies[i] = random.nextInt(40);
+            catalogIndex.index(1L, subFamilies[i], product(i, "Product " + i));
+        }
+        for (int i = 0; i < products; i += 3) {
+            catalogIndex.remove(i);
+            subFamilies[i] = -1;
+        }
+
+        for (long subFamily = 0; subFamily < 40; subFamily++) {
+            List<CatalogProductDTO> candidates = catalogIndex.candidates(1L, subFamily);
+            long expected = 0;
+            for (long assigned : subFamilies) {
+                if (assigned == subFamily) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, candidates.size());
+            for (int i = 1; i < candidates.size(); i++) {
+                assertTrue(candidates.get(i - 1).name().compareToIgnoreCase(candidates.get(i).name()) <= 0);
+            }
+        }
+    }
+
+    private static CatalogProductDTO product(long id, String name) {
+        return new CatalogProductDTO(id, name, "SKU-" + id, 100.0, null, null, null, null, null);
+    }
+
+    private static ProductCatalogProjection row(long id, String name, long familyId, long subFamilyId) {
+        ProductCatalogProjection row = mock(ProductCatalogProjection.class);
+        when(row.getProductId()).thenReturn(id);
+        when(row.getName()).thenReturn(name);
+        when(row.getFamilyId()).thenReturn(familyId);
+        when(row.getSubFamilyId()).thenReturn(subFamilyId);
+        return row;
+    }
+
+    private static List<Long> ids(List<CatalogProductDTO> products) {
+        return products.stream().map(CatalogProductDTO::productId).toList();
+    }
+}
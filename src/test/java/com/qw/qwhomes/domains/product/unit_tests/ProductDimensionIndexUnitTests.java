@@ -0,0 +1,141 @@
+package com.qw.qwhomes.domains.product.unit_tests;
+
+import com.qw.qwhomes.domains.product.data.repository.ProductDimensionProjection;
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.service.search.ProductDimensionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductDimensionIndexUnitTests {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductDimensionIndex productDimensionIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAllForDimensionIndex()).thenReturn(Collections.emptyList());
+        productDimensionIndex.load();
+    }
+
+    @Test
+    void fit_ShouldMatchInAnyOrientationClosestFirst() {
+        productDimensionIndex.index(1L, 200.0, 80.0, 90.0);
+        productDimensionIndex.index(2L, 90.0, 235.0, 95.0);
+        productDimensionIndex.index(3L, 250.0, 80.0, 80.0);
+        productDimensionIndex.index(4L, 40.0, 40.0, 40.0);
+
+        assertArrayEquals(new long[]{2L, 1L, 4L}, productDimensionIndex.fit(240, 90, 100, 0, 10));
+    }
+
+    @Test
+    void fit_ShouldAllowToleranceOverhang() {
+        productDimensionIndex.index(3L, 250.0, 80.0, 80.0);
+
+        assertArrayEquals(new long[0], productDimensionIndex.fit(240, 90, 100, 5, 10));
+        assertArrayEquals(new long[]{3L}, productDimensionIndex.fit(240, 90, 100, 10, 10));
+    }
+
+    @Test
+    void remove_ShouldDropProductFromResults() {
+        productDimensionIndex.index(1L, 200.0, 80.0, 90.0);
+        productDimensionIndex.index(2L, 100.0, 80.0, 90.0);
+        productDimensionIndex.remove(1L);
+        productDimensionIndex.index(2L, 300.0, 80.0, 90.0);
+
+        assertArrayEquals(new long[0], productDimensionIndex.fit(240, 90, 100, 0, 10));
+    }
+
+    @Test
+    void load_ShouldKeepChangesAppliedWhileProductsAreRead() {
+        productDimensionIndex.index(1L, 200.0, 80.0, 90.0);
+        // The rows were read before these changes committed
+        when(productRepository.findAllForDimensionIndex()).thenAnswer(invocation -> {
+            productDimensionIndex.index(2L, 90.0, 235.0, 95.0);
+            productDimensionIndex.remove(1L);
+            return List.of(row(1L, 200.0, 80.0, 90.0));
+        });
+
+        productDimensionIndex.load();
+
+        assertArrayEquals(new long[]{2L}, productDimensionIndex.fit(240, 90, 100, 0, 10));
+    }
+
+    @Test
+    void fit_ShouldAgreeWithBruteForceAcrossRebuilds() {
+        Random random = new Random(42);
+        int products = 2000;
+        double[][] dimensions = new double[products][];
+        for (int i = 0; i < products; i++) {
+            dimensions[i] = new double[]{10 + random.nextInt(250), 10 + random.nextInt(250), 10 + random.nextInt(250)};
+            productDimensionIndex.index((long) i, dimensions[i][0], dimensions[i][1], dimensions[i][2]);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double[] niche = {50 + random.nextInt(200), 50 + random.nextInt(200), 50 + random.nextInt(200)};
+            double[] target = sortedDescending(niche);
+            long[] expected = IntStream.range(0, products)
+                    .filter(i -> fits(sortedDescending(dimensions[i]), target))
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(i -> distanceSquared(sortedDescending(dimensions[i]), target))
+                            .thenComparing(i -> i))
+                    .limit(15)
+                    .mapToLong(Integer::longValue)
+                    .toArray();
+
+            long[] actual = productDimensionIndex.fit(niche[0], niche[1], niche[2], 0, 15);
+
+            assertArrayEquals(distances(expected, dimensions, target), distances(actual, dimensions, target));
+        }
+    }
+
+    private static ProductDimensionProjection row(long id, double height, double width, double length) {
+        ProductDimensionProjection row = mock(ProductDimensionProjection.class);
+        when(row.getProductId()).thenReturn(id);
+        when(row.getHeight()).thenReturn(height);
+        when(row.getWidth()).thenReturn(width);
+        when(row.getLength()).thenReturn(length);
+        return row;
+    }
+
+    // Ties may come back in either order, so compare the ranked slack rather than ids
+    private static double[] distances(long[] ids, double[][] dimensions, double[] target) {
+        return Arrays.stream(ids).mapToDouble(id -> distanceSquared(sortedDescending(dimensions[(int) id]), target)).toArray();
+    }
+
+    private static boolean fits(double[] box, double[] niche) {
+        return box[0] <= niche[0] && box[1] <= niche[1] && box[2] <= niche[2];
+    }
+
+    private static double distanceSquared(double[] box, double[] niche) {
+        double sum = 0;
+        for (int d = 0; d < 3; d++) {
+            sum += (niche[d] - box[d]) * (niche[d] - box[d]);
+        }
+        return sum;
+    }
+
+    private static double[] sortedDescending(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return new double[]{sorted[2], sorted[1], sorted[0]};
+    }
+}
@@ -0,0 +1,103 @@
+package com.qw.qwhomes.domains.product.unit_tests;
+
+import com.qw.qwhomes.common.service.impl.ImageRenditionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductImageRenditionUnitTests {
+
+    private static final String IMAGE = "blobs/broken.png";
+
+    @TempDir
+    Path uploadPath;
+
+    private ImageRenditionServiceImpl renditionService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        renditionService = new ImageRenditionServiceImpl();
+        ReflectionTestUtils.setField(renditionService, "uploadPath", uploadPath.toString());
+        ReflectionTestUtils.setField(renditionService, "renditionThreads", 1);
+        ReflectionTestUtils.setField(renditionService, "renditionQueueSize", 8);
+        ReflectionTestUtils.setField(renditionService, "renditionFailureTtl", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(renditionService, "start");
+
+        Files.createDirectories(uploadPath.resolve("blobs"));
+        Files.writeString(uploadPath.resolve(IMAGE), "not an image", StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(renditionService, "stop");
+    }
+
+    @Test
+    void generateRenditions_ShouldNotQueueUndecodableImageAgain() throws InterruptedException {
+        renditionService.generateRenditions(List.of(IMAGE));
+        awaitCompleted(1);
+
+        renditionService.generateRenditions(List.of(IMAGE));
+
+        assertEquals(1, executor().getTaskCount());
+    }
+
+    @Test
+    void generateRenditions_ShouldQueueAgainOnceRenditionsAreDeleted() throws InterruptedException {
+        renditionService.generateRenditions(List.of(IMAGE));
+        awaitCompleted(1);
+
+        renditionService.deleteRenditions(IMAGE);
+        renditionService.generateRenditions(List.of(IMAGE));
+        awaitCompleted(2);
+
+        assertEquals(2, executor().getTaskCount());
+    }
+
+    @Test
+    void generateRenditions_ShouldLeaveNoTempFilesNextToTheOriginal() throws IOException, InterruptedException {
+        Path fanOut = Files.createDirectories(uploadPath.resolve("blobs/ab/cd"));
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "png", fanOut.resolve("chair.png").toFile());
+
+        renditionService.generateRenditions(List.of("blobs/ab/cd/chair.png"));
+        awaitCompleted(1);
+
+        assertEquals(List.of("chair.png", "chair@medium.png", "chair@thumb.png"), fileNames(fanOut));
+        assertEquals(List.of(), fileNames(uploadPath.resolve("blobs/tmp")));
+        assertTrue(ImageIO.read(fanOut.resolve("chair@thumb.png").toFile()).getWidth() <= 320);
+    }
+
+    private static List<String> fileNames(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private void awaitCompleted(long tasks) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (executor().getCompletedTaskCount() < tasks && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(tasks, executor().getCompletedTaskCount());
+    }
+
+    private ThreadPoolExecutor executor() {
+        return (ThreadPoolExecutor) ReflectionTestUtils.getField(renditionService, "executor");
+    }
+}
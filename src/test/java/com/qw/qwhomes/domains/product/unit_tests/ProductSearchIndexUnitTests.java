@@ -0,0 +1,98 @@
+package com.qw.qwhomes.domains.product.unit_tests;
+
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.product.data.repository.ProductSearchProjection;
+import com.qw.qwhomes.domains.product.service.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexUnitTests {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAllForSearchIndex()).thenReturn(Collections.emptyList());
+        productSearchIndex.load();
+
+        productSearchIndex.index(1L, "Oak Dining Table", "TBL-001", "Solid oak table for six");
+        productSearchIndex.index(2L, "Walnut Side Table", "TBL-002", null);
+        productSearchIndex.index(3L, "Velvet Sofa", "SOF-100", "Three seater in green velvet");
+    }
+
+    @Test
+    void search_ShouldMatchSubstringOfAnyField() {
+        assertArrayEquals(new long[]{1L, 2L}, productSearchIndex.search("table"));
+        assertArrayEquals(new long[]{2L}, productSearchIndex.search("tbl-002"));
+        assertArrayEquals(new long[]{3L}, productSearchIndex.search("GREEN"));
+    }
+
+    @Test
+    void search_ShouldNotReturnFalsePositivesFromSharedGrams() {
+        assertArrayEquals(new long[0], productSearchIndex.search("oak sofa"));
+    }
+
+    @Test
+    void index_ShouldReplacePreviousDocument() {
+        productSearchIndex.index(1L, "Pine Bench", "BEN-001", null);
+
+        assertArrayEquals(new long[]{2L}, productSearchIndex.search("table"));
+        assertArrayEquals(new long[]{1L}, productSearchIndex.search("pine"));
+    }
+
+    @Test
+    void remove_ShouldDropProductFromResults() {
+        productSearchIndex.remove(3L);
+
+        assertArrayEquals(new long[0], productSearchIndex.search("velvet"));
+    }
+
+    @Test
+    void canSearch_ShouldRejectQueriesShorterThanAGram() {
+        assertFalse(productSearchIndex.canSearch("ok"));
+        assertTrue(productSearchIndex.canSearch("oak"));
+    }
+
+    @Test
+    void load_ShouldKeepChangesAppliedWhileProductsAreRead() {
+        // The rows were read before these changes committed
+        when(productRepository.findAllForSearchIndex()).thenAnswer(invocation -> {
+            productSearchIndex.index(4L, "Pine Bench", "BEN-001", null);
+            productSearchIndex.remove(3L);
+            return List.of(row(1L, "Oak Dining Table", "TBL-001", null), row(3L, "Velvet Sofa", "SOF-100", null));
+        });
+
+        productSearchIndex.load();
+
+        assertArrayEquals(new long[]{4L}, productSearchIndex.search("bench"));
+        assertArrayEquals(new long[0], productSearchIndex.search("velvet"));
+        assertArrayEquals(new long[]{1L}, productSearchIndex.search("table"));
+    }
+
+    private static ProductSearchProjection row(long id, String name, String sku, String description) {
+        ProductSearchProjection row = mock(ProductSearchProjection.class);
+        when(row.getProductId()).thenReturn(id);
+        when(row.getName()).thenReturn(name);
+        when(row.getSku()).thenReturn(sku);
+        when(row.getDescription()).thenReturn(description);
+        return row;
+    }
+}
@@ -0,0 +1,121 @@
+package com.qw.qwhomes.domains.proposal.integration_tests;
+
+import com.qw.qwhomes.domains.apartmenttype.data.entity.ApartmentType;
+import com.qw.qwhomes.domains.client.data.entity.Client;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureFamily;
+import com.qw.qwhomes.domains.furniturefamily.data.entity.FurnitureSubFamily;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalDTO;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalProductDTO;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalResponseDTO;
+import com.qw.qwhomes.domains.supplier.data.entity.Supplier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ProposalCreateStatementCountIntegrationTests {
+
+    private static final int LINES = 300;
+    // Apartment type, client and one product lookup, then per 50 lines one sequence call and one insert batch,
+    // plus the proposal's own sequence call and insert
+    private static final long MAX_STATEMENTS = 3 + 2 * (LINES / 50) + 2 + 2;
+
+    @Autowired
+    private ProposalService proposalService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ProposalDTO proposalDTO;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        FurnitureFamily family = new FurnitureFamily();
+        family.setName("Family");
+        entityManager.persist(family);
+
+        FurnitureSubFamily subFamily = new FurnitureSubFamily();
+        subFamily.setName("Sub Family");
+        subFamily.setFamily(family);
+        entityManager.persist(subFamily);
+
+        Supplier supplier = new Supplier();
+        supplier.setName("Supplier");
+        supplier.setPhoneNumber("+1234567890");
+        supplier.setEmail("supplier@test.com");
+        entityManager.persist(supplier);
+
+        ApartmentType apartmentType = new ApartmentType();
+        apartmentType.setName("Two Bedroom");
+        apartmentType.setNumberOfBedrooms(2);
+        entityManager.persist(apartmentType);
+
+        Client client = new Client();
+        client.setName("Client");
+        client.setEmail("client@test.com");
+        client.setStatus(true);
+        entityManager.persist(client);
+
+        List<ProposalProductDTO> lines = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("SKU-" + i);
+            product.setPrice(100.0 + i);
+            product.setStatus(ProductStatus.Active);
+            product.setFamily(family);
+            product.setSubFamily(subFamily);
+            product.setSupplier(supplier);
+            entityManager.persist(product);
+
+            ProposalProductDTO line = new ProposalProductDTO();
+            line.setProductId(product.getProductId());
+            line.setQuantity(1 + i % 3);
+            lines.add(line);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        proposalDTO = new ProposalDTO();
+        proposalDTO.setName("Proposal");
+        proposalDTO.setApartmentTypeId(apartmentType.getApartmentId());
+        proposalDTO.setClientId(client.getClientId());
+        proposalDTO.setProposalProducts(lines);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void createProposal_ShouldBatchLineInserts() {
+        ProposalResponseDTO proposal = proposalService.createProposal(proposalDTO);
+        entityManager.flush();
+
+        assertEquals(LINES, proposal.getProposalProducts().size());
+        assertEquals(LINES + 1, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Expected at most " + MAX_STATEMENTS + " statements but was " + statistics.getPrepareStatementCount());
+    }
+}
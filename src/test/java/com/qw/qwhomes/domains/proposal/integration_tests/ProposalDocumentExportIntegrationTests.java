@@ -0,0 +1,82 @@
+package com.qw.qwhomes.domains.proposal.integration_tests;
+
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalFileRepository;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ProposalDocumentExportIntegrationTests {
+
+    private static final int LINES = 120;
+
+    @Autowired
+    private ProposalService proposalService;
+
+    @Autowired
+    private ProposalFileRepository proposalFileRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long proposalId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Proposal proposal = ProposalFixtures.persistProposal(entityManager, "Document", LINES);
+        entityManager.flush();
+        entityManager.clear();
+        proposalId = proposal.getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getProposalSnapshot_ShouldLoadEverythingInOneStatement() {
+        ProposalSnapshot snapshot = proposalService.getProposalSnapshot(proposalId);
+
+        assertEquals(LINES, snapshot.lines().size());
+        assertEquals("Document Apartment", snapshot.apartmentTypeName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void renderProposal_ShouldNotTouchTheDatabaseOrArchive() throws IOException {
+        ProposalSnapshot snapshot = proposalService.getProposalSnapshot(proposalId);
+        long files = proposalFileRepository.count();
+        statistics.clear();
+
+        for (ProposalFile.FileFormat format : ProposalFile.FileFormat.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            proposalService.renderProposal(snapshot, format, out);
+            assertTrue(out.size() > 0, format.name());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(files, proposalFileRepository.count());
+    }
+}
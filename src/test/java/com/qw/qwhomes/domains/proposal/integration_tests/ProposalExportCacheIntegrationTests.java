@@ -0,0 +1,185 @@
+package com.qw.qwhomes.domains.proposal.integration_tests;
+
+import com.qw.qwhomes.domains.product.data.repository.ProductRepository;
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalFileRepository;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalRepository;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalExportCache;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: the cache reads and writes proposal files in transactions of its own
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProposalExportCacheIntegrationTests {
+
+    @TempDir
+    static Path exportPath;
+
+    @DynamicPropertySource
+    static void exportPath(DynamicPropertyRegistry registry) {
+        registry.add("proposal.export.path", () -> exportPath.toString());
+    }
+
+    @Autowired
+    private ProposalExportCache proposalExportCache;
+
+    @Autowired
+    private ProposalService proposalService;
+
+    @Autowired
+    private ProposalRepository proposalRepository;
+
+    @Autowired
+    private ProposalFileRepository proposalFileRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Proposal proposal;
+
+    @BeforeEach
+    void setUp() {
+        proposal = transactionTemplate.execute(status -> ProposalFixtures.persistProposal(entityManager, "Cache", 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> ProposalFixtures.removeProposal(entityManager, proposal.getId()));
+    }
+
+    @Test
+    void get_ShouldRenderOncePerVersion() throws Exception {
+        Path first = proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF);
+        long rendered = Files.getLastModifiedTime(first).toMillis();
+        Thread.sleep(20);
+
+        Path second = proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF);
+
+        assertEquals(first, second);
+        assertEquals(rendered, Files.getLastModifiedTime(second).toMillis());
+        assertEquals(1, files().size());
+    }
+
+    @Test
+    void get_ShouldRenderOnceForConcurrentCallers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Callable<Path> download = () -> proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF);
+            List<Future<Path>> downloads = executor.invokeAll(IntStream.range(0, 8).mapToObj(i -> download).toList());
+
+            Path expected = downloads.get(0).get();
+            for (Future<Path> future : downloads) {
+                assertEquals(expected, future.get());
+            }
+            assertEquals(1, files().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ShouldDropOlderVersionButKeepItsFileForOneCycle() {
+        Path first = proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF);
+        rename("Renamed Proposal");
+
+        Path second = proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF);
+
+        assertNotEquals(first, second);
+        // A download that looked the old row up just before may still open its file
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(second));
+        assertEquals(List.of(second.toString()), files().stream().map(ProposalFile::getFilePath).toList());
+    }
+
+    @Test
+    void get_ShouldNotEvictNewerVersionForOlderSnapshot() {
+        ProposalSnapshot older = proposalService.getProposalSnapshot(proposal.getId());
+        rename("Renamed Proposal");
+        Path newer = proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF);
+
+        proposalExportCache.get(older, ProposalFile.FileFormat.PDF);
+
+        assertTrue(Files.exists(newer));
+        assertEquals(newer, proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF));
+    }
+
+    @Test
+    void get_ShouldRenderAgainWhenProductIsRenamed() {
+        Path first = proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), ProposalFile.FileFormat.PDF);
+        transactionTemplate.executeWithoutResult(status ->
+                productRepository.findById(productId()).orElseThrow().setName("Renamed Product"));
+
+        ProposalSnapshot renamed = proposalService.getProposalSnapshot(proposal.getId());
+        Path second = proposalExportCache.get(renamed, ProposalFile.FileFormat.PDF);
+
+        assertNotEquals(first, second);
+        assertEquals("Renamed Product", renamed.lines().get(0).productName());
+    }
+
+    @Test
+    void archiveProposal_ShouldKeepArchivesOfDifferentContentApart() throws Exception {
+        Path first = Path.of(proposalService.archiveProposal(proposal.getId(), ProposalFile.FileFormat.PDF));
+        transactionTemplate.executeWithoutResult(status ->
+                productRepository.findById(productId()).orElseThrow().setName("Renamed Product"));
+
+        // Same proposal version and, usually, the same second as the first archive
+        Path second = Path.of(proposalService.archiveProposal(proposal.getId(), ProposalFile.FileFormat.PDF));
+
+        assertNotEquals(first, second);
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(second));
+        for (ProposalFile file : files()) {
+            assertTrue(file.getFilePath().contains(file.getContentHash().substring(0, 16)));
+        }
+        try (Stream<Path> leftovers = Files.list(exportPath)) {
+            assertEquals(List.of(), leftovers.filter(path -> path.toString().endsWith(".tmp")).toList());
+        }
+    }
+
+    private void rename(String name) {
+        transactionTemplate.executeWithoutResult(status ->
+                proposalRepository.findById(proposal.getId()).orElseThrow().setName(name));
+    }
+
+    private Long productId() {
+        return transactionTemplate.execute(status ->
+                proposalRepository.findById(proposal.getId()).orElseThrow().getProposalProducts().get(0).getProduct().getProductId());
+    }
+
+    private List<ProposalFile> files() {
+        return proposalFileRepository.findByProposalAndFormat(proposal.getId(), ProposalFile.FileFormat.PDF);
+    }
+}
@@ -0,0 +1,76 @@
+package com.qw.qwhomes.domains.proposal.integration_tests;
+
+import com.qw.qwhomes.domains.apartmenttype.data.entity.ApartmentType;
+import com.qw.qwhomes.domains.client.data.entity.Client;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.product.data.entity.ProductStatus;
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalProduct;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+// Draft proposals with their apartment type, client and products, shared by the proposal document tests
+final class ProposalFixtures {
+
+    static final double LINE_PRICE = 100.0;
+
+    private ProposalFixtures() {
+    }
+
+    /**
+     * Persists a draft proposal with one product per line, names and SKUs are derived from the prefix. Must run in a
+     * transaction.
+     */
+    static Proposal persistProposal(EntityManager entityManager, String prefix, int lines) {
+        ApartmentType apartmentType = new ApartmentType();
+        apartmentType.setName(prefix + " Apartment");
+        apartmentType.setNumberOfBedrooms(1);
+        entityManager.persist(apartmentType);
+
+        Client client = new Client();
+        client.setName(prefix + " Client");
+        client.setEmail(prefix.toLowerCase().replace(' ', '-') + "-client@test.com");
+        client.setStatus(true);
+        entityManager.persist(client);
+
+        Proposal proposal = new Proposal();
+        proposal.setName(prefix + " Proposal");
+        proposal.setStatus(Proposal.ProposalStatus.DRAFT);
+        proposal.setApartmentType(apartmentType);
+        proposal.setClient(client);
+        proposal.setTotalPrice(0.0);
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setName(prefix + " Product " + i);
+            product.setSku(prefix.toUpperCase().replace(' ', '-') + "-" + i);
+            product.setPrice(LINE_PRICE);
+            product.setStatus(ProductStatus.Active);
+            entityManager.persist(product);
+
+            ProposalProduct line = new ProposalProduct();
+            line.setProposal(proposal);
+            line.setProduct(product);
+            line.setQuantity(1);
+            line.setPrice(LINE_PRICE);
+            line.setTotalPrice(LINE_PRICE);
+            proposal.getProposalProducts().add(line);
+            proposal.setTotalPrice(proposal.getTotalPrice() + LINE_PRICE);
+        }
+        entityManager.persist(proposal);
+        return proposal;
+    }
+
+    /**
+     * Removes a proposal persisted by {@link #persistProposal} together with everything it references. Must run in a
+     * transaction.
+     */
+    static void removeProposal(EntityManager entityManager, Long proposalId) {
+        Proposal proposal = entityManager.find(Proposal.class, proposalId);
+        List<Product> products = proposal.getProposalProducts().stream().map(ProposalProduct::getProduct).toList();
+        entityManager.remove(proposal);
+        products.forEach(entityManager::remove);
+        entityManager.remove(proposal.getClient());
+        entityManager.remove(proposal.getApartmentType());
+    }
+}
@@ -0,0 +1,84 @@
+package com.qw.qwhomes.domains.proposal.integration_tests;
+
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ProposalListQueryCountIntegrationTests {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int LINES_PER_PROPOSAL = 2;
+    // Every line on the page has its own product, initialised in batches of the product's @BatchSize
+    private static final int PRODUCT_BATCHES = (int) Math.ceil(
+            (double) PAGE_SIZE * LINES_PER_PROPOSAL / Product.class.getAnnotation(BatchSize.class).size());
+    // Page select with client and apartment type, count, one batch each for lines and files, then the product batches
+    private static final long MAX_STATEMENTS_PER_PAGE = 4 + PRODUCT_BATCHES;
+
+    @Autowired
+    private ProposalService proposalService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ProposalFixtures.persistProposal(entityManager, "List " + i, LINES_PER_PROPOSAL);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QWContext.clear();
+    }
+
+    @Test
+    void shouldLoadProposalPageWithBoundedStatementCount() {
+        Page<ProposalResponseDTO> proposals = proposalService.getAllProposals(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(PAGE_SIZE, proposals.getContent().size());
+        proposals.getContent().forEach(proposal -> {
+            assertTrue(proposal.getClientName().startsWith("List"));
+            assertTrue(proposal.getApartmentName().startsWith("List"));
+            assertEquals(LINES_PER_PROPOSAL, proposal.getProposalProducts().size());
+            proposal.getProposalProducts().forEach(line -> assertNotNull(line.getSku()));
+            assertNotNull(proposal.getProposalFiles());
+        });
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Expected at most " + MAX_STATEMENTS_PER_PAGE + " statements but was " + statistics.getPrepareStatementCount());
+    }
+}
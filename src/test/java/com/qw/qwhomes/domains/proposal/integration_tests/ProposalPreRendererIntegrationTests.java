@@ -0,0 +1,123 @@
+package com.qw.qwhomes.domains.proposal.integration_tests;
+
+import com.qw.qwhomes.common.exceptions.ResourceNotFoundException;
+import com.qw.qwhomes.config.QWContext;
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalFile;
+import com.qw.qwhomes.domains.proposal.data.repository.ProposalFileRepository;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalExportCache;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalPreRenderer;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalDocumentStatusDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: pre-rendering starts once the status change is committed
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProposalPreRendererIntegrationTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @TempDir
+    static Path exportPath;
+
+    @DynamicPropertySource
+    static void exportPath(DynamicPropertyRegistry registry) {
+        registry.add("proposal.export.path", () -> exportPath.toString());
+    }
+
+    @Autowired
+    private ProposalExportCache proposalExportCache;
+
+    @Autowired
+    private ProposalPreRenderer proposalPreRenderer;
+
+    @Autowired
+    private ProposalService proposalService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProposalFileRepository proposalFileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Proposal proposal;
+
+    @BeforeEach
+    void setUp() {
+        QWContext.set(new QWContext().setUserId(1L));
+        proposal = transactionTemplate.execute(status -> ProposalFixtures.persistProposal(entityManager, "Pre-render", 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> ProposalFixtures.removeProposal(entityManager, proposal.getId()));
+        QWContext.clear();
+    }
+
+    @Test
+    void finalizeProposal_ShouldRenderEveryFormatBeforeTheFirstDownload() throws Exception {
+        long rendered = meterRegistry.get("proposal.prerender.duration").timer().count();
+
+        proposalService.finalizeProposal(proposal.getId());
+        ProposalDocumentStatusDTO status = awaitReady();
+
+        assertEquals(100, status.getProgress());
+        assertEquals(1, status.getAttempts());
+        assertTrue(status.getRenderMillis() >= 0);
+        assertEquals(rendered + 1, meterRegistry.get("proposal.prerender.duration").timer().count());
+        for (ProposalFile.FileFormat format : ProposalFile.FileFormat.values()) {
+            List<ProposalFile> files = proposalFileRepository.findByProposalAndFormat(proposal.getId(), format);
+            assertEquals(1, files.size());
+            Path document = Path.of(files.get(0).getFilePath());
+            assertTrue(Files.size(document) > 0);
+
+            // The download is served from the pre-rendered file
+            assertEquals(document, proposalExportCache.get(proposalService.getProposalSnapshot(proposal.getId()), format));
+        }
+    }
+
+    @Test
+    void getStatus_ShouldFailForDraftProposal() {
+        assertThrows(ResourceNotFoundException.class, () -> proposalPreRenderer.getStatus(proposal.getId()));
+    }
+
+    private ProposalDocumentStatusDTO awaitReady() throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            ProposalDocumentStatusDTO status = proposalPreRenderer.getStatus(proposal.getId());
+            if (status.getState() == ProposalDocumentStatusDTO.State.READY) {
+                return status;
+            }
+            assertTrue(status.getState() != ProposalDocumentStatusDTO.State.FAILED, status.getErrorMessage());
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Proposal documents were not pre-rendered within " + TIMEOUT);
+    }
+}
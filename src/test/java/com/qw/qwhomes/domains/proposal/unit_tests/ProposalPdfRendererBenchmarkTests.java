@@ -0,0 +1,140 @@
+package com.qw.qwhomes.domains.proposal.unit_tests;
+
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalPdfRenderer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProposalPdfRendererBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ProposalPdfRendererBenchmarkTests.class);
+    // Generous so a noisy build machine does not fail the test, a quadratic renderer is still ~10x slower per line
+    private static final double MAX_PER_LINE_GROWTH = 3.0;
+
+    private final ProposalPdfRenderer renderer = new ProposalPdfRenderer();
+
+    // 28 single-line rows fit below the proposal details on the first page, 33 on every following page
+    @ParameterizedTest
+    @CsvSource({"10, 1", "1000, 31", "10000, 304"})
+    void render_ShouldPaginateInOnePass(int lineCount, int expectedPages) throws IOException {
+        ProposalSnapshot content = content(lineCount, "Product");
+        render(content);
+
+        long start = System.nanoTime();
+        byte[] pdf = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> render(content));
+        long elapsed = System.nanoTime() - start;
+        log.debug("Rendered {} lines on {} pages in {} ms ({} us per line)",
+                lineCount, expectedPages, elapsed / 1_000_000, elapsed / 1000 / lineCount);
+
+        try (PDDocument document = PDDocument.load(pdf)) {
+            assertEquals(expectedPages, document.getNumberOfPages());
+            String lastPage = text(document, expectedPages);
+            assertTrue(lastPage.contains("Page " + expectedPages + " of " + expectedPages));
+            assertTrue(lastPage.contains("Product"), "Table header should repeat on every page");
+            assertTrue(lastPage.contains("Total: AED"));
+        }
+    }
+
+    // Compares wall-clock times, so it only runs in the benchmark task; the page counts above cover correctness
+    @Test
+    @Tag("benchmark")
+    void render_ShouldKeepTimePerLineFlatAsLinesGrow() throws IOException {
+        double small = nanosPerLine(content(1000, "Product"));
+        double large = nanosPerLine(content(10000, "Product"));
+        log.debug("{} ns per line at 1,000 lines, {} ns per line at 10,000 lines", (long) small, (long) large);
+
+        assertTrue(large <= small * MAX_PER_LINE_GROWTH,
+                String.format("%.0f ns per line at 10,000 lines, %.0f ns at 1,000 lines", large, small));
+    }
+
+    @Test
+    void render_ShouldListEveryLineOnceWithPageSubtotals() throws IOException {
+        try (PDDocument document = PDDocument.load(render(content(40, "Item")))) {
+            String text = text(document, 1) + text(document, 2);
+
+            for (int i = 0; i < 40; i++) {
+                // Cells of a row share a baseline, so the name is always followed by the quantity
+                assertEquals(1, occurrences(text, "Item " + i + " "), "Item " + i);
+            }
+            assertTrue(text(document, 1).contains("Page subtotal: AED 280.00"));
+            assertTrue(text(document, 2).contains("Page subtotal: AED 120.00"));
+            assertTrue(text(document, 2).contains("Total: AED 400.00"));
+        }
+    }
+
+    @Test
+    void render_ShouldWrapLongNamesAndReplaceUnsupportedCharacters() throws IOException {
+        String longName = "Extra wide modular corner sofa with reversible chaise and oak legs in stain resistant fabric";
+        List<ProposalSnapshot.Line> lines = List.of(
+                new ProposalSnapshot.Line(longName, 1, 10.0, 10.0),
+                new ProposalSnapshot.Line("Sofa 沙发", 1, 10.0, 10.0));
+
+        try (PDDocument document = PDDocument.load(render(new ProposalSnapshot(1L, null, "Wrapped", "Studio", "DRAFT", 20.0, lines)))) {
+            String text = text(document, 1);
+
+            for (String word : longName.split(" ")) {
+                assertTrue(text.contains(word), word);
+            }
+            assertFalse(text.contains(longName), "Name should be split over several lines");
+            assertTrue(text.contains("Sofa ??"));
+        }
+    }
+
+    // Best of a few runs after a warm-up, so JIT compilation and GC pauses do not count against one size
+    private double nanosPerLine(ProposalSnapshot content) throws IOException {
+        render(content);
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            render(content);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / content.lines().size();
+    }
+
+    private byte[] render(ProposalSnapshot content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(content, out);
+        return out.toByteArray();
+    }
+
+    private static ProposalSnapshot content(int lineCount, String prefix) {
+        List<ProposalSnapshot.Line> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            lines.add(new ProposalSnapshot.Line(prefix + " " + i, 2, 5.0, 10.0));
+        }
+        return new ProposalSnapshot(1L, null, "Benchmark", "Two Bedroom", "DRAFT", 10.0 * lineCount, lines);
+    }
+
+    private static String text(PDDocument document, int page) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(page);
+        stripper.setEndPage(page);
+        return stripper.getText(document);
+    }
+
+    private static int occurrences(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
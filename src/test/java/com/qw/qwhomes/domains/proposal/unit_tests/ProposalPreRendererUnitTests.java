@@ -0,0 +1,121 @@
+package com.qw.qwhomes.domains.proposal.unit_tests;
+
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.service.ProposalService;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalExportCache;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalPreRenderer;
+import com.qw.qwhomes.domains.proposal.service.dto.ProposalDocumentStatusDTO;
+import com.qw.qwhomes.domains.proposal.service.event.ProposalChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProposalPreRendererUnitTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final ProposalService proposalService = mock(ProposalService.class);
+    private final ProposalExportCache proposalExportCache = mock(ProposalExportCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProposalPreRenderer preRenderer;
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(preRenderer, "stop");
+    }
+
+    @Test
+    void render_ShouldRetryFailedRenderAfterBackoff() throws InterruptedException {
+        start(1, 10, Duration.ofMillis(10));
+        when(proposalExportCache.get(any(), any()))
+                .thenThrow(new IllegalStateException("Disk full"))
+                .thenReturn(Path.of("proposal.pdf"));
+
+        preRenderer.onProposalChanged(finalized(1L));
+        ProposalDocumentStatusDTO status = await(1L, ProposalDocumentStatusDTO.State.READY);
+
+        assertEquals(2, status.getAttempts());
+        assertEquals(1.0, meterRegistry.counter("proposal.prerender.outcomes", "outcome", "retried").count());
+        assertEquals(1.0, meterRegistry.counter("proposal.prerender.outcomes", "outcome", "ready").count());
+    }
+
+    @Test
+    void render_ShouldKeepRenderingOtherProposalsDuringBackoff() throws InterruptedException {
+        start(1, 10, Duration.ofHours(1));
+        when(proposalService.getProposalSnapshot(1L)).thenThrow(new IllegalStateException("Disk full"));
+
+        preRenderer.onProposalChanged(finalized(1L));
+        await(1L, ProposalDocumentStatusDTO.State.RETRYING);
+        preRenderer.onProposalChanged(finalized(2L));
+
+        // The only worker is free while the first proposal waits for its retry
+        await(2L, ProposalDocumentStatusDTO.State.READY);
+        assertEquals(ProposalDocumentStatusDTO.State.RETRYING, preRenderer.getStatus(1L).getState());
+    }
+
+    @Test
+    void render_ShouldFailOnErrorAndKeepTheWorkerRunning() throws InterruptedException {
+        // A single worker, so the second proposal only renders if the error did not end it
+        start(1, 10, Duration.ofMillis(10));
+        when(proposalService.getProposalSnapshot(1L)).thenThrow(new StackOverflowError());
+        when(proposalExportCache.get(any(), any())).thenReturn(Path.of("proposal.pdf"));
+
+        preRenderer.onProposalChanged(finalized(1L));
+        preRenderer.onProposalChanged(finalized(2L));
+        ProposalDocumentStatusDTO failed = await(1L, ProposalDocumentStatusDTO.State.FAILED);
+        await(2L, ProposalDocumentStatusDTO.State.READY);
+
+        assertEquals(1, failed.getAttempts());
+        assertEquals("StackOverflowError", failed.getErrorMessage());
+        assertEquals(1.0, meterRegistry.counter("proposal.prerender.outcomes", "outcome", "failed").count());
+    }
+
+    @Test
+    void onProposalChanged_ShouldRejectWhenQueueIsFull() {
+        // No workers, so the first proposal keeps the only queue slot
+        start(0, 1, Duration.ofMillis(10));
+
+        preRenderer.onProposalChanged(finalized(1L));
+        preRenderer.onProposalChanged(finalized(2L));
+
+        assertEquals(ProposalDocumentStatusDTO.State.QUEUED, preRenderer.getStatus(1L).getState());
+        assertEquals(ProposalDocumentStatusDTO.State.REJECTED, preRenderer.getStatus(2L).getState());
+        assertEquals(1.0, meterRegistry.counter("proposal.prerender.outcomes", "outcome", "rejected").count());
+    }
+
+    private void start(int workers, int queueCapacity, Duration retryBackoff) {
+        preRenderer = new ProposalPreRenderer(proposalService, proposalExportCache, meterRegistry, mock(MessageSource.class));
+        ReflectionTestUtils.setField(preRenderer, "workers", workers);
+        ReflectionTestUtils.setField(preRenderer, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(preRenderer, "offerTimeout", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(preRenderer, "maxAttempts", 3);
+        ReflectionTestUtils.setField(preRenderer, "retryBackoff", retryBackoff);
+        ReflectionTestUtils.invokeMethod(preRenderer, "start");
+    }
+
+    private ProposalDocumentStatusDTO await(Long proposalId, ProposalDocumentStatusDTO.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            ProposalDocumentStatusDTO status = preRenderer.getStatus(proposalId);
+            if (status.getState() == state) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Proposal " + proposalId + " did not reach " + state + " within " + TIMEOUT);
+    }
+
+    private static ProposalChangedEvent finalized(Long proposalId) {
+        return new ProposalChangedEvent(proposalId, Proposal.ProposalStatus.FINALIZED, false);
+    }
+}
@@ -0,0 +1,69 @@
+package com.qw.qwhomes.domains.proposal.unit_tests;
+
+import com.qw.qwhomes.domains.apartmenttype.data.entity.ApartmentType;
+import com.qw.qwhomes.domains.product.data.entity.Product;
+import com.qw.qwhomes.domains.proposal.data.entity.Proposal;
+import com.qw.qwhomes.domains.proposal.data.entity.ProposalProduct;
+import com.qw.qwhomes.domains.proposal.service.document.ProposalSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ProposalSnapshotUnitTests {
+
+    private static final LocalDateTime VERSION = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void contentHash_ShouldNotDependOnTheOrderTheLinesWereLoadedIn() {
+        ProposalSnapshot loadedInIdOrder = ProposalSnapshot.from(proposal(line(1L, "Sofa", 2), line(2L, "Table", 1), line(3L, "Lamp", 4)));
+        ProposalSnapshot loadedShuffled = ProposalSnapshot.from(proposal(line(3L, "Lamp", 4), line(1L, "Sofa", 2), line(2L, "Table", 1)));
+
+        assertEquals(loadedInIdOrder.contentHash(), loadedShuffled.contentHash());
+        assertEquals(List.of("Sofa", "Table", "Lamp"), loadedShuffled.lines().stream().map(ProposalSnapshot.Line::productName).toList());
+    }
+
+    @Test
+    void contentHash_ShouldChangeWhenALineChanges() {
+        ProposalSnapshot before = ProposalSnapshot.from(proposal(line(1L, "Sofa", 2), line(2L, "Table", 1)));
+        ProposalSnapshot after = ProposalSnapshot.from(proposal(line(1L, "Sofa", 3), line(2L, "Table", 1)));
+
+        assertNotEquals(before.contentHash(), after.contentHash());
+    }
+
+    private static Proposal proposal(ProposalProduct... lines) {
+        ApartmentType apartmentType = new ApartmentType();
+        apartmentType.setName("Apartment");
+
+        Proposal proposal = new Proposal();
+        proposal.setId(1L);
+        proposal.setName("Proposal");
+        proposal.setStatus(Proposal.ProposalStatus.FINALIZED);
+        proposal.setApartmentType(apartmentType);
+        proposal.setUpdatedAt(VERSION);
+        double total = 0;
+        for (ProposalProduct line : lines) {
+            line.setProposal(proposal);
+            proposal.getProposalProducts().add(line);
+            total += line.getTotalPrice();
+        }
+        proposal.setTotalPrice(total);
+        return proposal;
+    }
+
+    private static ProposalProduct line(Long id, String productName, int quantity) {
+        Product product = new Product();
+        product.setName(productName);
+
+        ProposalProduct line = new ProposalProduct();
+        line.setId(id);
+        line.setProduct(product);
+        line.setQuantity(quantity);
+        line.setPrice(100.0);
+        line.setTotalPrice(100.0 * quantity);
+        return line;
+    }
+}